@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# Compares two JMH JSON result files (mvn -P benchmarks verify writes target/jmh-result.json) and
+# exits with 1 when any benchmark got worse by more than the threshold.
+#
+#   scripts/compare-benchmarks.sh <baseline.json> <current.json> [threshold-percent, default 10]
+#
+# "Worse" means a lower score for throughput (thrpt) and a higher one for time modes (avgt, sample,
+# ss). A change smaller than the two runs' combined error margin is reported as noise, not as a
+# regression. Benchmarks missing from either file are listed but do not fail the comparison.
+#
+# Typical use: keep the result of a run on main as the baseline, run the same benchmarks on the
+# branch on the same machine, and compare the two. Numbers from different machines are not comparable.
+
+if [[ $# -lt 2 ]]; then
+  echo "Usage: $0 <baseline.json> <current.json> [threshold-percent]"
+  exit 2
+fi
+
+BASELINE="$1"
+CURRENT="$2"
+THRESHOLD="${3:-10}"
+
+# join needs both inputs sorted the same way.
+export LC_ALL=C
+
+command -v jq >/dev/null || { echo "jq is required"; exit 2; }
+
+# One line per benchmark: key<TAB>mode<TAB>score<TAB>error<TAB>unit, where key includes the params.
+flatten() {
+  jq -r '.[] | [
+      .benchmark + (if .params then "(" + ([.params | to_entries[] | .key + "=" + .value] | join(",")) + ")" else "" end),
+      .mode,
+      .primaryMetric.score,
+      (.primaryMetric.scoreError | if . == "NaN" or . == null then 0 else . end),
+      .primaryMetric.scoreUnit
+    ] | @tsv' "$1" | sort
+}
+
+join -t $'\t' -a 1 -a 2 -e MISSING -o 0,1.2,1.3,1.4,1.5,2.2,2.3,2.4,2.5 \
+    <(flatten "$BASELINE") <(flatten "$CURRENT") |
+awk -F '\t' -v threshold="$THRESHOLD" '
+  BEGIN {
+    printf "%-70s %14s %14s %9s  %s\n", "Benchmark", "Baseline", "Current", "Change", "Verdict"
+  }
+  {
+    name = $1; sub(/^be\.ap\.student\.benchmark\./, "", name)
+    if ($3 == "MISSING" || $7 == "MISSING") {
+      printf "%-70s %14s %14s %9s  %s\n", name, ($3 == "MISSING" ? "-" : sprintf("%.3f", $3)),
+          ($7 == "MISSING" ? "-" : sprintf("%.3f", $7)), "", ($3 == "MISSING" ? "new" : "removed")
+      next
+    }
+    base = $3 + 0; cur = $7 + 0; unit = $9
+    change = base == 0 ? 0 : (cur - base) * 100 / base
+    higherIsBetter = ($2 == "thrpt")
+    worse = higherIsBetter ? -change : change
+    noise = ($4 + $8) >= (cur > base ? cur - base : base - cur)
+    verdict = "ok"
+    if (worse > threshold && !noise) { verdict = "REGRESSION"; regressions++ }
+    else if (-worse > threshold && !noise) { verdict = "improved" }
+    else if (worse > threshold) { verdict = "noise" }
+    printf "%-70s %14.3f %14.3f %+8.1f%%  %s (%s)\n", name, base, cur, change, verdict, unit
+  }
+  END {
+    if (regressions > 0) {
+      printf "\n%d benchmark(s) regressed by more than %s%%\n", regressions, threshold
+      exit 1
+    }
+  }'
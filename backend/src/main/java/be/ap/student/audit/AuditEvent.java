@@ -0,0 +1,24 @@
+package be.ap.student.audit;
+
+import org.slf4j.MDC;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static be.ap.student.common.web.CorrelationIdFilter.MDC_KEY;
+
+/**
+ * One immutable audit log entry (feature-007). {@code details} is free-form, usually the JSON of the
+ * originating event; it must not contain secrets (feature-007 §8.1).
+ */
+public record AuditEvent(UUID eventId, String correlationId, String userId, String eventType, String action,
+                         String details, Instant occurredAt) {
+
+    /**
+     * A new event for the current request: the correlation id is taken from the
+     * {@link be.ap.student.common.web.CorrelationIdFilter} MDC entry.
+     */
+    public static AuditEvent of(String eventType, String userId, String action, String details) {
+        return new AuditEvent(UUID.randomUUID(), MDC.get(MDC_KEY), userId, eventType, action, details, Instant.now());
+    }
+}
@@ -0,0 +1,295 @@
+package be.ap.student.audit;
+
+import be.ap.student.tickets.event.InMemoryEventBus;
+import be.ap.student.tickets.event.OutboxMessage;
+import be.ap.student.tickets.event.TicketCreatedEvent;
+import be.ap.student.tickets.event.TicketStatusChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stores audit events (feature-007) from the ticket topics and from direct {@link #record} calls.
+ * <p>
+ * Callers only enqueue, so recording adds no database round trip to a request (NFR-001). One writer
+ * thread drains the queue in batches of up to {@code batch-size} and writes them with one JDBC batch
+ * per monthly partition. Duplicate event ids (BR-003) are filtered in two steps: ids the
+ * {@link EventIdBloomFilter} has never seen are inserted straight away, and only the rare "maybe seen"
+ * ids are checked against the stored keys. An id that slips past both (a redelivery after a restart,
+ * or another node) hits the primary key, and that batch is then written row by row, skipping the
+ * duplicates. A failed write is retried after each of {@code retry-delays}; the writer waits in the
+ * meantime because a failing store affects every event behind it. After the last retry the batch
+ * goes to {@code audit_dead_letter} ({@value #DLQ}).
+ */
+@Component
+public class AuditLogConsumer implements SmartLifecycle {
+
+    public static final String DLQ = "audit-dlq";
+    static final String SYSTEM_USER = "system";
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogConsumer.class);
+    private static final int MAX_DETAILS_LENGTH = 4000;
+
+    private final AuditLogRepository repository;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<AuditEvent> queue;
+    private final int batchSize;
+    private final List<Duration> retryDelays;
+    private final EventIdBloomFilter seen;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Counter received;
+    private final Counter processed;
+    private final Counter duplicates;
+    private final Counter failed;
+    private final Counter writeErrors;
+    private final Timer latency;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditLogConsumer(AuditLogRepository repository, InMemoryEventBus eventBus, JsonMapper jsonMapper,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            @Value("${tickets.audit.queue-capacity:50000}") int queueCapacity,
+                            @Value("${tickets.audit.batch-size:500}") int batchSize,
+                            @Value("${tickets.audit.retry-delays:PT1S,PT2S,PT4S}") List<Duration> retryDelays,
+                            @Value("${tickets.audit.bloom-filter.capacity:1000000}") int bloomCapacity,
+                            @Value("${tickets.audit.bloom-filter.false-positive-rate:0.01}") double bloomFalsePositiveRate) {
+        this.repository = repository;
+        this.jsonMapper = jsonMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.retryDelays = List.copyOf(retryDelays);
+        this.seen = new EventIdBloomFilter(bloomCapacity, bloomFalsePositiveRate);
+        this.received = Counter.builder("audit.events.received").register(meterRegistry);
+        this.processed = Counter.builder("audit.events.processed").register(meterRegistry);
+        this.duplicates = Counter.builder("audit.events.duplicates").register(meterRegistry);
+        this.failed = Counter.builder("audit.events.failed").register(meterRegistry);
+        this.writeErrors = Counter.builder("audit.database.write_errors").register(meterRegistry);
+        this.latency = Timer.builder("audit.event.processing.latency")
+                .description("Time from recording an event to storing it")
+                .register(meterRegistry);
+        Gauge.builder("audit.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        // Subscribed before the relay starts, so no event of this run is missed; the writer drains later.
+        eventBus.subscribe(TicketCreatedEvent.TOPIC, this::onTicketEvent);
+        eventBus.subscribe(TicketStatusChangedEvent.TOPIC, this::onTicketEvent);
+    }
+
+    /**
+     * Queues {@code event} for storage, blocking while the queue is full.
+     */
+    public void record(AuditEvent event) {
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while recording audit event " + event.eventId(), e);
+        }
+        received.increment();
+    }
+
+    /**
+     * Events stored since start, for throughput checks.
+     */
+    public long processedCount() {
+        return (long) processed.count();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("audit-writer").daemon().start(this::writeLoop);
+        log.info("audit_consumer_started batchSize={} retryDelays={}", batchSize, retryDelays);
+    }
+
+    /**
+     * Stores what is still queued, then stops.
+     */
+    @Override
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        log.info("audit_consumer_stopped queued={}", queue.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the {@link be.ap.student.tickets.event.OutboxRelay} that feeds it.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 16384;
+    }
+
+    AuditEvent toAuditEvent(OutboxMessage message) {
+        JsonNode envelope = jsonMapper.readTree(message.payload());
+        JsonNode payload = envelope.path("payload");
+        String ticketNumber = payload.path("ticketNumber").asString();
+        String userId;
+        String action;
+        if (TicketCreatedEvent.TOPIC.equals(message.topic())) {
+            userId = payload.path("createdByUserId").asString(SYSTEM_USER);
+            action = "Ticket " + ticketNumber + " created";
+        } else {
+            userId = SYSTEM_USER;
+            action = "Ticket " + ticketNumber + " changed from " + payload.path("previousStatus").asString()
+                    + " to " + payload.path("newStatus").asString();
+        }
+        String details = payload.toString();
+        if (details.length() > MAX_DETAILS_LENGTH) {
+            details = details.substring(0, MAX_DETAILS_LENGTH);
+        }
+        JsonNode occurredAt = envelope.path("occurredAt");
+        return new AuditEvent(message.eventId(), message.correlationId(), userId, message.eventType(), action, details,
+                occurredAt.isString() ? Instant.parse(occurredAt.asString()) : message.createdAt());
+    }
+
+    private void onTicketEvent(OutboxMessage message) {
+        record(toAuditEvent(message));
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetries(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeWithRetries(List<AuditEvent> batch) throws InterruptedException {
+        int attempts = retryDelays.size() + 1;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write(batch);
+                return;
+            } catch (DataAccessException e) {
+                writeErrors.increment();
+                if (attempt == attempts) {
+                    log.error("audit_batch_dead_lettered size={} attempts={} reason={}",
+                            batch.size(), attempts, e.getMessage());
+                    deadLetter(batch, e.getMessage(), attempts);
+                    return;
+                }
+                log.warn("audit_batch_write_failed size={} attempt={} attempts={} reason={}",
+                        batch.size(), attempt, attempts, e.getMessage());
+                Thread.sleep(retryDelays.get(attempt - 1));
+            }
+        }
+    }
+
+    /**
+     * One attempt at storing {@code batch}: drops duplicates, inserts the rest. Locked for the Bloom
+     * filter; in practice only the writer thread calls it. A lock rather than synchronized, as the JDBC
+     * calls inside would pin a virtual thread.
+     */
+    void write(List<AuditEvent> batch) {
+        writeLock.lock();
+        try {
+            Map<UUID, AuditEvent> unique = new LinkedHashMap<>(batch.size() * 2);
+            List<AuditEvent> maybeStored = new ArrayList<>();
+            for (AuditEvent event : batch) {
+                if (unique.putIfAbsent(event.eventId(), event) == null && seen.mightContain(event.eventId())) {
+                    maybeStored.add(event);
+                }
+            }
+            if (!maybeStored.isEmpty()) {
+                Set<UUID> stored = repository.findStoredIds(maybeStored);
+                unique.keySet().removeAll(stored);
+            }
+            int skipped = batch.size() - unique.size();
+            if (!unique.isEmpty()) {
+                // Outside the transaction: DDL would commit it halfway.
+                repository.createPartitionsFor(unique.values());
+                try {
+                    // One transaction, so a duplicate key leaves nothing behind for the row-by-row pass.
+                    transactionTemplate.executeWithoutResult(tx -> repository.insertAll(unique.values()));
+                } catch (DuplicateKeyException e) {
+                    skipped += insertOneByOne(unique.values());
+                }
+            }
+            long now = System.currentTimeMillis();
+            for (AuditEvent event : unique.values()) {
+                seen.add(event.eventId());
+                latency.record(Math.max(0, now - event.occurredAt().toEpochMilli()), TimeUnit.MILLISECONDS);
+            }
+            processed.increment(batch.size() - skipped);
+            duplicates.increment(skipped);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private int insertOneByOne(Iterable<AuditEvent> events) {
+        int skipped = 0;
+        for (AuditEvent event : events) {
+            try {
+                repository.insertAll(List.of(event));
+            } catch (DuplicateKeyException e) {
+                skipped++;
+            }
+        }
+        return skipped;
+    }
+
+    private void deadLetter(List<AuditEvent> batch, String error, int attempts) {
+        failed.increment(batch.size());
+        String truncated = error == null ? "unknown" : error.substring(0, Math.min(error.length(), 1000));
+        try {
+            repository.addDeadLetters(batch, truncated, attempts);
+        } catch (DataAccessException e) {
+            // The audit database is unavailable altogether; the log is the last record of these events.
+            batch.forEach(event -> log.error("audit_event_lost eventId={} correlationId={} userId={} action={}",
+                    event.eventId(), event.correlationId(), event.userId(), event.action()));
+        }
+    }
+}
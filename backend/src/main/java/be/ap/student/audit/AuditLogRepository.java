@@ -0,0 +1,247 @@
+package be.ap.student.audit;
+
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only JDBC store for the audit log, partitioned by month (UTC) of {@code occurred_at}.
+ * <p>
+ * H2 has no declarative partitioning, so each month is its own {@code audit_log_yyyyMM} table,
+ * created by {@link #createPartition} ahead of the writes. DDL commits implicitly, so it is kept out of
+ * the write transactions: {@link AuditRetentionJob} creates the current and next month, and writers
+ * call {@link #createPartitionsFor} before opening their transaction for events of any other month. Retention drops whole tables instead of scanning with {@code DELETE}, and
+ * there is deliberately no update or single-row delete (feature-007 BR-001). The event id is the
+ * primary key of its partition; an event always lands in the partition of its own timestamp, so a
+ * redelivery hits the same key.
+ */
+@Repository
+public class AuditLogRepository {
+
+    static final String TABLE_PREFIX = "audit_log_";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final RowMapper<AuditEvent> ROW_MAPPER = (rs, rowNum) -> new AuditEvent(
+            rs.getObject("event_id", UUID.class),
+            rs.getString("correlation_id"),
+            rs.getString("user_id"),
+            rs.getString("event_type"),
+            rs.getString("action"),
+            rs.getString("details"),
+            rs.getTimestamp("occurred_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Set<YearMonth> knownPartitions = ConcurrentHashMap.newKeySet();
+
+    public AuditLogRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    static YearMonth partitionOf(Instant occurredAt) {
+        return YearMonth.from(occurredAt.atZone(ZoneOffset.UTC));
+    }
+
+    static String tableName(YearMonth month) {
+        return TABLE_PREFIX + SUFFIX.format(month);
+    }
+
+    /**
+     * Inserts {@code events} with one JDBC batch per partition. Fails with a
+     * {@link org.springframework.dao.DuplicateKeyException} if any id is already stored; rows before
+     * the duplicate may have been written. Runs no DDL: a partition that does not exist yet fails the
+     * insert with an {@link InvalidDataAccessApiUsageException}.
+     */
+    public void insertAll(Collection<AuditEvent> events) {
+        Timestamp storedAt = Timestamp.from(Instant.now());
+        for (Map.Entry<YearMonth, List<AuditEvent>> partition : byPartition(events).entrySet()) {
+            String table = tableName(partition.getKey());
+            if (!partitionExists(partition.getKey())) {
+                throw new InvalidDataAccessApiUsageException("Audit partition " + table + " does not exist");
+            }
+            List<AuditEvent> rows = partition.getValue();
+            jdbcTemplate.batchUpdate("insert into " + table + """
+                     (event_id, correlation_id, user_id, event_type, action, details, occurred_at, stored_at)
+                    values (?, ?, ?, ?, ?, ?, ?, ?)
+                    """, rows, rows.size(), (ps, event) -> {
+                ps.setObject(1, event.eventId());
+                ps.setString(2, event.correlationId());
+                ps.setString(3, event.userId());
+                ps.setString(4, event.eventType());
+                ps.setString(5, event.action());
+                ps.setString(6, event.details());
+                ps.setTimestamp(7, Timestamp.from(event.occurredAt()));
+                ps.setTimestamp(8, storedAt);
+            });
+        }
+    }
+
+    /**
+     * The ids of {@code events} that are already stored, with one query per partition.
+     */
+    public Set<UUID> findStoredIds(Collection<AuditEvent> events) {
+        Set<UUID> stored = new HashSet<>();
+        for (Map.Entry<YearMonth, List<AuditEvent>> partition : byPartition(events).entrySet()) {
+            if (!partitionExists(partition.getKey())) {
+                continue;
+            }
+            List<AuditEvent> rows = partition.getValue();
+            String placeholders = String.join(", ", Collections.nCopies(rows.size(), "?"));
+            stored.addAll(jdbcTemplate.queryForList(
+                    "select event_id from " + tableName(partition.getKey()) + " where event_id in (" + placeholders + ")",
+                    UUID.class, rows.stream().map(AuditEvent::eventId).toArray()));
+        }
+        return stored;
+    }
+
+    /**
+     * All entries of one correlation id in {@code month}, oldest first.
+     */
+    public List<AuditEvent> findByCorrelationId(YearMonth month, String correlationId) {
+        if (!partitionExists(month)) {
+            return List.of();
+        }
+        return jdbcTemplate.query("select * from " + tableName(month)
+                + " where correlation_id = ? order by occurred_at", ROW_MAPPER, correlationId);
+    }
+
+    public long count(YearMonth month) {
+        if (!partitionExists(month)) {
+            return 0;
+        }
+        Long count = jdbcTemplate.queryForObject("select count(*) from " + tableName(month), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Existing partitions, oldest first.
+     */
+    public List<YearMonth> findPartitions() {
+        List<String> tables = jdbcTemplate.queryForList("""
+                select table_name from information_schema.tables
+                where table_schema = current_schema and lower(table_name) like 'audit\\_log\\_______' escape '\\'
+                """, String.class);
+        List<YearMonth> months = new ArrayList<>(tables.size());
+        for (String table : tables) {
+            months.add(YearMonth.parse(table.substring(TABLE_PREFIX.length()), SUFFIX));
+        }
+        Collections.sort(months);
+        return months;
+    }
+
+    /**
+     * Drops every partition older than {@code cutoff} and returns the dropped months.
+     */
+    public List<YearMonth> dropPartitionsBefore(YearMonth cutoff) {
+        List<YearMonth> dropped = new ArrayList<>();
+        for (YearMonth month : findPartitions()) {
+            if (month.isBefore(cutoff)) {
+                jdbcTemplate.execute("drop table if exists " + tableName(month));
+                knownPartitions.remove(month);
+                dropped.add(month);
+            }
+        }
+        return dropped;
+    }
+
+    public void addDeadLetters(Collection<AuditEvent> events, String error, int attempts) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<AuditEvent> rows = List.copyOf(events);
+        jdbcTemplate.batchUpdate("""
+                insert into audit_dead_letter
+                    (event_id, correlation_id, user_id, event_type, action, details, occurred_at,
+                     error_message, attempts, created_at)
+                values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, rows, rows.size(), (ps, event) -> {
+            ps.setObject(1, event.eventId());
+            ps.setString(2, event.correlationId());
+            ps.setString(3, event.userId());
+            ps.setString(4, event.eventType());
+            ps.setString(5, event.action());
+            ps.setString(6, event.details());
+            ps.setTimestamp(7, Timestamp.from(event.occurredAt()));
+            ps.setString(8, error);
+            ps.setInt(9, attempts);
+            ps.setTimestamp(10, now);
+        });
+    }
+
+    public long countDeadLetters() {
+        Long count = jdbcTemplate.queryForObject("select count(*) from audit_dead_letter", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Creates the partitions of {@code events} that do not exist yet. Not to be called inside a write
+     * transaction, as the DDL commits it.
+     */
+    public void createPartitionsFor(Collection<AuditEvent> events) {
+        for (YearMonth month : byPartition(events).keySet()) {
+            createPartition(month);
+        }
+    }
+
+    /**
+     * Creates the partition of {@code month} with its indexes, if it does not exist yet.
+     */
+    public void createPartition(YearMonth month) {
+        String table = tableName(month);
+        if (knownPartitions.contains(month)) {
+            return;
+        }
+        jdbcTemplate.execute("create table if not exists " + table + """
+                 (
+                    event_id uuid primary key,
+                    correlation_id varchar(64),
+                    user_id varchar(64) not null,
+                    event_type varchar(64) not null,
+                    action varchar(255) not null,
+                    details varchar(4000),
+                    occurred_at timestamp not null,
+                    stored_at timestamp not null
+                )""");
+        jdbcTemplate.execute("create index if not exists idx_" + table + "_user on " + table + " (user_id, occurred_at)");
+        jdbcTemplate.execute("create index if not exists idx_" + table + "_correlation on " + table
+                + " (correlation_id, occurred_at)");
+        knownPartitions.add(month);
+    }
+
+    private boolean partitionExists(YearMonth month) {
+        if (knownPartitions.contains(month)) {
+            return true;
+        }
+        Integer tables = jdbcTemplate.queryForObject("""
+                select count(*) from information_schema.tables
+                where table_schema = current_schema and lower(table_name) = ?
+                """, Integer.class, tableName(month));
+        if (tables != null && tables > 0) {
+            knownPartitions.add(month);
+            return true;
+        }
+        return false;
+    }
+
+    private static Map<YearMonth, List<AuditEvent>> byPartition(Collection<AuditEvent> events) {
+        Map<YearMonth, List<AuditEvent>> partitions = new LinkedHashMap<>();
+        for (AuditEvent event : events) {
+            partitions.computeIfAbsent(partitionOf(event.occurredAt()), m -> new ArrayList<>()).add(event);
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,64 @@
+package be.ap.student.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Period;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Enforces the audit retention (feature-007 NFR-003, at least two years) by dropping monthly
+ * partitions whose every entry is older than {@code retention}. The current partial month is always
+ * kept, so entries live between {@code retention} and {@code retention} plus one month.
+ * <p>
+ * It also creates the partitions of the current and the next month, at startup and on every run, so
+ * the audit writer does not have to create them inside its write transaction.
+ */
+@Component
+public class AuditRetentionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditRetentionJob.class);
+
+    private final AuditLogRepository repository;
+    private final Period retention;
+    private final Clock clock;
+
+    @Autowired
+    public AuditRetentionJob(AuditLogRepository repository,
+                             @Value("${tickets.audit.retention:P2Y}") Period retention) {
+        this(repository, retention, Clock.systemUTC());
+    }
+
+    AuditRetentionJob(AuditLogRepository repository, Period retention, Clock clock) {
+        this.repository = repository;
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${tickets.audit.retention-cron:0 15 4 * * *}")
+    public void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now(clock.withZone(ZoneOffset.UTC));
+        repository.createPartition(current);
+        repository.createPartition(current.plusMonths(1));
+    }
+
+    @Scheduled(cron = "${tickets.audit.retention-cron:0 15 4 * * *}")
+    public List<YearMonth> dropExpiredPartitions() {
+        YearMonth cutoff = YearMonth.now(clock.withZone(ZoneOffset.UTC)).minus(retention);
+        List<YearMonth> dropped = repository.dropPartitionsBefore(cutoff);
+        if (!dropped.isEmpty()) {
+            log.info("audit_partitions_dropped months={} cutoff={}", dropped, cutoff);
+        }
+        return dropped;
+    }
+}
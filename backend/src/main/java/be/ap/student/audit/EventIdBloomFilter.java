@@ -0,0 +1,81 @@
+package be.ap.student.audit;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Bloom filter over event ids, used to skip the database duplicate check for ids that were certainly
+ * not stored by this node. A negative answer is exact; a positive one means "maybe" and must be
+ * confirmed against the unique key.
+ * <p>
+ * Two generations are kept: once the current one holds {@code capacity} ids it becomes the previous
+ * one and a fresh generation starts, so memory stays bounded and the false positive rate stays near
+ * the configured value while the most recent {@code capacity}..{@code 2 * capacity} ids are covered.
+ * Not thread-safe: owned by the audit writer thread.
+ */
+final class EventIdBloomFilter {
+
+    private final int capacity;
+    private final int bits;
+    private final int hashes;
+    private long[] current;
+    private long[] previous;
+    private int size;
+
+    EventIdBloomFilter(int capacity, double falsePositiveRate) {
+        long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.capacity = capacity;
+        this.bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBits));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        this.current = new long[(bits + 63) >>> 6];
+        this.previous = new long[current.length];
+    }
+
+    boolean mightContain(UUID eventId) {
+        long h1 = mix(eventId.getMostSignificantBits());
+        long h2 = mix(eventId.getLeastSignificantBits() ^ h1);
+        return contains(current, h1, h2) || contains(previous, h1, h2);
+    }
+
+    void add(UUID eventId) {
+        if (size == capacity) {
+            long[] recycled = previous;
+            Arrays.fill(recycled, 0L);
+            previous = current;
+            current = recycled;
+            size = 0;
+        }
+        long h1 = mix(eventId.getMostSignificantBits());
+        long h2 = mix(eventId.getLeastSignificantBits() ^ h1);
+        for (int i = 0; i < hashes; i++) {
+            int bit = index(h1, h2, i);
+            current[bit >>> 6] |= 1L << bit;
+        }
+        size++;
+    }
+
+    private boolean contains(long[] words, long h1, long h2) {
+        for (int i = 0; i < hashes; i++) {
+            int bit = index(h1, h2, i);
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Kirsch-Mitzenmacher: k indexes from two hashes.
+    private int index(long h1, long h2, int i) {
+        return (int) Long.remainderUnsigned(h1 + i * h2, bits);
+    }
+
+    // MurmurHash3 fmix64; time-ordered ids have little entropy in their high bits.
+    private static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,127 @@
+package be.ap.student.common.api;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An {@link ApiError} serialized once with the correlation id left open, for error responses whose
+ * code, message and field errors come from a closed set. Rendering one writes the cached bytes around
+ * the request's correlation id, without building or serializing the error again.
+ * <p>
+ * The bytes come from the application's {@link JsonMapper}, so the output is exactly what serializing
+ * the {@link ApiError} would give. Correlation ids are written as is when they only contain the
+ * characters the {@code CorrelationIdFilter} lets through; anything else is escaped by the mapper.
+ */
+public final class ApiErrorTemplate {
+
+    private static final String MARKER = "correlation-id-7f3c9a";
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private final JsonMapper jsonMapper;
+    private final String code;
+    private final String message;
+    private final List<ApiError.FieldError> fieldErrors;
+    private final byte[] prefix;
+    private final byte[] suffix;
+
+    private ApiErrorTemplate(JsonMapper jsonMapper, String code, String message,
+                             List<ApiError.FieldError> fieldErrors, byte[] prefix, byte[] suffix) {
+        this.jsonMapper = jsonMapper;
+        this.code = code;
+        this.message = message;
+        this.fieldErrors = fieldErrors;
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    public static ApiErrorTemplate of(JsonMapper jsonMapper, String code, String message,
+                                      List<ApiError.FieldError> fieldErrors) {
+        List<ApiError.FieldError> fields = List.copyOf(fieldErrors);
+        byte[] json = jsonMapper.writeValueAsBytes(new ApiError(MARKER, code, message, fields));
+        byte[] marker = ('"' + MARKER + '"').getBytes(StandardCharsets.US_ASCII);
+        int at = indexOf(json, marker);
+        if (at < 0) {
+            throw new IllegalStateException("No correlationId in " + new String(json, StandardCharsets.UTF_8));
+        }
+        return new ApiErrorTemplate(jsonMapper, code, message, fields, Arrays.copyOfRange(json, 0, at),
+                Arrays.copyOfRange(json, at + marker.length, json.length));
+    }
+
+    public PreparedApiError withCorrelationId(String correlationId) {
+        return new PreparedApiError(this, correlationId);
+    }
+
+    public String code() {
+        return code;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    public List<ApiError.FieldError> fieldErrors() {
+        return fieldErrors;
+    }
+
+    int length(String correlationId) {
+        int id;
+        if (correlationId == null) {
+            id = NULL.length;
+        } else if (isPlain(correlationId)) {
+            id = correlationId.length() + 2;
+        } else {
+            id = jsonMapper.writeValueAsBytes(correlationId).length;
+        }
+        return prefix.length + id + suffix.length;
+    }
+
+    void writeTo(OutputStream out, String correlationId) throws IOException {
+        if (correlationId != null && isPlain(correlationId)) {
+            // One array and one write: output streams are slow per call, and the id is plain ASCII.
+            int length = correlationId.length();
+            byte[] body = new byte[prefix.length + length + 2 + suffix.length];
+            System.arraycopy(prefix, 0, body, 0, prefix.length);
+            body[prefix.length] = '"';
+            for (int i = 0; i < length; i++) {
+                body[prefix.length + 1 + i] = (byte) correlationId.charAt(i);
+            }
+            body[prefix.length + 1 + length] = '"';
+            System.arraycopy(suffix, 0, body, prefix.length + length + 2, suffix.length);
+            out.write(body);
+            return;
+        }
+        out.write(prefix);
+        out.write(correlationId == null ? NULL : jsonMapper.writeValueAsBytes(correlationId));
+        out.write(suffix);
+    }
+
+    private static boolean isPlain(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean plain = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.';
+            if (!plain) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] bytes, byte[] part) {
+        outer:
+        for (int i = 0; i <= bytes.length - part.length; i++) {
+            for (int j = 0; j < part.length; j++) {
+                if (bytes[i + j] != part[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,26 @@
+package be.ap.student.common.api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An {@link ApiError} rendered from an {@link ApiErrorTemplate}. It reads like any other
+ * {@code ApiError}; the web layer writes it straight from the template's bytes.
+ */
+public final class PreparedApiError extends ApiError {
+
+    private final ApiErrorTemplate template;
+
+    PreparedApiError(ApiErrorTemplate template, String correlationId) {
+        super(correlationId, template.code(), template.message(), template.fieldErrors());
+        this.template = template;
+    }
+
+    public int contentLength() {
+        return template.length(getCorrelationId());
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        template.writeTo(out, getCorrelationId());
+    }
+}
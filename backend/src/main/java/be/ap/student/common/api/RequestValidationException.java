@@ -0,0 +1,22 @@
+package be.ap.student.common.api;
+
+import java.util.List;
+
+/**
+ * Request fields that failed validation, answered as {@code VALIDATION_ERROR} with one field error per
+ * field. Thrown by hand-written validators on hot paths, which preallocate one instance per field
+ * combination; it carries no stack trace and no suppressed exceptions, so sharing is safe.
+ */
+public class RequestValidationException extends RuntimeException {
+
+    private final List<String> fields;
+
+    public RequestValidationException(List<String> fields) {
+        super("Invalid fields " + fields, null, false, false);
+        this.fields = List.copyOf(fields);
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+}
@@ -0,0 +1,61 @@
+package be.ap.student.common.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered primary keys in the RFC 9562 UUIDv7 layout: a 48-bit millisecond timestamp, a 12-bit
+ * counter and 62 random bits. New keys land at the right edge of a primary-key index instead of on a
+ * random page, so inserts touch the same few pages and the index stays dense.
+ * <p>
+ * Timestamp and counter are one {@link AtomicLong}, bumped by one per id and never below the clock,
+ * so ids from this JVM strictly increase across all threads: the counter restarts at zero each
+ * millisecond, more than 4096 ids in a millisecond borrow from the next one, and a clock that steps
+ * back does not reorder anything. Ids from different nodes are kept apart by the random bits, which
+ * come from {@link ThreadLocalRandom} as they need to be unique, not unpredictable. Creating an id
+ * allocates the {@code UUID} and nothing else.
+ */
+public final class UuidV7Generator {
+
+    private static final UuidV7Generator SHARED = new UuidV7Generator(System::currentTimeMillis);
+
+    static final int COUNTER_BITS = 12;
+    private static final long VERSION = 7L << COUNTER_BITS;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private final LongSupplier clock;
+    // (epoch millis << COUNTER_BITS) | counter of the last id handed out.
+    private final AtomicLong last = new AtomicLong();
+
+    UuidV7Generator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static UUID next() {
+        return SHARED.nextId();
+    }
+
+    /**
+     * The creation time a {@link #next()} id carries, to the millisecond; may run ahead of the clock by
+     * the milliseconds borrowed under a burst.
+     */
+    public static long epochMillis(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+
+    UUID nextId() {
+        long now = clock.getAsLong() << COUNTER_BITS;
+        long stamp = last.accumulateAndGet(now, (previous, floor) -> Math.max(floor, previous + 1));
+        return of(stamp, ThreadLocalRandom.current().nextLong());
+    }
+
+    static UUID of(long stamp, long random) {
+        long millis = stamp >>> COUNTER_BITS;
+        long counter = stamp & COUNTER_MASK;
+        return new UUID((millis << 16) | VERSION | counter, VARIANT | (random & RANDOM_MASK));
+    }
+}
@@ -0,0 +1,43 @@
+package be.ap.student.common.metrics;
+
+import be.ap.student.common.web.CorrelationIdFilter;
+import io.prometheus.metrics.tracer.common.SpanContext;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+
+/**
+ * Links Prometheus exemplars to the request's {@code X-Correlation-Id}.
+ * <p>
+ * There is no distributed tracing in this service, so the correlation id in the MDC stands in for both
+ * the trace and the span: a histogram bucket's exemplar then carries
+ * {@code trace_id="<correlation id>"}, which finds the request's log lines. Boot hands this bean to the
+ * Prometheus registry; exemplars are only part of the OpenMetrics format
+ * ({@code Accept: application/openmetrics-text}).
+ */
+@Component
+public class CorrelationIdSpanContext implements SpanContext {
+
+    // OpenMetrics caps an exemplar's label names and values at 128 characters together.
+    static final int MAX_ID_LENGTH = 50;
+
+    @Override
+    public String getCurrentTraceId() {
+        String correlationId = MDC.get(CorrelationIdFilter.MDC_KEY);
+        return correlationId == null || correlationId.length() > MAX_ID_LENGTH ? null : correlationId;
+    }
+
+    @Override
+    public String getCurrentSpanId() {
+        return getCurrentTraceId();
+    }
+
+    @Override
+    public boolean isCurrentSpanSampled() {
+        return MDC.get(CorrelationIdFilter.MDC_KEY) != null;
+    }
+
+    @Override
+    public void markCurrentSpanAsExemplar() {
+        // Nothing to mark: there is no tracer whose sampling decision could be kept.
+    }
+}
@@ -0,0 +1,92 @@
+package be.ap.student.common.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes Hibernate's session-factory statistics ({@code hibernate.generate_statistics=true}) as
+ * {@code hibernate.*} meters, named after the ones of the hibernate-micrometer module, which has no
+ * release matching the Hibernate version in use here.
+ * <p>
+ * All values are read from {@link Statistics} on scrape, so recording costs nothing beyond Hibernate's
+ * own counters. With statistics disabled the meters stay at zero.
+ */
+@Component
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private static final String FACTORY_TAG = "entityManagerFactory";
+
+    private final Statistics statistics;
+    private final String factoryName;
+
+    public HibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.statistics = sessionFactory.getStatistics();
+        this.factoryName = sessionFactory.getName() == null ? "entityManagerFactory" : sessionFactory.getName();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "hibernate.sessions.open", "Sessions opened", Statistics::getSessionOpenCount);
+        counter(registry, "hibernate.sessions.closed", "Sessions closed", Statistics::getSessionCloseCount);
+        counter(registry, "hibernate.transactions", "Transactions", Statistics::getTransactionCount);
+        counter(registry, "hibernate.transactions.successful", "Committed transactions",
+                Statistics::getSuccessfulTransactionCount);
+        counter(registry, "hibernate.optimistic.failures", "Optimistic lock failures",
+                Statistics::getOptimisticFailureCount);
+        counter(registry, "hibernate.flushes", "Session flushes", Statistics::getFlushCount);
+        counter(registry, "hibernate.connections.obtained", "JDBC connections obtained",
+                Statistics::getConnectCount);
+        counter(registry, "hibernate.statements.prepared", "JDBC statements prepared",
+                Statistics::getPrepareStatementCount);
+
+        entityCounter(registry, "load", Statistics::getEntityLoadCount);
+        entityCounter(registry, "fetch", Statistics::getEntityFetchCount);
+        entityCounter(registry, "insert", Statistics::getEntityInsertCount);
+        entityCounter(registry, "update", Statistics::getEntityUpdateCount);
+        entityCounter(registry, "delete", Statistics::getEntityDeleteCount);
+
+        counter(registry, "hibernate.query.executions", "HQL/JPQL and native query executions",
+                Statistics::getQueryExecutionCount);
+        TimeGauge.builder("hibernate.query.executions.max", statistics, TimeUnit.MILLISECONDS,
+                        Statistics::getQueryExecutionMaxTime)
+                .description("Slowest query execution since start")
+                .tag(FACTORY_TAG, factoryName)
+                .register(registry);
+        Gauge.builder("hibernate.query.plan.cache.hit.ratio", statistics, HibernateStatisticsMetrics::planCacheHitRatio)
+                .description("Share of query plans served from the plan cache")
+                .tag(FACTORY_TAG, factoryName)
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description, ToDoubleFunction<Statistics> value) {
+        FunctionCounter.builder(name, statistics, value)
+                .description(description)
+                .tag(FACTORY_TAG, factoryName)
+                .register(registry);
+    }
+
+    private void entityCounter(MeterRegistry registry, String operation, ToDoubleFunction<Statistics> value) {
+        FunctionCounter.builder("hibernate.entities", statistics, value)
+                .description("Entity operations")
+                .tag(FACTORY_TAG, factoryName)
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    private static double planCacheHitRatio(Statistics statistics) {
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long total = hits + statistics.getQueryPlanCacheMissCount();
+        return total == 0 ? Double.NaN : (double) hits / total;
+    }
+}
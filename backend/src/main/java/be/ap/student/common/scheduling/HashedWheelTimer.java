@@ -0,0 +1,151 @@
+package be.ap.student.common.scheduling;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel for large numbers of short, imprecise delays (retry backoff and similar).
+ * <p>
+ * One thread advances the wheel every {@code tick}; a task lands in the bucket of its deadline tick and
+ * carries the number of full rotations still to wait. Scheduling is a lock-free enqueue and firing is
+ * proportional to the tasks in one bucket, so thousands of pending delays cost no sleeping threads and
+ * no heap operations. Deadlines are rounded up to the next tick. Expired tasks run on {@code executor}.
+ */
+public final class HashedWheelTimer implements AutoCloseable {
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<ArrayDeque<Timeout>> wheel;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Executor executor;
+    private final long startNanos;
+    private final Thread worker;
+
+    private volatile boolean running = true;
+    // Owned by the worker thread.
+    private long tick;
+
+    /**
+     * @param wheelSize number of buckets, rounded up to a power of two
+     */
+    public HashedWheelTimer(String name, Duration tick, int wheelSize, Executor executor) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("tick must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickNanos = tick.toNanos();
+        this.mask = size - 1;
+        this.wheel = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+        this.executor = executor;
+        this.startNanos = System.nanoTime();
+        this.worker = Thread.ofPlatform().name(name).daemon().start(this::run);
+    }
+
+    public void schedule(Runnable task, Duration delay) {
+        if (!running) {
+            throw new IllegalStateException("Timer is closed");
+        }
+        pending.incrementAndGet();
+        scheduled.add(new Timeout(task, System.nanoTime() + delay.toNanos()));
+    }
+
+    /**
+     * Number of tasks scheduled but not yet handed to the executor.
+     */
+    public int pendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Stops the timer and returns the tasks that had not fired yet.
+     */
+    public List<Runnable> stop() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Runnable> unfired = new ArrayList<>();
+        for (ArrayDeque<Timeout> bucket : wheel) {
+            bucket.forEach(timeout -> unfired.add(timeout.task));
+            bucket.clear();
+        }
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            unfired.add(timeout.task);
+        }
+        pending.set(0);
+        return unfired;
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = startNanos + (tick + 1) * tickNanos;
+            long wait;
+            while (running && (wait = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+            if (!running) {
+                return;
+            }
+            transferScheduled();
+            expire(wheel.get((int) (tick & mask)));
+            tick++;
+        }
+    }
+
+    private void transferScheduled() {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            long deadlineTick = Math.max(tick, (timeout.deadlineNanos - startNanos + tickNanos - 1) / tickNanos);
+            timeout.remainingRounds = (deadlineTick - tick) / wheel.size();
+            wheel.get((int) (deadlineTick & mask)).add(timeout);
+        }
+    }
+
+    private void expire(ArrayDeque<Timeout> bucket) {
+        Iterator<Timeout> it = bucket.iterator();
+        while (it.hasNext()) {
+            Timeout timeout = it.next();
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                continue;
+            }
+            it.remove();
+            pending.decrementAndGet();
+            executor.execute(timeout.task);
+        }
+    }
+
+    private static final class Timeout {
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
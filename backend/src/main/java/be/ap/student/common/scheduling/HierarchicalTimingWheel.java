@@ -0,0 +1,162 @@
+package be.ap.student.common.scheduling;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for very many long, coarse deadlines (hours or days at second precision).
+ * <p>
+ * Level 0 has one bucket per tick for the current block of 64 ticks; every next level has one bucket
+ * per block of the level below, 64 times coarser, up to eleven levels so any {@code long} deadline
+ * fits. A deadline is kept in the finest level whose block it shares with the current tick and moves
+ * down a level each time the clock enters its block, so each entry is touched at most once per level,
+ * however far out it is, and a tick with nothing due costs one empty bucket. Entries are
+ * intrusive list nodes: one small object per deadline and no per-bucket collections.
+ * <p>
+ * The wheel has no thread of its own: the owner calls {@link #advance} and must do so from one thread
+ * at a time. An entry fires in the first {@code advance} at or after the end of its deadline's tick,
+ * so never early and at most one tick plus the advance interval late.
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SIZE = 1 << BITS;
+    private static final int MASK = SIZE - 1;
+    private static final int LEVELS = (Long.SIZE + BITS - 1) / BITS;
+
+    private final long tickMillis;
+    @SuppressWarnings("unchecked")
+    private final Entry<T>[][] levels = new Entry[LEVELS][];
+    private Entry<T> overdue;
+    // Last tick that has been fired.
+    private long current;
+    private int size;
+
+    public HierarchicalTimingWheel(Duration tick, long startMillis) {
+        if (tick.toMillis() <= 0) {
+            throw new IllegalArgumentException("tick must be at least 1 ms");
+        }
+        this.tickMillis = tick.toMillis();
+        this.current = Math.floorDiv(startMillis, tickMillis) - 1;
+    }
+
+    /**
+     * Adds {@code item} to fire once {@code deadlineMillis} has passed; a deadline already passed fires
+     * in the next {@link #advance}.
+     */
+    public void add(T item, long deadlineMillis) {
+        insert(new Entry<>(item, Math.floorDiv(deadlineMillis, tickMillis)), current);
+        size++;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis} and hands every entry that became due to {@code expired},
+     * tick by tick; entries due in the same tick come in no particular order.
+     */
+    public void advance(long nowMillis, Consumer<? super T> expired) {
+        fireOverdue(expired);
+        long target = Math.floorDiv(nowMillis, tickMillis) - 1;
+        if (size == 0) {
+            current = Math.max(current, target);
+            return;
+        }
+        while (current < target) {
+            current++;
+            cascade(current);
+            fire(current, expired);
+        }
+    }
+
+    /**
+     * Entries added and not yet fired.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void insert(Entry<T> entry, long reference) {
+        if (entry.deadlineTick <= reference) {
+            entry.next = overdue;
+            overdue = entry;
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && (entry.deadlineTick ^ reference) >>> (BITS * (level + 1)) != 0) {
+            level++;
+        }
+        Entry<T>[] buckets = levels[level];
+        if (buckets == null) {
+            buckets = newBuckets();
+            levels[level] = buckets;
+        }
+        int slot = (int) ((entry.deadlineTick >>> (BITS * level)) & MASK);
+        entry.next = buckets[slot];
+        buckets[slot] = entry;
+    }
+
+    /**
+     * Entering the block of a coarser bucket: spreads its entries over the finer levels, coarsest
+     * level first so entries that land in a bucket cascading at the same tick move on again.
+     */
+    private void cascade(long tick) {
+        int topLevel = Math.min(LEVELS - 1, Long.numberOfTrailingZeros(tick) / BITS);
+        for (int level = topLevel; level >= 1; level--) {
+            Entry<T>[] buckets = levels[level];
+            if (buckets == null) {
+                continue;
+            }
+            int slot = (int) ((tick >>> (BITS * level)) & MASK);
+            Entry<T> entry = buckets[slot];
+            buckets[slot] = null;
+            while (entry != null) {
+                Entry<T> next = entry.next;
+                insert(entry, tick);
+                entry = next;
+            }
+        }
+    }
+
+    private void fire(long tick, Consumer<? super T> expired) {
+        Entry<T>[] buckets = levels[0];
+        if (buckets != null) {
+            int slot = (int) (tick & MASK);
+            Entry<T> entry = buckets[slot];
+            buckets[slot] = null;
+            drain(entry, expired);
+        }
+        fireOverdue(expired);
+    }
+
+    private void fireOverdue(Consumer<? super T> expired) {
+        Entry<T> entry = overdue;
+        overdue = null;
+        drain(entry, expired);
+    }
+
+    private void drain(Entry<T> entry, Consumer<? super T> expired) {
+        while (entry != null) {
+            Entry<T> next = entry.next;
+            entry.next = null;
+            size--;
+            expired.accept(entry.item);
+            entry = next;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Entry<T>[] newBuckets() {
+        return new Entry[SIZE];
+    }
+
+    private static final class Entry<T> {
+
+        private final T item;
+        private final long deadlineTick;
+        private Entry<T> next;
+
+        private Entry(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
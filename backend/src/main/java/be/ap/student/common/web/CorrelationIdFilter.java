@@ -5,28 +5,50 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
 
+/**
+ * Puts the request's {@value #HEADER} (or a new one) in the MDC and the response. Runs first, around
+ * Boot's observation filter, so the {@code http.server.requests} timings can link exemplars to it.
+ * <p>
+ * A client-supplied id is only kept when it is at most {@value #MAX_LENGTH} characters of
+ * {@code [A-Za-z0-9._-]}; anything else, which would end up verbatim in logs and response headers, is
+ * replaced by a {@link CorrelationIdGenerator} id. The resolved id is cached on the request as
+ * {@link #ATTRIBUTE}, so async dispatches (streaming responses) log under the same id without
+ * resolving the header again.
+ */
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class CorrelationIdFilter extends OncePerRequestFilter {
 
     public static final String HEADER = "X-Correlation-Id";
     public static final String MDC_KEY = "correlationId";
+    public static final String ATTRIBUTE = CorrelationIdFilter.class.getName() + ".correlationId";
+    static final int MAX_LENGTH = 64;
+    private static final boolean[] ALLOWED = new boolean[128];
+
+    static {
+        for (char c : "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_.".toCharArray()) {
+            ALLOWED[c] = true;
+        }
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        String correlationId = request.getHeader(HEADER);
-        if (correlationId == null || correlationId.isBlank()) {
-            correlationId = UUID.randomUUID().toString();
+        String correlationId = (String) request.getAttribute(ATTRIBUTE);
+        if (correlationId == null) {
+            correlationId = resolve(request.getHeader(HEADER));
+            request.setAttribute(ATTRIBUTE, correlationId);
+            response.setHeader(HEADER, correlationId);
         }
         MDC.put(MDC_KEY, correlationId);
-        response.setHeader(HEADER, correlationId);
 
         try {
             filterChain.doFilter(request, response);
@@ -34,4 +56,26 @@ public class CorrelationIdFilter extends OncePerRequestFilter {
             MDC.remove(MDC_KEY);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    static String resolve(String header) {
+        return isValid(header) ? header : CorrelationIdGenerator.next();
+    }
+
+    static boolean isValid(String id) {
+        if (id == null || id.isEmpty() || id.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c >= ALLOWED.length || !ALLOWED[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,46 @@
+package be.ap.student.common.web;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Correlation ids in the ULID layout: 26 Crockford base32 characters, a 48-bit millisecond timestamp
+ * followed by 80 random bits, so ids sort by creation time and read well in logs.
+ * <p>
+ * The random part comes from {@link ThreadLocalRandom} rather than the {@code SecureRandom} behind
+ * {@link java.util.UUID#randomUUID()}: correlation ids need to be unique, not unpredictable, and this
+ * never blocks or contends between request threads. Ids from one millisecond are ordered randomly.
+ */
+public final class CorrelationIdGenerator {
+
+    static final int LENGTH = 26;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final long FORTY_BITS = (1L << 40) - 1;
+
+    private CorrelationIdGenerator() {
+    }
+
+    public static String next() {
+        return next(System.currentTimeMillis(), ThreadLocalRandom.current());
+    }
+
+    static String next(long epochMillis, RandomGenerator random) {
+        char[] chars = new char[LENGTH];
+        encode(chars, 0, 10, epochMillis);
+        long high = random.nextLong();
+        long low = random.nextLong();
+        encode(chars, 10, 8, ((high & 0xFFFF) << 24) | (low >>> 40));
+        encode(chars, 18, 8, low & FORTY_BITS);
+        return new String(chars);
+    }
+
+    /**
+     * Writes the low {@code 5 * count} bits of {@code value}, most significant first.
+     */
+    private static void encode(char[] chars, int offset, int count, long value) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+    }
+}
@@ -1,54 +1,196 @@
 package be.ap.student.common.web;
 
 import be.ap.student.common.api.ApiError;
+import be.ap.student.common.api.ApiErrorTemplate;
+import be.ap.student.common.api.RequestValidationException;
+import be.ap.student.tickets.service.TicketExportRejectedException;
+import be.ap.student.tickets.service.TicketIngestionRejectedException;
+import be.ap.student.tickets.service.TicketNotFoundException;
+import be.ap.student.tickets.service.TicketQuotaExceededException;
+import be.ap.student.tickets.service.TicketValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static be.ap.student.common.web.CorrelationIdFilter.MDC_KEY;
 
+/**
+ * Maps exceptions to {@link ApiError} responses and counts them in {@code tickets.api.errors} by error
+ * code and status.
+ * <p>
+ * Errors whose code and message come from a closed set (validation failures by field list, not found,
+ * quota and busy rejections, the catch-all) are answered from an {@link ApiErrorTemplate} with its
+ * counter, built on first use and cached, so a rejected request only costs the correlation id splice.
+ * Messages that carry request data keep the plain {@code ApiError} path. {@link #rejection} exposes the
+ * bodies of rejected ticket creates, so a batch reports each rejected item exactly as a single create
+ * would be answered.
+ */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    static final String ERRORS = "tickets.api.errors";
+    static final String VALIDATION_MESSAGE = "Request validation failed";
+
+    private final MeterRegistry meterRegistry;
+    private final JsonMapper jsonMapper;
+    private final Prepared notFound;
+    private final Prepared internalError;
+    private final Map<List<String>, Prepared> validationErrors = new ConcurrentHashMap<>();
+    private final Map<String, Prepared> badRequests = new ConcurrentHashMap<>();
+    private final Map<String, Prepared> busy = new ConcurrentHashMap<>();
+    private final Map<TicketQuotaExceededException.Limit, Prepared> quotaExceeded = new ConcurrentHashMap<>();
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry, JsonMapper jsonMapper) {
+        this.meterRegistry = meterRegistry;
+        this.jsonMapper = jsonMapper;
+        this.notFound = prepare(HttpStatus.NOT_FOUND, "NOT_FOUND", "Ticket not found", List.of());
+        this.internalError = prepare(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_ERROR", "Something went wrong", List.of());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleValidation(MethodArgumentNotValidException ex) {
-        String correlationId = MDC.get(MDC_KEY);
-        List<ApiError.FieldError> fields = ex.getBindingResult().getFieldErrors().stream()
-                .map(this::mapFieldError)
-                .toList();
-        ApiError body = new ApiError(correlationId, "VALIDATION_ERROR", "Request validation failed", fields);
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+        List<FieldError> fieldErrors = ex.getBindingResult().getFieldErrors();
+        List<String> fields = new ArrayList<>(fieldErrors.size());
+        for (FieldError fieldError : fieldErrors) {
+            fields.add(fieldError.getField());
+        }
+        return respond(validationError(fields));
+    }
+
+    @ExceptionHandler(RequestValidationException.class)
+    public ResponseEntity<ApiError> handleRequestValidation(RequestValidationException ex) {
+        return respond(rejected(ex));
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<ApiError> handleConstraintViolation(ConstraintViolationException ex) {
         String correlationId = MDC.get(MDC_KEY);
         ApiError body = new ApiError(correlationId, "VALIDATION_ERROR", ex.getMessage(), List.of());
+        count(body, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
     }
 
+    @ExceptionHandler(TicketValidationException.class)
+    public ResponseEntity<ApiError> handleTicketValidation(TicketValidationException ex) {
+        return respond(rejected(ex));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiError> handleIllegalArg(IllegalArgumentException ex) {
         String correlationId = MDC.get(MDC_KEY);
         ApiError body = new ApiError(correlationId, "BAD_REQUEST", ex.getMessage(), List.of());
+        count(body, HttpStatus.BAD_REQUEST);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ApiError> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        String correlationId = MDC.get(MDC_KEY);
+        ApiError body = new ApiError(correlationId, "BAD_REQUEST", ex.getName() + " has an invalid value", List.of());
+        count(body, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
     }
 
+    @ExceptionHandler(TicketNotFoundException.class)
+    public ResponseEntity<ApiError> handleNotFound(TicketNotFoundException ex) {
+        return respond(notFound);
+    }
+
+    @ExceptionHandler(TicketQuotaExceededException.class)
+    public ResponseEntity<ApiError> handleQuotaExceeded(TicketQuotaExceededException ex) {
+        Prepared prepared = rejected(ex);
+        prepared.counter().increment();
+        return ResponseEntity.status(prepared.status())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(prepared.template().withCorrelationId(MDC.get(MDC_KEY)));
+    }
+
+    @ExceptionHandler({TicketIngestionRejectedException.class, TicketExportRejectedException.class})
+    public ResponseEntity<ApiError> handleBusy(RuntimeException ex) {
+        Prepared prepared = busy.computeIfAbsent(ex.getMessage(),
+                message -> prepare(HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_BUSY", message, List.of()));
+        prepared.counter().increment();
+        return ResponseEntity.status(prepared.status())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(prepared.template().withCorrelationId(MDC.get(MDC_KEY)));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleGeneric(Exception ex) { // Changed return type to ApiError
-        String correlationId = MDC.get(MDC_KEY);
-        ApiError body = new ApiError(correlationId, "INTERNAL_ERROR", "Something went wrong", List.of());
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(body);
+        return respond(internalError);
     }
 
-    private ApiError.FieldError mapFieldError(FieldError fieldError) {
-        return new ApiError.FieldError(fieldError.getField(), "invalid");
+    /**
+     * The body a create rejected with {@code ex} is answered with: a {@link RequestValidationException},
+     * {@link TicketValidationException} or {@link TicketQuotaExceededException}, under the current
+     * correlation id. Not counted as an error response; the caller decides what it answers.
+     */
+    public ApiError rejection(RuntimeException ex) {
+        if (ex instanceof RequestValidationException || ex instanceof TicketValidationException
+                || ex instanceof TicketQuotaExceededException) {
+            return rejected(ex).template().withCorrelationId(MDC.get(MDC_KEY));
+        }
+        return new ApiError(MDC.get(MDC_KEY), "BAD_REQUEST", ex.getMessage(), List.of());
     }
+
+    private Prepared rejected(RuntimeException ex) {
+        return switch (ex) {
+            case RequestValidationException validation -> validationError(validation.getFields());
+            case TicketQuotaExceededException quota -> quotaExceeded.computeIfAbsent(quota.getLimit(),
+                    limit -> prepare(HttpStatus.TOO_MANY_REQUESTS, limit.code(), quota.getMessage(), List.of()));
+            default -> badRequests.computeIfAbsent(ex.getMessage(),
+                    message -> prepare(HttpStatus.BAD_REQUEST, "BAD_REQUEST", message, List.of()));
+        };
+    }
+
+    private Prepared validationError(List<String> fields) {
+        Prepared prepared = validationErrors.get(fields);
+        if (prepared == null) {
+            List<ApiError.FieldError> fieldErrors = new ArrayList<>(fields.size());
+            for (String field : fields) {
+                fieldErrors.add(new ApiError.FieldError(field, "invalid"));
+            }
+            prepared = validationErrors.computeIfAbsent(List.copyOf(fields),
+                    key -> prepare(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", VALIDATION_MESSAGE, fieldErrors));
+        }
+        return prepared;
+    }
+
+    private ResponseEntity<ApiError> respond(Prepared prepared) {
+        prepared.counter().increment();
+        return ResponseEntity.status(prepared.status()).body(prepared.template().withCorrelationId(MDC.get(MDC_KEY)));
+    }
+
+    private Prepared prepare(HttpStatus status, String code, String message, List<ApiError.FieldError> fieldErrors) {
+        return new Prepared(status, ApiErrorTemplate.of(jsonMapper, code, message, fieldErrors), counter(code, status));
+    }
+
+    private void count(ApiError body, HttpStatus status) {
+        counter(body.getCode(), status).increment();
+    }
+
+    private Counter counter(String code, HttpStatus status) {
+        return Counter.builder(ERRORS)
+                .description("Error responses by code")
+                .tag("code", code)
+                .tag("status", Integer.toString(status.value()))
+                .register(meterRegistry);
+    }
+
+    private record Prepared(HttpStatus status, ApiErrorTemplate template, Counter counter) {}
 }
@@ -0,0 +1,272 @@
+package be.ap.student.common.web;
+
+import be.ap.student.common.api.ApiErrorTemplate;
+import be.ap.student.common.api.PreparedApiError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.CRC32C;
+
+import static be.ap.student.common.web.CorrelationIdFilter.MDC_KEY;
+
+/**
+ * Makes {@code POST} on the configured {@code paths} idempotent for clients that send an
+ * {@value #HEADER}: a retry with the same key gets the stored response of the first successful request,
+ * marked with {@value #REPLAYED_HEADER}, without reaching the controller. A retry arriving while the
+ * first request still runs waits for it (up to {@code wait}) instead of running alongside.
+ * <p>
+ * Keys are scoped to the path within the application (context path and trailing slash stripped) and
+ * tied to the request body: reusing a key for a different body is answered with 422. The body is read
+ * up front for that, so one larger than {@code max-body-size} is answered with 413. Runs after the {@link CorrelationIdFilter}, so replays log and answer under the
+ * retry's own correlation id. Responses are kept by {@link IdempotencyStore}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class IdempotencyKeyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final Set<String> paths;
+    private final Duration wait;
+    private final int maxBodySize;
+    private final MeterRegistry meterRegistry;
+    private final ApiErrorTemplate invalidKey;
+    private final ApiErrorTemplate bodyTooLarge;
+    private final ApiErrorTemplate keyReused;
+    private final ApiErrorTemplate keyInUse;
+
+    public IdempotencyKeyFilter(IdempotencyStore store, MeterRegistry meterRegistry, JsonMapper jsonMapper,
+                                @Value("${tickets.idempotency.paths:/api/tickets,/api/tickets/batch}") List<String> paths,
+                                @Value("${tickets.idempotency.wait:PT10S}") Duration wait,
+                                @Value("${tickets.idempotency.max-body-size:2MB}") DataSize maxBodySize) {
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+        this.paths = Set.copyOf(paths);
+        this.wait = wait;
+        this.maxBodySize = Math.toIntExact(maxBodySize.toBytes());
+        this.invalidKey = ApiErrorTemplate.of(jsonMapper, "BAD_REQUEST",
+                HEADER + " must be 1 to " + MAX_KEY_LENGTH + " visible ASCII characters", List.of());
+        this.bodyTooLarge = ApiErrorTemplate.of(jsonMapper, "PAYLOAD_TOO_LARGE",
+                "Request body must not exceed " + this.maxBodySize + " bytes", List.of());
+        this.keyReused = ApiErrorTemplate.of(jsonMapper, "IDEMPOTENCY_KEY_REUSED",
+                HEADER + " was already used for a different request", List.of());
+        this.keyInUse = ApiErrorTemplate.of(jsonMapper, "IDEMPOTENCY_KEY_IN_USE",
+                "A request with this " + HEADER + " is still being processed", List.of());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null
+                || !paths.contains(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String header = request.getHeader(HEADER);
+        if (!isValid(header)) {
+            reject(response, HttpStatus.BAD_REQUEST, invalidKey);
+            return;
+        }
+        byte[] body = request.getContentLengthLong() > maxBodySize
+                ? null
+                : request.getInputStream().readNBytes(maxBodySize + 1);
+        if (body == null || body.length > maxBodySize) {
+            reject(response, HttpStatus.CONTENT_TOO_LARGE, bodyTooLarge);
+            return;
+        }
+        long fingerprint = fingerprint(body);
+        String key = path(request) + ' ' + header;
+
+        IdempotencyStore.StoredResponse stored;
+        try {
+            stored = store.begin(key, wait);
+        } catch (TimeoutException e) {
+            reject(response, HttpStatus.CONFLICT, keyInUse);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response, HttpStatus.CONFLICT, keyInUse);
+            return;
+        }
+        if (stored != null) {
+            if (stored.fingerprint() != fingerprint) {
+                reject(response, HttpStatus.UNPROCESSABLE_CONTENT, keyReused);
+            } else {
+                replay(response, stored);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(new CachedBodyRequest(request, body), captured);
+            store.complete(key, new IdempotencyStore.StoredResponse(fingerprint, captured.getStatus(),
+                    captured.getContentType(), captured.getContentAsByteArray()));
+            completed = true;
+        } finally {
+            if (!completed) {
+                store.abandon(key);
+            }
+        }
+        captured.copyBodyToResponse();
+    }
+
+    static boolean isValid(String key) {
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < '!' || c > '~') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The path within the application, decoded, without a trailing slash.
+     */
+    private static String path(HttpServletRequest request) {
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private static long fingerprint(byte[] body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        return ((long) body.length << 32) | crc.getValue();
+    }
+
+    private static void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored)
+            throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, ApiErrorTemplate template) throws IOException {
+        Counter.builder(GlobalExceptionHandler.ERRORS)
+                .description("Error responses by code")
+                .tag("code", template.code())
+                .tag("status", Integer.toString(status.value()))
+                .register(meterRegistry)
+                .increment();
+        PreparedApiError error = template.withCorrelationId(MDC.get(MDC_KEY));
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(error.contentLength());
+        error.writeTo(response.getOutputStream());
+    }
+
+    /**
+     * The request with its body read up front, for the fingerprint, and served again to the controller.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The whole body is already in memory, so the listener is told right away that data is
+                 * available and, once it has read it, that everything was read.
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException | RuntimeException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package be.ap.student.common.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Responses of successful requests by {@code Idempotency-Key}, for {@link IdempotencyKeyFilter}.
+ * <p>
+ * Responses from the last {@code ttl} are kept in a bounded Caffeine cache; older ones, and ones stored
+ * by another node, are found in the {@code idempotency_key} table. A key being executed has a future
+ * that retries of the same key wait on, so concurrent retries on this node run the request once. Only
+ * successful responses are stored: when the first request fails, one waiting retry takes over. Replays
+ * are counted in {@code tickets.idempotency.replays} by where the response came from.
+ */
+@Repository
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    // Larger bodies are replayed from memory only.
+    static final int MAX_STORED_BYTES = 65536;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Cache<String, StoredResponse> recent;
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter memoryReplays;
+    private final Counter databaseReplays;
+    private final Counter coalesced;
+
+    @Autowired
+    public IdempotencyStore(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                            @Value("${tickets.idempotency.cache-size:100000}") long cacheSize,
+                            @Value("${tickets.idempotency.ttl:PT24H}") Duration ttl) {
+        this(jdbcTemplate, meterRegistry, cacheSize, ttl, Clock.systemUTC());
+    }
+
+    IdempotencyStore(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry, long cacheSize, Duration ttl,
+                     Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .ticker(() -> clock.millis() * 1_000_000)
+                .build();
+        this.memoryReplays = replays(meterRegistry, "memory");
+        this.databaseReplays = replays(meterRegistry, "database");
+        this.coalesced = replays(meterRegistry, "in-flight");
+    }
+
+    /**
+     * The stored response for {@code key}, waiting up to {@code wait} while another request with the key
+     * runs; or null, and the caller now owns the key and must end with {@link #complete} or
+     * {@link #abandon}.
+     *
+     * @throws TimeoutException when the running request takes longer than {@code wait}
+     */
+    public StoredResponse begin(String key, Duration wait) throws TimeoutException, InterruptedException {
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (true) {
+            StoredResponse stored = recent.getIfPresent(key);
+            if (stored != null) {
+                memoryReplays.increment();
+                return stored;
+            }
+            CompletableFuture<StoredResponse> claim = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, claim);
+            if (running == null) {
+                stored = findStored(key);
+                if (stored == null) {
+                    return null;
+                }
+                databaseReplays.increment();
+                recent.put(key, stored);
+                inFlight.remove(key, claim);
+                claim.complete(stored);
+                return stored;
+            }
+            try {
+                stored = running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                stored = null;
+            }
+            if (stored != null) {
+                coalesced.increment();
+                return stored;
+            }
+            // The first request failed; try to take the key over.
+        }
+    }
+
+    /**
+     * Stores the owner's response when it succeeded and hands it to the waiting retries; otherwise
+     * releases the key.
+     */
+    public void complete(String key, StoredResponse response) {
+        if (response.status() < 200 || response.status() >= 300) {
+            abandon(key);
+            return;
+        }
+        recent.put(key, response);
+        if (response.body().length <= MAX_STORED_BYTES) {
+            try {
+                jdbcTemplate.update("insert into idempotency_key (idem_key, fingerprint, status, content_type, body,"
+                                + " created_at) values (?, ?, ?, ?, ?, ?)",
+                        key, response.fingerprint(), response.status(), response.contentType(), response.body(),
+                        Timestamp.from(clock.instant()));
+            } catch (DuplicateKeyException e) {
+                // Stored by another node that ran the same key; the memory entry still covers this one.
+            } catch (DataAccessException e) {
+                log.warn("idempotency_key_store_failed reason={}", e.getMessage());
+            }
+        }
+        CompletableFuture<StoredResponse> claim = inFlight.remove(key);
+        if (claim != null) {
+            claim.complete(response);
+        }
+    }
+
+    public void abandon(String key) {
+        CompletableFuture<StoredResponse> claim = inFlight.remove(key);
+        if (claim != null) {
+            claim.complete(null);
+        }
+    }
+
+    @Scheduled(cron = "${tickets.idempotency.purge-cron:0 45 3 * * *}")
+    public int purgeExpired() {
+        return jdbcTemplate.update("delete from idempotency_key where created_at < ?",
+                Timestamp.from(clock.instant().minus(ttl)));
+    }
+
+    void invalidateAll() {
+        recent.invalidateAll();
+    }
+
+    private StoredResponse findStored(String key) {
+        List<StoredResponse> stored;
+        try {
+            stored = jdbcTemplate.query("select fingerprint, status, content_type, body from idempotency_key"
+                            + " where idem_key = ? and created_at >= ?",
+                    (rs, row) -> new StoredResponse(rs.getLong(1), rs.getInt(2), rs.getString(3), rs.getBytes(4)),
+                    key, Timestamp.from(clock.instant().minus(ttl)));
+        } catch (DataAccessException e) {
+            // Fail open: run the request rather than reject it.
+            log.warn("idempotency_key_lookup_failed reason={}", e.getMessage());
+            return null;
+        }
+        return stored.isEmpty() ? null : stored.get(0);
+    }
+
+    private static Counter replays(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("tickets.idempotency.replays")
+                .description("Requests answered with the stored response of their Idempotency-Key")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param fingerprint checksum of the request body the response belongs to
+     */
+    public record StoredResponse(long fingerprint, int status, String contentType, byte[] body) {}
+}
@@ -0,0 +1,48 @@
+package be.ap.student.common.web;
+
+import be.ap.student.common.api.PreparedApiError;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link PreparedApiError} bodies from their template bytes. Boot registers converter beans
+ * ahead of its defaults, so these errors skip Jackson; every other {@code ApiError} still goes through it.
+ */
+@Component
+public class PreparedApiErrorConverter extends AbstractHttpMessageConverter<PreparedApiError> {
+
+    public PreparedApiErrorConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PreparedApiError.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected PreparedApiError readInternal(Class<? extends PreparedApiError> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("PreparedApiError is write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(PreparedApiError error, MediaType contentType) {
+        return (long) error.contentLength();
+    }
+
+    @Override
+    protected void writeInternal(PreparedApiError error, HttpOutputMessage outputMessage) throws IOException {
+        error.writeTo(outputMessage.getBody());
+    }
+}
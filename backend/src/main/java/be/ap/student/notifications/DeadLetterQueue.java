@@ -0,0 +1,54 @@
+package be.ap.student.notifications;
+
+import be.ap.student.tickets.event.OutboxMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * The {@code ticket-notifications-dlq}: events that could not be handled after all retries, stored
+ * with the last error so they can be inspected and replayed. Every entry increments the
+ * {@code notifications.dead_lettered} counter, which is what DLQ alerts are based on.
+ */
+@Repository
+public class DeadLetterQueue {
+
+    public static final String TOPIC = "ticket-notifications-dlq";
+
+    private static final Logger log = LoggerFactory.getLogger(DeadLetterQueue.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter deadLettered;
+
+    public DeadLetterQueue(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.deadLettered = Counter.builder("notifications.dead_lettered")
+                .description("Events moved to " + TOPIC)
+                .register(meterRegistry);
+    }
+
+    public void add(OutboxMessage message, String error, int attempts) {
+        String truncated = error == null ? "unknown" : error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH));
+        jdbcTemplate.update("""
+                insert into notification_dead_letter
+                    (event_id, original_topic, payload, error_message, attempts, created_at)
+                values (?, ?, ?, ?, ?, ?)
+                """, message.eventId(), message.topic(), message.payload(), truncated, attempts,
+                Timestamp.from(Instant.now()));
+        deadLettered.increment();
+        log.warn("event_dead_lettered topic={} eventId={} correlationId={} attempts={} reason={}",
+                message.topic(), message.eventId(), message.correlationId(), attempts, truncated);
+    }
+
+    public long size() {
+        Long count = jdbcTemplate.queryForObject("select count(*) from notification_dead_letter", Long.class);
+        return count == null ? 0 : count;
+    }
+}
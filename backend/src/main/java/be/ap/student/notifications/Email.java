@@ -0,0 +1,3 @@
+package be.ap.student.notifications;
+
+public record Email(String to, String subject, String body) {}
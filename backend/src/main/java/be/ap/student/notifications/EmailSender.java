@@ -0,0 +1,9 @@
+package be.ap.student.notifications;
+
+public interface EmailSender {
+
+    /**
+     * Sends the email or throws; the caller retries failed sends.
+     */
+    void send(Email email);
+}
@@ -0,0 +1,61 @@
+package be.ap.student.notifications;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for an SMTP relay: waits {@code tickets.notifications.smtp.latency} to mimic the
+ * round trip, logs the message and keeps the most recent ones for inspection.
+ */
+@Component
+public class LocalSmtpStandIn implements EmailSender {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalSmtpStandIn.class);
+    private static final int RETAINED = 100;
+
+    private final Duration latency;
+    private final LongAdder sent = new LongAdder();
+    private final Deque<Email> recent = new ArrayDeque<>(RETAINED);
+
+    public LocalSmtpStandIn(@Value("${tickets.notifications.smtp.latency:PT0S}") Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public void send(Email email) {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sending to " + email.to(), e);
+            }
+        }
+        synchronized (recent) {
+            if (recent.size() == RETAINED) {
+                recent.removeFirst();
+            }
+            recent.addLast(email);
+        }
+        sent.increment();
+        log.debug("email_sent to={} subject={}", email.to(), email.subject());
+    }
+
+    public long sentCount() {
+        return sent.sum();
+    }
+
+    public List<Email> recent() {
+        synchronized (recent) {
+            return List.copyOf(recent);
+        }
+    }
+}
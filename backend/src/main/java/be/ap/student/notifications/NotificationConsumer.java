@@ -0,0 +1,254 @@
+package be.ap.student.notifications;
+
+import be.ap.student.common.scheduling.HashedWheelTimer;
+import be.ap.student.tickets.event.InMemoryEventBus;
+import be.ap.student.tickets.event.OutboxMessage;
+import be.ap.student.tickets.event.TicketCreatedEvent;
+import be.ap.student.tickets.event.TicketStatusChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumes {@code ticket-created} and {@code ticket-status-changed} events and sends the emails
+ * (feature-004).
+ * <p>
+ * Events from the bus land in a bounded inbox; when it is full the publishing relay blocks, which
+ * pushes back on the outbox instead of dropping events. A poller drains the inbox in batches, drops
+ * already handled event ids with one lookup per batch ({@link ProcessedEventStore}) and runs each
+ * event on a virtual thread, with at most {@code concurrency} in flight. A failed send is retried after
+ * each of {@code retry-delays} (1s, 2s, 4s) through a {@link HashedWheelTimer}, so waiting retries hold
+ * no thread; after the last one the event goes to the {@link DeadLetterQueue}. Only the send is
+ * retried: once an email is out, a failure to record the event as processed is logged and counted in
+ * {@code notifications.mark-processed.failures}, never retried, as a retry would send the email again.
+ */
+@Component
+public class NotificationConsumer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationConsumer.class);
+
+    private final InMemoryEventBus eventBus;
+    private final ProcessedEventStore processedEvents;
+    private final NotificationService notificationService;
+    private final DeadLetterQueue deadLetters;
+    private final BlockingQueue<OutboxMessage> inbox;
+    private final int batchSize;
+    private final Semaphore workerPermits;
+    private final List<Duration> retryDelays;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter markFailures;
+
+    private volatile boolean running;
+    private boolean subscribed;
+    private ExecutorService workers;
+    private HashedWheelTimer retryTimer;
+    private Thread poller;
+
+    public NotificationConsumer(InMemoryEventBus eventBus, ProcessedEventStore processedEvents,
+                                NotificationService notificationService, DeadLetterQueue deadLetters,
+                                MeterRegistry meterRegistry,
+                                @Value("${tickets.notifications.inbox-capacity:10000}") int inboxCapacity,
+                                @Value("${tickets.notifications.batch-size:100}") int batchSize,
+                                @Value("${tickets.notifications.concurrency:64}") int concurrency,
+                                @Value("${tickets.notifications.retry-delays:PT1S,PT2S,PT4S}") List<Duration> retryDelays) {
+        this.eventBus = eventBus;
+        this.processedEvents = processedEvents;
+        this.notificationService = notificationService;
+        this.deadLetters = deadLetters;
+        this.inbox = new ArrayBlockingQueue<>(inboxCapacity);
+        this.batchSize = batchSize;
+        this.workerPermits = new Semaphore(concurrency);
+        this.retryDelays = List.copyOf(retryDelays);
+        this.sent = Counter.builder("notifications.sent").register(meterRegistry);
+        this.retried = Counter.builder("notifications.retried").register(meterRegistry);
+        this.markFailures = Counter.builder("notifications.mark-processed.failures")
+                .description("Handled events that could not be recorded as processed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        workers = Executors.newVirtualThreadPerTaskExecutor();
+        retryTimer = new HashedWheelTimer("notification-retries", Duration.ofMillis(100), 512, workers);
+        running = true;
+        poller = Thread.ofPlatform().name("notification-poller").daemon().start(this::pollLoop);
+        if (!subscribed) {
+            eventBus.subscribe(TicketCreatedEvent.TOPIC, this::enqueue);
+            eventBus.subscribe(TicketStatusChangedEvent.TOPIC, this::enqueue);
+            subscribed = true;
+        }
+    }
+
+    /**
+     * Stops polling, lets running sends finish and dead-letters events still waiting for a retry,
+     * so none of them is lost (the outbox rows are already gone).
+     */
+    @Override
+    public void stop() {
+        if (poller == null) {
+            return;
+        }
+        running = false;
+        try {
+            poller.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Runnable> waitingRetries = retryTimer.stop();
+        waitingRetries.forEach(retry -> ((Retry) retry).deadLetter("Stopped before retry"));
+        workers.shutdown();
+        try {
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        poller = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the {@link be.ap.student.tickets.event.OutboxRelay} that feeds it.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 16384;
+    }
+
+    /**
+     * Events currently waiting for a retry.
+     */
+    public int pendingRetries() {
+        return retryTimer == null ? 0 : retryTimer.pendingCount();
+    }
+
+    private void enqueue(OutboxMessage message) {
+        try {
+            inbox.put(message);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing event " + message.eventId(), e);
+        }
+    }
+
+    private void pollLoop() {
+        List<OutboxMessage> batch = new ArrayList<>(batchSize);
+        while (running || !inbox.isEmpty()) {
+            try {
+                OutboxMessage first = inbox.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                inbox.drainTo(batch, batchSize - 1);
+                for (OutboxMessage message : processedEvents.claimUnprocessed(batch)) {
+                    workerPermits.acquire();
+                    try {
+                        workers.execute(() -> attempt(message, 0));
+                    } catch (RuntimeException e) {
+                        workerPermits.release();
+                        throw e;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Keep the poller alive; anything thrown here is a bug, not a delivery failure.
+                log.error("notification_batch_failed size={} reason={}", batch.size(), e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Runs with a worker permit held. {@code attempt} is 0 for the first delivery.
+     */
+    private void attempt(OutboxMessage message, int attempt) {
+        try {
+            try {
+                notificationService.notify(message);
+            } catch (RuntimeException e) {
+                retryOrDeadLetter(message, attempt, e);
+                return;
+            }
+            sent.increment();
+            markProcessed(message);
+        } finally {
+            workerPermits.release();
+        }
+    }
+
+    private void retryOrDeadLetter(OutboxMessage message, int attempt, RuntimeException e) {
+        if (attempt < retryDelays.size() && running) {
+            retried.increment();
+            log.info("notification_retry_scheduled eventId={} correlationId={} attempt={} delay={} reason={}",
+                    message.eventId(), message.correlationId(), attempt + 1, retryDelays.get(attempt),
+                    e.getMessage());
+            retryTimer.schedule(new Retry(message, attempt + 1), retryDelays.get(attempt));
+        } else {
+            deadLetter(message, e.getMessage(), attempt + 1);
+        }
+    }
+
+    private void deadLetter(OutboxMessage message, String error, int attempts) {
+        deadLetters.add(message, error, attempts);
+        markProcessed(message);
+    }
+
+    private void markProcessed(OutboxMessage message) {
+        try {
+            processedEvents.markProcessed(message.eventId());
+        } catch (RuntimeException e) {
+            markFailures.increment();
+            log.error("notification_mark_processed_failed eventId={} correlationId={} reason={}",
+                    message.eventId(), message.correlationId(), e.getMessage());
+        }
+    }
+
+    private final class Retry implements Runnable {
+
+        private final OutboxMessage message;
+        private final int attempt;
+
+        private Retry(OutboxMessage message, int attempt) {
+            this.message = message;
+            this.attempt = attempt;
+        }
+
+        @Override
+        public void run() {
+            try {
+                workerPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                deadLetter("Interrupted before retry");
+                return;
+            }
+            attempt(message, attempt);
+        }
+
+        void deadLetter(String reason) {
+            NotificationConsumer.this.deadLetter(message, reason, attempt);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package be.ap.student.notifications;
+
+import be.ap.student.tickets.event.OutboxMessage;
+import be.ap.student.tickets.event.TicketCreatedEvent;
+import be.ap.student.tickets.event.TicketStatusChangedEvent;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Turns ticket events into emails (feature-004 REQ-003/REQ-004).
+ * <p>
+ * There is no user directory yet, so recipients are derived addresses on {@code tickets.local}:
+ * the creator's user id for confirmations and the ticket's watcher list for status updates.
+ */
+@Service
+public class NotificationService {
+
+    static final String DOMAIN = "@tickets.local";
+
+    private final EmailSender emailSender;
+    private final JsonMapper jsonMapper;
+
+    public NotificationService(EmailSender emailSender, JsonMapper jsonMapper) {
+        this.emailSender = emailSender;
+        this.jsonMapper = jsonMapper;
+    }
+
+    public void notify(OutboxMessage message) {
+        JsonNode payload = jsonMapper.readTree(message.payload()).path("payload");
+        String ticketNumber = payload.path("ticketNumber").asString();
+        Email email = switch (message.topic()) {
+            case TicketCreatedEvent.TOPIC -> new Email(
+                    payload.path("createdByUserId").asString() + DOMAIN,
+                    "Ticket " + ticketNumber + " received",
+                    "We received your ticket \"" + payload.path("subject").asString() + "\" with priority "
+                            + payload.path("priority").asString() + ".");
+            case TicketStatusChangedEvent.TOPIC -> new Email(
+                    "watchers+" + ticketNumber + DOMAIN,
+                    "Ticket " + ticketNumber + " is now " + payload.path("newStatus").asString(),
+                    "The status of ticket " + ticketNumber + " changed from "
+                            + payload.path("previousStatus").asString() + " to "
+                            + payload.path("newStatus").asString() + ".");
+            default -> throw new IllegalArgumentException("Unsupported topic " + message.topic());
+        };
+        emailSender.send(email);
+    }
+}
@@ -0,0 +1,119 @@
+package be.ap.student.notifications;
+
+import be.ap.student.tickets.event.OutboxMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Event ids that have been handled, so redelivered events are skipped (feature-004 BR-003).
+ * <p>
+ * Recently processed ids are kept in a bounded LRU map; older ones are found in the
+ * {@code processed_event} table with one {@code IN} query per polled batch. Ids currently being
+ * processed are tracked separately, so a duplicate arriving during a retry is not handled twice.
+ */
+@Repository
+public class ProcessedEventStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessedEventStore.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration retention;
+    private final Map<UUID, Boolean> recent;
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ProcessedEventStore(JdbcTemplate jdbcTemplate,
+                               @Value("${tickets.notifications.dedup-cache-size:100000}") int cacheSize,
+                               @Value("${tickets.notifications.dedup-retention:P7D}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retention = retention;
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Returns the messages of {@code batch} that have not been processed and are not in flight, and
+     * marks those as in flight. Every returned message must end in {@link #markProcessed}.
+     */
+    public List<OutboxMessage> claimUnprocessed(List<OutboxMessage> batch) {
+        List<OutboxMessage> candidates = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            if (recent.containsKey(message.eventId())) {
+                continue;
+            }
+            if (inFlight.add(message.eventId())) {
+                candidates.add(message);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        Set<UUID> stored;
+        try {
+            stored = findStored(candidates);
+        } catch (DataAccessException e) {
+            // Fail open: a duplicate email is better than a lost one, and the LRU still covers recent ids.
+            log.warn("processed_event_lookup_failed size={} reason={}", candidates.size(), e.getMessage());
+            return candidates;
+        }
+        if (stored.isEmpty()) {
+            return candidates;
+        }
+        List<OutboxMessage> claimed = new ArrayList<>(candidates.size());
+        for (OutboxMessage message : candidates) {
+            if (stored.contains(message.eventId())) {
+                recent.put(message.eventId(), Boolean.TRUE);
+                inFlight.remove(message.eventId());
+            } else {
+                claimed.add(message);
+            }
+        }
+        return claimed;
+    }
+
+    public void markProcessed(UUID eventId) {
+        try {
+            jdbcTemplate.update("insert into processed_event (event_id, processed_at) values (?, ?)",
+                    eventId, Timestamp.from(Instant.now()));
+        } catch (DuplicateKeyException e) {
+            // Processed concurrently by another node; the outcome is the same.
+        }
+        recent.put(eventId, Boolean.TRUE);
+        inFlight.remove(eventId);
+    }
+
+    @Scheduled(cron = "${tickets.notifications.dedup-purge-cron:0 30 3 * * *}")
+    public int purgeExpired() {
+        return jdbcTemplate.update("delete from processed_event where processed_at < ?",
+                Timestamp.from(Instant.now().minus(retention)));
+    }
+
+    private Set<UUID> findStored(List<OutboxMessage> candidates) {
+        String placeholders = String.join(", ", Collections.nCopies(candidates.size(), "?"));
+        Object[] ids = candidates.stream().map(OutboxMessage::eventId).toArray();
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "select event_id from processed_event where event_id in (" + placeholders + ")", UUID.class, ids));
+    }
+}
@@ -0,0 +1,52 @@
+package be.ap.student.tickets.controller;
+
+import be.ap.student.tickets.dto.DashboardStats;
+import be.ap.student.tickets.service.DashboardStatsService;
+import be.ap.student.tickets.service.DashboardStreamService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final DashboardStatsService dashboardStatsService;
+    private final DashboardStreamService dashboardStreamService;
+
+    public DashboardController(DashboardStatsService dashboardStatsService,
+                               DashboardStreamService dashboardStreamService) {
+        this.dashboardStatsService = dashboardStatsService;
+        this.dashboardStreamService = dashboardStreamService;
+    }
+
+    /**
+     * Dashboard figures (feature-003). Clients polling with {@code If-None-Match} get 304 Not Modified
+     * without a body while nothing has changed.
+     */
+    @GetMapping
+    public ResponseEntity<DashboardStats> get(WebRequest request) {
+        DashboardStatsService.Snapshot snapshot = dashboardStatsService.snapshot();
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(snapshot.stats());
+    }
+
+    /**
+     * Push alternative to polling: a {@code dashboard} event with the full figures on connect and
+     * after every change, at most one per second.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return dashboardStreamService.subscribe();
+    }
+}
@@ -1,43 +1,279 @@
 package be.ap.student.tickets.controller;
 
+import be.ap.student.common.web.GlobalExceptionHandler;
+import be.ap.student.tickets.domain.Priority;
 import be.ap.student.tickets.domain.SupportTicket;
 import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.dto.CreateTicketBatchResponse;
 import be.ap.student.tickets.dto.CreateTicketRequest;
+import be.ap.student.tickets.dto.CreateTicketRequestValidator;
 import be.ap.student.tickets.dto.CreateTicketResponse;
+import be.ap.student.tickets.dto.TicketSearchCriteria;
+import be.ap.student.tickets.dto.TicketSearchPage;
+import be.ap.student.tickets.dto.TicketSummary;
+import be.ap.student.tickets.service.TicketExportService;
+import be.ap.student.tickets.service.TicketSearchService;
 import be.ap.student.tickets.service.TicketService;
-import jakarta.validation.Valid;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/tickets")
 public class TicketController {
 
+    private static final String EXPORT_SLOT = TicketController.class.getName() + ".exportSlot";
+
     private final TicketService ticketService;
+    private final TicketSearchService ticketSearchService;
+    private final TicketExportService ticketExportService;
+    private final GlobalExceptionHandler exceptionHandler;
+    private final int maxBatchSize;
 
-    public TicketController(TicketService ticketService) {
+    public TicketController(TicketService ticketService, TicketSearchService ticketSearchService,
+                            TicketExportService ticketExportService, GlobalExceptionHandler exceptionHandler,
+                            @Value("${tickets.batch.max-size:500}") int maxBatchSize) {
         this.ticketService = ticketService;
+        this.ticketSearchService = ticketSearchService;
+        this.ticketExportService = ticketExportService;
+        this.exceptionHandler = exceptionHandler;
+        this.maxBatchSize = maxBatchSize;
     }
 
+    /**
+     * Validated by {@link CreateTicketRequestValidator} rather than {@code @Valid}, with the same {@code VALIDATION_ERROR} response.
+     */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public CreateTicketResponse create(@Valid @RequestBody CreateTicketRequest req) {
+    public CreateTicketResponse create(@RequestBody CreateTicketRequest req) {
+        CreateTicketRequestValidator.validate(req);
         var optionalSavedTicket = ticketService.create(req);
         SupportTicket saved = optionalSavedTicket.orElseThrow(() -> new IllegalStateException("Failed to create ticket"));
         return new CreateTicketResponse(saved.getTicketNumber(), TicketStatus.valueOf(saved.getFormattedStatus()));
     }
 
-    @GetMapping("/all")
-    public List<String> getAllTickets() {
-        return List.of("ticket1", "ticket2");
+    /**
+     * Creates up to {@code tickets.batch.max-size} tickets in one call. Each request is validated and
+     * checked against the quota on its own; the accepted ones are stored together. Answers 201 when all
+     * were created, otherwise 207 with the error of every rejected item, the body a single create would
+     * have been answered with.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<CreateTicketBatchResponse> createAll(@RequestBody List<CreateTicketRequest> requests) {
+        if (requests.isEmpty() || requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("A batch holds 1 to " + maxBatchSize + " tickets");
+        }
+        if (requests.contains(null)) {
+            throw new IllegalArgumentException("A batch cannot contain null tickets");
+        }
+        List<TicketService.BatchResult> results = ticketService.createAll(requests);
+        List<CreateTicketBatchResponse.Item> items = new ArrayList<>(results.size());
+        int created = 0;
+        for (int i = 0; i < results.size(); i++) {
+            SupportTicket ticket = results.get(i).ticket();
+            if (ticket != null) {
+                items.add(new CreateTicketBatchResponse.Item(i, ticket.getTicketNumber(),
+                        TicketStatus.valueOf(ticket.getStatus()), null));
+                created++;
+            } else {
+                items.add(new CreateTicketBatchResponse.Item(i, null, null,
+                        exceptionHandler.rejection(results.get(i).rejection())));
+            }
+        }
+        return ResponseEntity.status(created == items.size() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS)
+                .body(new CreateTicketBatchResponse(created, items.size() - created, items));
+    }
+
+    /**
+     * Work queue for agents: moves the oldest PENDING ticket of the highest priority to IN_PROGRESS and
+     * returns it, or 204 No Content when no ticket is waiting. Concurrent callers never get the same ticket.
+     */
+    @PostMapping("/claim-next")
+    public ResponseEntity<TicketSummary> claimNext() {
+        return ticketService.claimNext()
+                .map(ticket -> ResponseEntity.ok(TicketSummary.of(ticket)))
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Searches tickets (feature-002). Pass the returned {@code nextCursor} as {@code cursor} to get the next page.
+     */
+    @GetMapping
+    public TicketSearchPage search(@RequestParam(required = false) TicketStatus status,
+                                   @RequestParam(required = false) Priority priority,
+                                   @RequestParam(required = false) String ticketNumber,
+                                   @RequestParam(required = false) String subject,
+                                   @RequestParam(defaultValue = "prefix") String subjectMatch,
+                                   @RequestParam(defaultValue = "DESC") String sortOrder,
+                                   @RequestParam(required = false) String cursor,
+                                   @RequestParam(defaultValue = "20") int limit) {
+        return ticketSearchService.search(criteria(status, priority, ticketNumber, subject, subjectMatch, sortOrder),
+                cursor, limit);
+    }
+
+    /**
+     * Every ticket matching the search filters, as {@code ndjson} (one {@link TicketSummary} per line) or
+     * {@code csv}, streamed while it is read. Gzipped when the client accepts it. Answers 503 when
+     * {@code tickets.export.max-concurrent} exports are already running. The slot is taken here, so a busy
+     * server still answers with a clean 503, and given back when the body ends or when the async request
+     * completes without running it (timeout, client abort, rejected task), whichever comes first.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) TicketStatus status,
+                                                        @RequestParam(required = false) Priority priority,
+                                                        @RequestParam(required = false) String ticketNumber,
+                                                        @RequestParam(required = false) String subject,
+                                                        @RequestParam(defaultValue = "prefix") String subjectMatch,
+                                                        @RequestParam(defaultValue = "DESC") String sortOrder,
+                                                        @RequestParam(defaultValue = "ndjson") String format,
+                                                        @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                        String acceptEncoding,
+                                                        HttpServletRequest request) {
+        TicketSearchCriteria criteria = criteria(status, priority, ticketNumber, subject, subjectMatch, sortOrder);
+        TicketExportService.Format exportFormat = TicketExportService.Format.of(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("tickets." + exportFormat.extension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        ticketExportService.acquire();
+        AtomicBoolean held = new AtomicBoolean(true);
+        Runnable release = () -> {
+            if (held.compareAndSet(true, false)) {
+                ticketExportService.release();
+            }
+        };
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_SLOT,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        release.run();
+                    }
+                });
+        return response.body(out -> {
+            try {
+                if (gzip) {
+                    GzipBody compressed = new GzipBody(out);
+                    try {
+                        ticketExportService.export(criteria, exportFormat, compressed);
+                        compressed.finish();
+                    } finally {
+                        compressed.end();
+                    }
+                } else {
+                    ticketExportService.export(criteria, exportFormat, out);
+                }
+            } finally {
+                release.run();
+            }
+        });
+    }
+
+    /**
+     * Whether {@code Accept-Encoding} (RFC 9110 section 12.5.3) admits gzip: listed with a non-zero
+     * q-value, or covered by a non-zero {@code *} when gzip itself is not listed.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean wildcard = false;
+        for (String member : acceptEncoding.split(",")) {
+            String[] parts = member.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = qValue(parts) > 0;
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = accepted;
+            } else if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return gzip != null ? gzip : wildcard;
+    }
+
+    private static double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
     }
 
     @GetMapping("/{id}")
     public CreateTicketResponse getById(@PathVariable UUID id) {
-        var ticket = ticketService.findById(id);
-        return new CreateTicketResponse(ticket.getTicketNumber(), TicketStatus.valueOf(ticket.getFormattedStatus()));
+        TicketSummary ticket = ticketService.findSummaryById(id);
+        return new CreateTicketResponse(ticket.ticketNumber(), ticket.status());
+    }
+
+    private static TicketSearchCriteria criteria(TicketStatus status, Priority priority, String ticketNumber,
+                                                 String subject, String subjectMatch, String sortOrder) {
+        return new TicketSearchCriteria(status, priority, blankToNull(ticketNumber), blankToNull(subject),
+                parseSubjectMatch(subjectMatch), parseAscending(sortOrder));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static boolean parseSubjectMatch(String subjectMatch) {
+        return switch (subjectMatch.toLowerCase()) {
+            case "prefix" -> false;
+            case "contains" -> true;
+            default -> throw new IllegalArgumentException("subjectMatch must be one of prefix, contains");
+        };
+    }
+
+    private static boolean parseAscending(String sortOrder) {
+        return switch (sortOrder.toUpperCase()) {
+            case "ASC" -> true;
+            case "DESC" -> false;
+            default -> throw new IllegalArgumentException("sortOrder must be one of ASC, DESC");
+        };
+    }
+
+    /**
+     * Gzip stream of an export body. The deflater's native memory is freed by {@link #end()} even when
+     * the export fails, without writing the trailer, so the client sees a truncated stream.
+     */
+    private static final class GzipBody extends GZIPOutputStream {
+
+        private GzipBody(OutputStream out) throws IOException {
+            super(out, 16384);
+        }
+
+        private void end() {
+            def.end();
+        }
     }
 }
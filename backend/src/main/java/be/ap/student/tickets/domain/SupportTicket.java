@@ -32,9 +32,20 @@ public class SupportTicket {
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
+    @Column(name = "user_id", updatable = false, length = 64)
+    private String userId;
+
     protected SupportTicket() {}
 
     public SupportTicket(String ticketNumber, UUID id, String subject, String description, Priority priority, TicketStatus status, Instant createdAt) {
+        this(ticketNumber, id, subject, description, priority, status, createdAt, null);
+    }
+
+    /**
+     * @param userId the user who created the ticket; counted against that user's creation quota
+     */
+    public SupportTicket(String ticketNumber, UUID id, String subject, String description, Priority priority, TicketStatus status, Instant createdAt,
+                         String userId) {
         this.id = id;
         this.ticketNumber = ticketNumber;
         this.subject = subject;
@@ -42,6 +53,7 @@ public class SupportTicket {
         this.priority = priority;
         this.status = status;
         this.createdAt = createdAt;
+        this.userId = userId;
     }
 
     public UUID getId() { return id; }
@@ -51,6 +63,16 @@ public class SupportTicket {
     public Priority getPriority() { return priority; }
     public String getStatus() { return status.name(); }
     public Instant getCreatedAt() { return createdAt; }
+    public String getUserId() { return userId; }
+
+    /**
+     * Moves the ticket to {@code newStatus} and returns the status it had before.
+     */
+    public TicketStatus changeStatus(TicketStatus newStatus) {
+        TicketStatus previous = this.status;
+        this.status = newStatus;
+        return previous;
+    }
 
     public String getFormattedStatus() {
         return this.status.name();
@@ -0,0 +1,17 @@
+package be.ap.student.tickets.dto;
+
+import be.ap.student.common.api.ApiError;
+import be.ap.student.tickets.domain.TicketStatus;
+
+import java.util.List;
+
+/**
+ * Outcome of {@code POST /api/tickets/batch}: one item per request, in request order.
+ */
+public record CreateTicketBatchResponse(int created, int rejected, List<Item> items) {
+
+    /**
+     * A created ticket ({@code ticketNumber} and {@code status}) or, for a rejected request, its {@code error}.
+     */
+    public record Item(int index, String ticketNumber, TicketStatus status, ApiError error) {}
+}
@@ -18,6 +18,7 @@ public class CreateTicketRequest {
     private String priority;
 
     @NotBlank
+    @Size(max = 64)
     private String userId;
 
     public CreateTicketRequest() {
@@ -0,0 +1,17 @@
+package be.ap.student.tickets.dto;
+
+import be.ap.student.tickets.domain.Priority;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Figures shown on the ticket dashboard (feature-003).
+ *
+ * @param openTickets       number of tickets in status PENDING
+ * @param openByPriority    open tickets per priority; every priority is present
+ * @param createdToday      tickets created since midnight in the server time zone
+ * @param recentOpenTickets the most recently created open tickets, newest first (at most 5)
+ */
+public record DashboardStats(long openTickets, Map<Priority, Long> openByPriority, long createdToday,
+                             List<TicketSummary> recentOpenTickets) {}
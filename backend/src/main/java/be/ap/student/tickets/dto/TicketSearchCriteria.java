@@ -0,0 +1,15 @@
+package be.ap.student.tickets.dto;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.TicketStatus;
+
+/**
+ * Filters for the ticket search (feature-002). All fields are optional and combined with AND.
+ *
+ * @param ticketNumber  exact match on the ticket number
+ * @param subject       match on the subject, see {@code subjectContains}
+ * @param subjectContains false for a prefix match (index-backed), true for a partial match anywhere
+ * @param ascending     sort on createdAt ascending instead of the default descending (BR-003)
+ */
+public record TicketSearchCriteria(TicketStatus status, Priority priority, String ticketNumber,
+                                   String subject, boolean subjectContains, boolean ascending) {}
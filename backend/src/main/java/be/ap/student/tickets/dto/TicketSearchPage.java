@@ -0,0 +1,8 @@
+package be.ap.student.tickets.dto;
+
+import java.util.List;
+
+/**
+ * One page of search results. {@code nextCursor} is null on the last page.
+ */
+public record TicketSearchPage(List<TicketSummary> items, String nextCursor) {}
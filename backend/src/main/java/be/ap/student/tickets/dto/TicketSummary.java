@@ -0,0 +1,20 @@
+package be.ap.student.tickets.dto;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a support ticket without its description.
+ */
+public record TicketSummary(UUID id, String ticketNumber, String subject, Priority priority,
+                            TicketStatus status, Instant createdAt) {
+
+    public static TicketSummary of(SupportTicket ticket) {
+        return new TicketSummary(ticket.getId(), ticket.getTicketNumber(), ticket.getSubject(), ticket.getPriority(),
+                TicketStatus.valueOf(ticket.getStatus()), ticket.getCreatedAt());
+    }
+}
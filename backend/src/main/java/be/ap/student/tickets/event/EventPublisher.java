@@ -0,0 +1,20 @@
+package be.ap.student.tickets.event;
+
+import java.util.List;
+
+/**
+ * Destination the {@link OutboxRelay} delivers events to. Enabled publishers are selected by
+ * {@link #name()} in {@code tickets.outbox.publishers}.
+ * <p>
+ * Delivery is at-least-once: when {@link #publish} throws, the whole batch is offered again later,
+ * also to publishers that already received it.
+ */
+public interface EventPublisher {
+
+    String name();
+
+    /**
+     * Publishes the messages in outbox order. Called from the relay thread only.
+     */
+    void publish(List<OutboxMessage> messages);
+}
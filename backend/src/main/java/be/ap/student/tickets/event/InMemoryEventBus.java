@@ -0,0 +1,60 @@
+package be.ap.student.tickets.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process topic bus. Subscribers are called on the relay thread and should hand work off quickly.
+ * A failing subscriber is logged and does not stop delivery to the others, but fails the publish once
+ * the batch has been offered to everyone, so {@link OutboxRelay} keeps the rows and delivers them again.
+ * Subscribers therefore see a message more than once and must tolerate that.
+ */
+@Component
+public class InMemoryEventBus implements EventPublisher {
+
+    public static final String NAME = "in-memory";
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryEventBus.class);
+
+    private final Map<String, List<Consumer<OutboxMessage>>> subscribers = new ConcurrentHashMap<>();
+
+    public void subscribe(String topic, Consumer<OutboxMessage> subscriber) {
+        subscribers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(subscriber);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        RuntimeException failure = null;
+        for (OutboxMessage message : messages) {
+            for (Consumer<OutboxMessage> subscriber : subscribers.getOrDefault(message.topic(), List.of())) {
+                try {
+                    subscriber.accept(message);
+                } catch (RuntimeException e) {
+                    log.warn("event_subscriber_failed topic={} eventId={} correlationId={} reason={}",
+                            message.topic(), message.eventId(), message.correlationId(), e.getMessage());
+                    if (failure == null) {
+                        failure = new IllegalStateException("Event subscriber failed for " + message.topic()
+                                + " event " + message.eventId(), e);
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
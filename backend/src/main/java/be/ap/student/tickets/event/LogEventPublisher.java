@@ -0,0 +1,32 @@
+package be.ap.student.tickets.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Stand-in for a message broker: writes every event to the {@code ticket-events} logger, which can
+ * be routed to its own file in the logging configuration.
+ */
+@Component
+public class LogEventPublisher implements EventPublisher {
+
+    public static final String NAME = "log";
+
+    private static final Logger events = LoggerFactory.getLogger("ticket-events");
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            events.info("event_published topic={} eventId={} correlationId={} payload={}",
+                    message.topic(), message.eventId(), message.correlationId(), message.payload());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package be.ap.student.tickets.event;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One row of the outbox table as handed to an {@link EventPublisher}.
+ *
+ * @param id      outbox row id, increasing in insert order; 0 before the row is stored
+ * @param payload JSON envelope {@code {"eventType", "occurredAt", "payload"}} as defined in feature-004
+ */
+public record OutboxMessage(long id, UUID eventId, String topic, String eventType, String correlationId,
+                            String payload, Instant createdAt) {}
@@ -0,0 +1,146 @@
+package be.ap.student.tickets.event;
+
+import be.ap.student.tickets.repo.OutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox to the enabled {@link EventPublisher}s on a dedicated thread.
+ * <p>
+ * Each round reads the oldest {@code batch-size} rows, publishes them, then deletes them and advances
+ * the checkpoint in one transaction. Rows are only removed after every publisher accepted them, so
+ * delivery is at-least-once: a crash or publisher failure between publishing and the delete repeats
+ * the batch. Consumers deduplicate on {@code eventId}. The relay is woken right after a ticket
+ * transaction commits and otherwise polls every {@code poll-interval}; a failing publisher is retried
+ * after {@code retry-delay}.
+ */
+@Component
+public class OutboxRelay implements SmartLifecycle {
+
+    static final String NAME = "outbox-relay";
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxRepository repository;
+    private final List<EventPublisher> publishers;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long pollIntervalNanos;
+    private final long retryDelayNanos;
+    private final Semaphore wakeUps = new Semaphore(0);
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public OutboxRelay(OutboxRepository repository, List<EventPublisher> publishers,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${tickets.outbox.publishers:in-memory,log}") Set<String> enabledPublishers,
+                       @Value("${tickets.outbox.batch-size:100}") int batchSize,
+                       @Value("${tickets.outbox.poll-interval:PT1S}") Duration pollInterval,
+                       @Value("${tickets.outbox.retry-delay:PT5S}") Duration retryDelay) {
+        this.repository = repository;
+        this.publishers = publishers.stream().filter(p -> enabledPublishers.contains(p.name())).toList();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pollIntervalNanos = pollInterval.toNanos();
+        this.retryDelayNanos = retryDelay.toNanos();
+    }
+
+    /**
+     * Signals that new rows were committed. Cheap and non-blocking; safe to call from any thread.
+     */
+    public void wakeUp() {
+        if (wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+
+    /**
+     * Relays one batch and returns the number of messages delivered.
+     */
+    public int relayBatch() {
+        List<OutboxMessage> batch = repository.findOldest(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        for (EventPublisher publisher : publishers) {
+            publisher.publish(batch);
+        }
+        List<Long> ids = batch.stream().map(OutboxMessage::id).toList();
+        long lastId = batch.getLast().id();
+        transactionTemplate.executeWithoutResult(status -> {
+            repository.deleteAll(ids);
+            repository.saveCheckpoint(NAME, lastId, batch.size(), Instant.now());
+        });
+        return batch.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name(NAME).daemon().start(this::relayLoop);
+    }
+
+    @Override
+    public void stop() {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        wakeUp();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the ingestion pipeline, which may still append events while it drains.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 8192;
+    }
+
+    private void relayLoop() {
+        while (running) {
+            try {
+                if (relayBatch() < batchSize) {
+                    wakeUps.tryAcquire(pollIntervalNanos, TimeUnit.NANOSECONDS);
+                    wakeUps.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Back off without listening to wake-ups, so a broken publisher is not retried per create.
+                log.warn("outbox_relay_failed reason={}", e.getMessage());
+                try {
+                    TimeUnit.NANOSECONDS.sleep(retryDelayNanos);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
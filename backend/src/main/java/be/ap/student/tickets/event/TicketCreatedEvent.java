@@ -0,0 +1,24 @@
+package be.ap.student.tickets.event;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record TicketCreatedEvent(UUID eventId, Instant occurredAt, String correlationId, UUID ticketId,
+                                 String ticketNumber, String subject, Priority priority,
+                                 String createdByUserId) implements TicketEvent {
+
+    public static final String TOPIC = "ticket-created";
+
+    public static TicketCreatedEvent of(SupportTicket ticket, String createdByUserId, String correlationId) {
+        return new TicketCreatedEvent(UUID.randomUUID(), ticket.getCreatedAt(), correlationId, ticket.getId(),
+                ticket.getTicketNumber(), ticket.getSubject(), ticket.getPriority(), createdByUserId);
+    }
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+}
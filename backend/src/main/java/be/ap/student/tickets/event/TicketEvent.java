@@ -0,0 +1,25 @@
+package be.ap.student.tickets.event;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Domain event about a support ticket (feature-004), published through the outbox.
+ */
+public interface TicketEvent {
+
+    UUID eventId();
+
+    Instant occurredAt();
+
+    /**
+     * Correlation id of the request that caused the event, or null outside a request.
+     */
+    String correlationId();
+
+    String topic();
+
+    default String eventType() {
+        return getClass().getSimpleName();
+    }
+}
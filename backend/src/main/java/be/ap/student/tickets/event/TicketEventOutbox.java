@@ -0,0 +1,58 @@
+package be.ap.student.tickets.event;
+
+import be.ap.student.tickets.repo.OutboxRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes ticket events to the outbox table. Must be called inside the transaction that stores the
+ * change the events describe, so an event exists if and only if that change committed. After the
+ * commit the {@link OutboxRelay} is woken up; publishing itself never runs on the caller's thread.
+ */
+@Component
+public class TicketEventOutbox {
+
+    private final OutboxRepository repository;
+    private final OutboxRelay relay;
+    private final JsonMapper jsonMapper;
+
+    public TicketEventOutbox(OutboxRepository repository, OutboxRelay relay, JsonMapper jsonMapper) {
+        this.repository = repository;
+        this.relay = relay;
+        this.jsonMapper = jsonMapper;
+    }
+
+    public void append(TicketEvent event) {
+        appendAll(List.of(event));
+    }
+
+    public void appendAll(List<? extends TicketEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        repository.insertAll(events.stream().map(this::toMessage).toList());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    relay.wakeUp();
+                }
+            });
+        } else {
+            relay.wakeUp();
+        }
+    }
+
+    private OutboxMessage toMessage(TicketEvent event) {
+        String payload = jsonMapper.writeValueAsString(new Envelope(event.eventType(), event.occurredAt(), event));
+        return new OutboxMessage(0, event.eventId(), event.topic(), event.eventType(), event.correlationId(),
+                payload, Instant.now());
+    }
+
+    private record Envelope(String eventType, Instant occurredAt, TicketEvent payload) {}
+}
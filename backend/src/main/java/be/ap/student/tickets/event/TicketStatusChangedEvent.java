@@ -0,0 +1,25 @@
+package be.ap.student.tickets.event;
+
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record TicketStatusChangedEvent(UUID eventId, Instant occurredAt, String correlationId, UUID ticketId,
+                                       String ticketNumber, TicketStatus previousStatus,
+                                       TicketStatus newStatus) implements TicketEvent {
+
+    public static final String TOPIC = "ticket-status-changed";
+
+    public static TicketStatusChangedEvent of(SupportTicket ticket, TicketStatus previousStatus, Instant changedAt,
+                                              String correlationId) {
+        return new TicketStatusChangedEvent(UUID.randomUUID(), changedAt, correlationId, ticket.getId(),
+                ticket.getTicketNumber(), previousStatus, TicketStatus.valueOf(ticket.getStatus()));
+    }
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+}
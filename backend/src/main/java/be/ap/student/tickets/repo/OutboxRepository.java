@@ -0,0 +1,94 @@
+package be.ap.student.tickets.repo;
+
+import be.ap.student.tickets.event.OutboxMessage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to the transactional outbox and the relay checkpoint. Callers are responsible for
+ * the surrounding transaction.
+ */
+@Repository
+public class OutboxRepository {
+
+    private static final String INSERT_SQL = """
+            insert into outbox (event_id, topic, event_type, correlation_id, payload, created_at)
+            values (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final RowMapper<OutboxMessage> ROW_MAPPER = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("id"),
+            rs.getObject("event_id", UUID.class),
+            rs.getString("topic"),
+            rs.getString("event_type"),
+            rs.getString("correlation_id"),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<OutboxMessage> messages) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, messages, messages.size(), (ps, message) -> {
+            ps.setObject(1, message.eventId());
+            ps.setString(2, message.topic());
+            ps.setString(3, message.eventType());
+            ps.setString(4, message.correlationId());
+            ps.setString(5, message.payload());
+            ps.setTimestamp(6, Timestamp.from(message.createdAt()));
+        });
+    }
+
+    /**
+     * The oldest {@code limit} messages still in the outbox, in insert order.
+     */
+    public List<OutboxMessage> findOldest(int limit) {
+        return jdbcTemplate.query("""
+                select id, event_id, topic, event_type, correlation_id, payload, created_at
+                from outbox order by id fetch first ? rows only
+                """, ROW_MAPPER, limit);
+    }
+
+    public void deleteAll(List<Long> ids) {
+        jdbcTemplate.batchUpdate("delete from outbox where id = ?", ids, ids.size(),
+                (ps, id) -> ps.setLong(1, id));
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("select count(*) from outbox", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Records that {@code relay} has delivered everything up to and including {@code lastId}.
+     */
+    public void saveCheckpoint(String relay, long lastId, int delivered, Instant at) {
+        int updated = jdbcTemplate.update("""
+                update outbox_checkpoint set last_id = ?, delivered = delivered + ?, updated_at = ?
+                where relay = ?
+                """, lastId, delivered, Timestamp.from(at), relay);
+        if (updated == 0) {
+            jdbcTemplate.update("""
+                    insert into outbox_checkpoint (relay, last_id, delivered, updated_at) values (?, ?, ?, ?)
+                    """, relay, lastId, delivered, Timestamp.from(at));
+        }
+    }
+
+    /**
+     * Last delivered outbox id of {@code relay}, or 0 when it has not delivered anything yet.
+     */
+    public long findCheckpoint(String relay) {
+        List<Long> lastId = jdbcTemplate.queryForList(
+                "select last_id from outbox_checkpoint where relay = ?", Long.class, relay);
+        return lastId.isEmpty() ? 0 : lastId.getFirst();
+    }
+}
@@ -0,0 +1,40 @@
+package be.ap.student.tickets.repo;
+
+import be.ap.student.tickets.domain.SupportTicket;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Inserts support tickets with JDBC batch statements, bypassing the JPA persistence context.
+ * Callers are responsible for the surrounding transaction.
+ */
+@Repository
+public class SupportTicketBatchWriter {
+
+    private static final String INSERT_SQL = """
+            insert into support_ticket (id, ticket_number, subject, description, priority, status, created_at, user_id)
+            values (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SupportTicketBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<SupportTicket> tickets) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, tickets, tickets.size(), (ps, ticket) -> {
+            ps.setObject(1, ticket.getId());
+            ps.setString(2, ticket.getTicketNumber());
+            ps.setString(3, ticket.getSubject());
+            ps.setString(4, ticket.getDescription());
+            ps.setString(5, ticket.getPriority().name());
+            ps.setString(6, ticket.getStatus());
+            ps.setTimestamp(7, Timestamp.from(ticket.getCreatedAt()));
+            ps.setString(8, ticket.getUserId());
+        });
+    }
+}
@@ -1,14 +1,121 @@
 package be.ap.student.tickets.repo;
 
 
+import be.ap.student.tickets.domain.Priority;
 import be.ap.student.tickets.domain.SupportTicket;
 import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.dto.TicketSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface SupportTicketRepository extends CrudRepository<SupportTicket, UUID> {
+
+    /**
+     * Priority/status queries list status and priority in the ORDER BY even though both are fixed by
+     * the WHERE clause: the order then matches idx_support_ticket_status_priority_created, so the
+     * database reads the index in order and stops at the requested size instead of sorting every match.
+     */
+    String BY_PRIORITY_AND_STATUS_OLDEST_FIRST = """
+            select t from SupportTicket t
+            where t.priority = :priority and t.status = :status
+            order by t.status, t.priority, t.createdAt, t.id
+            """;
+
+    /**
+     * Same rows as {@link #BY_PRIORITY_AND_STATUS_OLDEST_FIRST}, selected straight into
+     * {@link TicketSummary}: no description column, no managed entities and no dirty-check snapshots.
+     */
+    String SUMMARIES_BY_PRIORITY_AND_STATUS_OLDEST_FIRST = """
+            select new be.ap.student.tickets.dto.TicketSummary(
+                t.id, t.ticketNumber, t.subject, t.priority, t.status, t.createdAt)
+            from SupportTicket t
+            where t.priority = :priority and t.status = :status
+            order by t.status, t.priority, t.createdAt, t.id
+            """;
+
     long countByStatus(TicketStatus status);
-    List<SupportTicket> findAllByPriorityAndStatus(String priority, TicketStatus status);
+
+    /**
+     * Moves the ticket to {@code to} only while it is still in {@code from}; 0 when another transaction
+     * moved it first. Runs in the caller's transaction and bypasses the persistence context.
+     */
+    @Modifying
+    @Query("update SupportTicket t set t.status = :to where t.id = :id and t.status = :from")
+    int changeStatusIf(@Param("id") UUID id, @Param("from") TicketStatus from, @Param("to") TicketStatus to);
+
+    long countByCreatedAtGreaterThanEqual(Instant createdAt);
+
+    /**
+     * Rows of {@code [Priority, Long]}; priorities without tickets in {@code status} are absent.
+     */
+    @Query("select t.priority, count(t) from SupportTicket t where t.status = :status group by t.priority")
+    List<Object[]> countByPriorityForStatus(@Param("status") TicketStatus status);
+
+    /**
+     * Streams all matching tickets, oldest first, fetching 500 rows per round trip.
+     * Must be consumed inside a transaction and closed afterwards. The entities are loaded read-only,
+     * so Hibernate keeps no snapshot for dirty checking; changes to them are not flushed.
+     */
+    @Query(BY_PRIORITY_AND_STATUS_OLDEST_FIRST)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<SupportTicket> streamByPriorityAndStatus(@Param("priority") Priority priority,
+                                                    @Param("status") TicketStatus status);
+
+    @Query(BY_PRIORITY_AND_STATUS_OLDEST_FIRST)
+    Slice<SupportTicket> findSliceByPriorityAndStatus(@Param("priority") Priority priority,
+                                                      @Param("status") TicketStatus status,
+                                                      Pageable pageable);
+
+    @Query(BY_PRIORITY_AND_STATUS_OLDEST_FIRST)
+    List<SupportTicket> findOldestByPriorityAndStatus(@Param("priority") Priority priority,
+                                                      @Param("status") TicketStatus status,
+                                                      Limit limit);
+
+    /**
+     * Read-side variants for list endpoints. Read-only transactions run the Hibernate session with
+     * flush mode MANUAL, so nothing is dirty-checked or flushed before or after the query.
+     */
+    @Transactional(readOnly = true)
+    @Query(SUMMARIES_BY_PRIORITY_AND_STATUS_OLDEST_FIRST)
+    Slice<TicketSummary> findSummarySliceByPriorityAndStatus(@Param("priority") Priority priority,
+                                                             @Param("status") TicketStatus status,
+                                                             Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query(SUMMARIES_BY_PRIORITY_AND_STATUS_OLDEST_FIRST)
+    List<TicketSummary> findOldestSummariesByPriorityAndStatus(@Param("priority") Priority priority,
+                                                               @Param("status") TicketStatus status,
+                                                               Limit limit);
+
+    /**
+     * Escalation queue: the oldest {@code perPriority} tickets in {@code status} for every priority,
+     * highest priority first. Each priority is one index range read of at most {@code perPriority} rows.
+     */
+    default Map<Priority, List<SupportTicket>> findEscalationQueue(TicketStatus status, int perPriority) {
+        Map<Priority, List<SupportTicket>> queue = new LinkedHashMap<>();
+        Priority[] priorities = Priority.values();
+        for (int i = priorities.length - 1; i >= 0; i--) {
+            queue.put(priorities[i], findOldestByPriorityAndStatus(priorities[i], status, Limit.of(perPriority)));
+        }
+        return queue;
+    }
 }
@@ -0,0 +1,168 @@
+package be.ap.student.tickets.repo;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.dto.TicketSearchCriteria;
+import be.ap.student.tickets.dto.TicketSearchCursor;
+import be.ap.student.tickets.dto.TicketSummary;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Keyset-paginated ticket search returning {@link TicketSummary} projections.
+ * <p>
+ * Pages are ordered on {@code (created_at, id)} and continue from the last row of the previous
+ * page with a row-value comparison instead of OFFSET, so a page costs an index seek plus
+ * {@code limit} rows regardless of its position. Equality-filtered status/priority columns are
+ * repeated at the front of the ORDER BY: that does not change the result, but lets the database
+ * read {@code idx_support_ticket_status_priority_created} / {@code idx_support_ticket_status_created}
+ * in order and stop after {@code limit} rows instead of sorting the whole match.
+ */
+@Repository
+public class TicketSearchRepository {
+
+    static final String SUMMARY_COLUMNS = "id, ticket_number, subject, priority, status, created_at";
+
+    public static final RowMapper<TicketSummary> SUMMARY_ROW_MAPPER = (rs, rowNum) -> new TicketSummary(
+            rs.getObject("id", UUID.class),
+            rs.getString("ticket_number"),
+            rs.getString("subject"),
+            Priority.valueOf(rs.getString("priority")),
+            TicketStatus.valueOf(rs.getString("status")),
+            rs.getTimestamp("created_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TicketSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Single-ticket read for {@code GET /api/tickets/{id}}: one primary-key lookup of the summary
+     * columns, mapped straight to the record without a persistence context.
+     */
+    public Optional<TicketSummary> findSummaryById(UUID id) {
+        List<TicketSummary> rows = jdbcTemplate.query("select " + SUMMARY_COLUMNS + " from support_ticket where id = ?",
+                SUMMARY_ROW_MAPPER, id);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.getFirst());
+    }
+
+    /**
+     * Returns at most {@code limit} tickets matching the criteria, positioned after {@code after}
+     * (or from the start when {@code after} is null).
+     */
+    public List<TicketSummary> search(TicketSearchCriteria criteria, TicketSearchCursor after, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("select ").append(SUMMARY_COLUMNS).append(" from support_ticket");
+        appendWhere(sql, args, criteria);
+        if (after != null) {
+            sql.append(args.isEmpty() ? " where " : " and ")
+                    .append("(created_at, id) ").append(criteria.ascending() ? ">" : "<").append(" (?, ?)");
+            args.add(Timestamp.from(after.createdAt()));
+            args.add(after.id());
+        }
+        appendOrderBy(sql, criteria);
+        sql.append(" fetch first ? rows only");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), SUMMARY_ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Hands every ticket matching the criteria to {@code rows}, in search order, and returns the count.
+     * Rows come from a forward-only, read-only cursor fetched {@code fetchSize} at a time and are not
+     * collected, so memory stays flat whatever the table size; the connection is held until the last row.
+     * On H2 the session runs with {@code LAZY_QUERY_EXECUTION} for the query, as H2 otherwise
+     * materializes the whole result before returning the first row.
+     */
+    public long scan(TicketSearchCriteria criteria, int fetchSize, Consumer<TicketSummary> rows) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("select ").append(SUMMARY_COLUMNS).append(" from support_ticket");
+        appendWhere(sql, args, criteria);
+        appendOrderBy(sql, criteria);
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            boolean lazy = "H2".equals(connection.getMetaData().getDatabaseProductName());
+            if (lazy) {
+                setLazyQueryExecution(connection, true);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < args.size(); i++) {
+                    statement.setObject(i + 1, args.get(i));
+                }
+                long count = 0;
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        rows.accept(SUMMARY_ROW_MAPPER.mapRow(rs, 0));
+                        count++;
+                    }
+                }
+                return count;
+            } finally {
+                if (lazy) {
+                    setLazyQueryExecution(connection, false);
+                }
+            }
+        });
+    }
+
+    private static void setLazyQueryExecution(Connection connection, boolean lazy) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("set lazy_query_execution " + lazy);
+        }
+    }
+
+    static void appendWhere(StringBuilder sql, List<Object> args, TicketSearchCriteria criteria) {
+        List<String> conditions = new ArrayList<>();
+        if (criteria.status() != null) {
+            conditions.add("status = ?");
+            args.add(criteria.status().name());
+        }
+        if (criteria.priority() != null) {
+            conditions.add("priority = ?");
+            args.add(criteria.priority().name());
+        }
+        if (criteria.ticketNumber() != null) {
+            conditions.add("ticket_number = ?");
+            args.add(criteria.ticketNumber());
+        }
+        if (criteria.subject() != null) {
+            conditions.add("subject like ? escape '\\'");
+            String escaped = escapeLike(criteria.subject());
+            args.add(criteria.subjectContains() ? "%" + escaped + "%" : escaped + "%");
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" where ").append(String.join(" and ", conditions));
+        }
+    }
+
+    static void appendOrderBy(StringBuilder sql, TicketSearchCriteria criteria) {
+        String direction = criteria.ascending() ? " asc" : " desc";
+        sql.append(" order by ");
+        if (criteria.status() != null) {
+            sql.append("status").append(direction).append(", ");
+        }
+        if (criteria.priority() != null) {
+            sql.append("priority").append(direction).append(", ");
+        }
+        sql.append("created_at").append(direction).append(", id").append(direction);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
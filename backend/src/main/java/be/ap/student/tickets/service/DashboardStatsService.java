@@ -0,0 +1,262 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.dto.DashboardStats;
+import be.ap.student.tickets.dto.TicketSearchCriteria;
+import be.ap.student.tickets.dto.TicketSummary;
+import be.ap.student.tickets.repo.SupportTicketRepository;
+import be.ap.student.tickets.repo.TicketSearchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pre-aggregated figures for the ticket dashboard (feature-003).
+ * <p>
+ * Counters are striped {@link LongAdder}s updated by {@link TicketService} on every create and status
+ * change, so writers never contend on a single cache line. The 5 most recent open tickets are kept in
+ * a small bounded list; when one of them leaves PENDING the list is refilled from the database on the
+ * next read. Every change bumps a version number. A read whose version matches the last one returns
+ * the cached snapshot and its ETag, so unchanged polls cost neither a query nor an allocation.
+ * <p>
+ * Everything is seeded from the database at startup and reconciled periodically, which corrects
+ * drift from rolled-back transactions or other writers.
+ */
+@Service
+public class DashboardStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStatsService.class);
+
+    public static final int RECENT_OPEN_SIZE = 5;
+
+    private static final TicketSearchCriteria OPEN_NEWEST_FIRST =
+            new TicketSearchCriteria(TicketStatus.PENDING, null, null, null, false, false);
+
+    private final SupportTicketRepository repository;
+    private final TicketSearchRepository searchRepository;
+    private final Clock clock;
+    // Keeps ETags from a previous run from matching this run's versions.
+    private final String instanceTag = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    private final LongAdder openTickets = new LongAdder();
+    private final Map<Priority, LongAdder> openByPriority = new EnumMap<>(Priority.class);
+    private final LongAdder createdToday = new LongAdder();
+    private final AtomicLong version = new AtomicLong();
+
+    // Not synchronized: the refill below queries the database, which would pin a virtual thread.
+    private final ReentrantLock recentLock = new ReentrantLock();
+    // Newest first, guarded by recentLock.
+    private final List<TicketSummary> recentOpen = new ArrayList<>(RECENT_OPEN_SIZE);
+    private boolean recentIncomplete;
+
+    private volatile LocalDate today;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public DashboardStatsService(SupportTicketRepository repository, TicketSearchRepository searchRepository) {
+        this(repository, searchRepository, Clock.systemDefaultZone());
+    }
+
+    DashboardStatsService(SupportTicketRepository repository, TicketSearchRepository searchRepository, Clock clock) {
+        this.repository = repository;
+        this.searchRepository = searchRepository;
+        this.clock = clock;
+        for (Priority priority : Priority.values()) {
+            openByPriority.put(priority, new LongAdder());
+        }
+        this.today = LocalDate.now(clock);
+    }
+
+    /**
+     * Current figures plus the ETag identifying them.
+     */
+    public Snapshot snapshot() {
+        rollOverDay();
+        // Read the version before the counters: the counters then reflect at least this version.
+        long currentVersion = version.get();
+        Snapshot current = snapshot;
+        if (current != null && current.version() == currentVersion) {
+            return current;
+        }
+        Snapshot rebuilt = new Snapshot(currentVersion, "\"" + instanceTag + "-" + currentVersion + "\"", buildStats());
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+
+    public void ticketCreated(SupportTicket ticket) {
+        rollOverDay();
+        if (today.equals(LocalDate.ofInstant(ticket.getCreatedAt(), clock.getZone()))) {
+            createdToday.increment();
+        }
+        if (TicketStatus.PENDING.name().equals(ticket.getStatus())) {
+            openTickets.increment();
+            openByPriority.get(ticket.getPriority()).increment();
+            offerRecent(TicketSummary.of(ticket));
+        }
+        version.incrementAndGet();
+    }
+
+    public void statusChanged(SupportTicket ticket, TicketStatus previous) {
+        TicketStatus current = TicketStatus.valueOf(ticket.getStatus());
+        if (previous == current) {
+            return;
+        }
+        if (previous == TicketStatus.PENDING) {
+            openTickets.decrement();
+            openByPriority.get(ticket.getPriority()).decrement();
+            removeRecent(ticket);
+        } else if (current == TicketStatus.PENDING) {
+            openTickets.increment();
+            openByPriority.get(ticket.getPriority()).increment();
+            offerRecent(TicketSummary.of(ticket));
+        }
+        version.incrementAndGet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reload();
+    }
+
+    /**
+     * Updates that land between the queries and the reset are lost until the next run;
+     * the window is small and self-correcting, like {@link OpenTicketGauge#reconcile()}.
+     */
+    @Scheduled(fixedDelayString = "${tickets.dashboard.reconcile-interval:PT5M}",
+            initialDelayString = "${tickets.dashboard.reconcile-interval:PT5M}")
+    public void reconcile() {
+        DashboardStats before = buildStats();
+        reload();
+        DashboardStats after = buildStats();
+        if (before.openTickets() != after.openTickets() || before.createdToday() != after.createdToday()) {
+            log.info("dashboard_stats_reconciled openTickets={}->{} createdToday={}->{}",
+                    before.openTickets(), after.openTickets(), before.createdToday(), after.createdToday());
+        }
+    }
+
+    private void reload() {
+        LocalDate day = LocalDate.now(clock);
+        Map<Priority, Long> open = new EnumMap<>(Priority.class);
+        for (Object[] row : repository.countByPriorityForStatus(TicketStatus.PENDING)) {
+            open.put((Priority) row[0], (Long) row[1]);
+        }
+        long created = repository.countByCreatedAtGreaterThanEqual(day.atStartOfDay(clock.getZone()).toInstant());
+        List<TicketSummary> recent = searchRepository.search(OPEN_NEWEST_FIRST, null, RECENT_OPEN_SIZE);
+
+        long total = 0;
+        for (Priority priority : Priority.values()) {
+            long count = open.getOrDefault(priority, 0L);
+            reset(openByPriority.get(priority), count);
+            total += count;
+        }
+        reset(openTickets, total);
+        reset(createdToday, created);
+        today = day;
+        recentLock.lock();
+        try {
+            recentOpen.clear();
+            recentOpen.addAll(recent);
+            recentIncomplete = false;
+        } finally {
+            recentLock.unlock();
+        }
+        version.incrementAndGet();
+    }
+
+    private DashboardStats buildStats() {
+        Map<Priority, Long> byPriority = new EnumMap<>(Priority.class);
+        openByPriority.forEach((priority, count) -> byPriority.put(priority, count.sum()));
+        return new DashboardStats(openTickets.sum(), Collections.unmodifiableMap(byPriority), createdToday.sum(),
+                recentOpenTickets());
+    }
+
+    private List<TicketSummary> recentOpenTickets() {
+        recentLock.lock();
+        try {
+            if (recentIncomplete) {
+                recentOpen.clear();
+                recentOpen.addAll(searchRepository.search(OPEN_NEWEST_FIRST, null, RECENT_OPEN_SIZE));
+                recentIncomplete = false;
+            }
+            return List.copyOf(recentOpen);
+        } finally {
+            recentLock.unlock();
+        }
+    }
+
+    private void offerRecent(TicketSummary summary) {
+        recentLock.lock();
+        try {
+            int position = 0;
+            while (position < recentOpen.size() && isNewer(recentOpen.get(position), summary)) {
+                position++;
+            }
+            if (position < RECENT_OPEN_SIZE) {
+                recentOpen.add(position, summary);
+                if (recentOpen.size() > RECENT_OPEN_SIZE) {
+                    recentOpen.removeLast();
+                }
+            }
+        } finally {
+            recentLock.unlock();
+        }
+    }
+
+    private void removeRecent(SupportTicket ticket) {
+        recentLock.lock();
+        try {
+            if (recentOpen.removeIf(summary -> summary.id().equals(ticket.getId()))) {
+                // The sixth most recent open ticket is not tracked; fetch it on the next read.
+                recentIncomplete = true;
+            }
+        } finally {
+            recentLock.unlock();
+        }
+    }
+
+    private void rollOverDay() {
+        LocalDate now = LocalDate.now(clock);
+        if (now.equals(today)) {
+            return;
+        }
+        synchronized (this) {
+            if (!now.equals(today)) {
+                createdToday.reset();
+                today = now;
+                version.incrementAndGet();
+            }
+        }
+    }
+
+    private static boolean isNewer(TicketSummary a, TicketSummary b) {
+        return a.createdAt().isAfter(b.createdAt());
+    }
+
+    private static void reset(LongAdder adder, long value) {
+        adder.reset();
+        adder.add(value);
+    }
+
+    /**
+     * Immutable dashboard figures at one version, with the strong ETag that identifies them.
+     */
+    public record Snapshot(long version, String etag, DashboardStats stats) {}
+}
@@ -0,0 +1,219 @@
+package be.ap.student.tickets.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-sent events channel for the ticket dashboard (feature-003), replacing the 30-second poll.
+ * <p>
+ * Once per {@code interval} a single scheduler tick checks the {@link DashboardStatsService} version.
+ * When it changed, the snapshot is serialized once and the same frame is handed to every subscriber,
+ * so any number of creates within an interval results in at most one frame per client. Writes run on
+ * virtual threads, one in flight per subscriber; a subscriber that is still writing when the next frame
+ * arrives only keeps the newest frame. A subscriber whose write has been stuck for
+ * {@code max-stalled-intervals} ticks is disconnected. Idle connections get a comment every
+ * {@code heartbeat} so dead peers are detected.
+ */
+@Service
+public class DashboardStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStreamService.class);
+
+    static final String EVENT_NAME = "dashboard";
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final DashboardStatsService dashboardStats;
+    private final JsonMapper jsonMapper;
+    private final long emitterTimeoutMillis;
+    private final long heartbeatMillis;
+    private final int maxStalledIntervals;
+    private final Clock clock;
+    private final ExecutorService senders;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final ReentrantLock broadcastLock = new ReentrantLock();
+    // Guarded by broadcastLock.
+    private long lastVersion = -1;
+    private long lastFrameMillis;
+
+    @Autowired
+    public DashboardStreamService(DashboardStatsService dashboardStats, JsonMapper jsonMapper, MeterRegistry meterRegistry,
+                                  @Value("${tickets.dashboard.stream.timeout:PT30M}") Duration emitterTimeout,
+                                  @Value("${tickets.dashboard.stream.heartbeat:PT15S}") Duration heartbeat,
+                                  @Value("${tickets.dashboard.stream.max-stalled-intervals:10}") int maxStalledIntervals) {
+        this(dashboardStats, jsonMapper, meterRegistry, emitterTimeout, heartbeat, maxStalledIntervals,
+                Clock.systemUTC(), Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    DashboardStreamService(DashboardStatsService dashboardStats, JsonMapper jsonMapper, MeterRegistry meterRegistry,
+                           Duration emitterTimeout, Duration heartbeat, int maxStalledIntervals, Clock clock,
+                           ExecutorService senders) {
+        this.dashboardStats = dashboardStats;
+        this.jsonMapper = jsonMapper;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.heartbeatMillis = heartbeat.toMillis();
+        this.maxStalledIntervals = maxStalledIntervals;
+        this.clock = clock;
+        this.senders = senders;
+        this.lastFrameMillis = clock.millis();
+        Gauge.builder("tickets.dashboard.subscribers", subscribers, Set::size)
+                .description("Open dashboard event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers a new subscriber with the current figures as its first frame.
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(emitterTimeoutMillis));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        try {
+            // Sent on the request thread: before the emitter is returned it is only buffered, and a
+            // virtual-thread send racing the emitter's initialization could be lost.
+            emitter.send(frame(dashboardStats.snapshot()));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> disconnect(subscriber, null));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Scheduled(fixedRateString = "${tickets.dashboard.stream.interval:PT1S}")
+    public void broadcast() {
+        // A lock rather than synchronized: the snapshot may query the database, which would pin a
+        // virtual thread when scheduled tasks run on them.
+        broadcastLock.lock();
+        try {
+            DashboardStatsService.Snapshot snapshot = dashboardStats.snapshot();
+            if (subscribers.isEmpty()) {
+                // New subscribers get the current figures on connect; only later changes need a frame.
+                lastVersion = snapshot.version();
+                return;
+            }
+            Set<DataWithMediaType> frame;
+            if (snapshot.version() != lastVersion) {
+                frame = frame(snapshot);
+                lastVersion = snapshot.version();
+            } else if (clock.millis() - lastFrameMillis >= heartbeatMillis) {
+                frame = HEARTBEAT;
+            } else {
+                return;
+            }
+            lastFrameMillis = clock.millis();
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(frame);
+            }
+        } finally {
+            broadcastLock.unlock();
+        }
+    }
+
+    /**
+     * Runs on context close, before the web server's graceful shutdown, which would otherwise wait
+     * for every open stream as an in-flight request. Clients reconnect to another node.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    private Set<DataWithMediaType> frame(DashboardStatsService.Snapshot snapshot) {
+        return SseEmitter.event()
+                .id(Long.toString(snapshot.version()))
+                .name(EVENT_NAME)
+                .data(jsonMapper.writeValueAsString(snapshot.stats()), MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private void disconnect(Subscriber subscriber, Throwable cause) {
+        if (subscribers.remove(subscriber)) {
+            if (cause == null) {
+                subscriber.emitter.complete();
+            } else {
+                subscriber.emitter.completeWithError(cause);
+            }
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicReference<Set<DataWithMediaType>> pending = new AtomicReference<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private int stalledIntervals;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Called from the broadcast tick. Replaces any frame that has not been written yet, so a slow
+         * client only ever catches up to the newest one.
+         */
+        void offer(Set<DataWithMediaType> frame) {
+            pending.set(frame);
+            if (sending.compareAndSet(false, true)) {
+                stalledIntervals = 0;
+                senders.execute(this::drain);
+            } else if (++stalledIntervals > maxStalledIntervals) {
+                log.info("dashboard_stream_slow_consumer_dropped stalledIntervals={}", stalledIntervals);
+                disconnect(this, null);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> frame;
+                while ((frame = pending.getAndSet(null)) != null) {
+                    emitter.send(frame);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed.
+                disconnect(this, e);
+                return;
+            } finally {
+                sending.set(false);
+            }
+            // A frame offered between the last poll and releasing the flag would otherwise wait a tick.
+            if (pending.get() != null && sending.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+    }
+}
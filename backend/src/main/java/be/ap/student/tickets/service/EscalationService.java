@@ -1,15 +1,57 @@
 package be.ap.student.tickets.service;
 
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
 /**
  * Evaluates whether a support ticket should be escalated based on its
  * priority and the number of times it has been reopened.
+ * <p>
+ * Decisions come from a {@link Rule} table indexed by {@link Priority} and {@link TicketStatus}
+ * ordinal, built once, so a lookup is two array reads. Closed tickets never escalate. {@code CRITICAL}
+ * is not a ticket priority; it only exists for callers of the string API.
+ * {@link #evaluate(List, Instant)} sweeps a batch of tickets against the SLA of their rule.
  *
  * Deliberate SonarQube issue:
  *  - java:S112  RuntimeException should not be thrown — use a specific subclass.
  */
+@Service
 public class EscalationService {
 
     private static final int REOPEN_THRESHOLD = 3;
+    private static final int NEVER = Integer.MAX_VALUE;
+
+    private static final Rule CRITICAL = new Rule(0, Duration.ZERO, "Immediately escalate to on-call engineer.");
+    private static final Rule HIGH = new Rule(1, Duration.ofHours(1), "Escalate within 1 hour.");
+    private static final Rule MEDIUM = new Rule(REOPEN_THRESHOLD, Duration.ofHours(4), "Escalate within 4 hours.");
+    private static final Rule LOW = new Rule(NEVER, null, "No escalation required.");
+    private static final Rule CLOSED = new Rule(NEVER, null, "Ticket is closed.");
+
+    private static final String[] NAMES = {"CRITICAL", "HIGH", "MEDIUM", "LOW"};
+    private static final Rule[] RULES_BY_NAME = {CRITICAL, HIGH, MEDIUM, LOW};
+
+    private static final Rule[][] RULES = new Rule[Priority.values().length][TicketStatus.values().length];
+
+    static {
+        for (Priority priority : Priority.values()) {
+            Rule open = switch (priority) {
+                case HIGH -> HIGH;
+                case MEDIUM -> MEDIUM;
+                case LOW -> LOW;
+            };
+            for (TicketStatus status : TicketStatus.values()) {
+                RULES[priority.ordinal()][status.ordinal()] = status == TicketStatus.CLOSED ? CLOSED : open;
+            }
+        }
+    }
 
     /**
      * Returns true when the ticket warrants escalation.
@@ -19,28 +61,86 @@ public class EscalationService {
      * @throws IllegalArgumentException if the priority value is unrecognised or blank
      */
     public boolean shouldEscalate(String priority, int reopenCount) {
+        return rule(priority).escalates(reopenCount);
+    }
+
+    public boolean shouldEscalate(Priority priority, TicketStatus status, int reopenCount) {
+        return rule(priority, status).escalates(reopenCount);
+    }
+
+    /**
+     * Returns a human-readable escalation message for the given priority.
+     */
+    public String escalationMessage(String priority) {
+        return rule(priority).message();
+    }
+
+    public Rule rule(Priority priority, TicketStatus status) {
+        return RULES[priority.ordinal()][status.ordinal()];
+    }
+
+    /**
+     * Sweeps {@code tickets} against their SLA as of {@code now}: tickets past it are {@link Plan#due()},
+     * open tickets with an SLA still running are {@link Plan#scheduled()} at the instant it runs out.
+     * Tickets without an SLA (low priority, closed) are left out.
+     */
+    public Plan evaluate(List<SupportTicket> tickets, Instant now) {
+        Plan plan = new Plan(new ArrayList<>(), new ArrayList<>());
+        long nowMillis = now.toEpochMilli();
+        for (int i = 0, n = tickets.size(); i < n; i++) {
+            classify(tickets.get(i), nowMillis, plan);
+        }
+        return plan;
+    }
+
+    private void classify(SupportTicket ticket, long nowMillis, Plan plan) {
+        Rule rule = rule(ticket.getPriority(), TicketStatus.valueOf(ticket.getStatus()));
+        if (rule.slaMillis() < 0) {
+            return;
+        }
+        long dueMillis = rule.deadlineMillis(ticket.getCreatedAt().toEpochMilli());
+        Escalation escalation = new Escalation(ticket.getId(), ticket.getPriority(), Instant.ofEpochMilli(dueMillis));
+        (dueMillis <= nowMillis ? plan.due() : plan.scheduled()).add(escalation);
+    }
+
+    private static Rule rule(String priority) {
         if (priority == null || priority.isBlank()) {
             throw new IllegalArgumentException("Priority must not be blank");
         }
-        return switch (priority.toUpperCase()) {
-            case "CRITICAL" -> true;
-            case "HIGH"     -> reopenCount >= 1;
-            case "MEDIUM"   -> reopenCount >= REOPEN_THRESHOLD;
-            case "LOW"      -> false;
-            default -> throw new IllegalArgumentException("Unknown priority: " + priority);
-        };
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equalsIgnoreCase(priority)) {
+                return RULES_BY_NAME[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown priority: " + priority);
     }
 
     /**
-     * Returns a human-readable escalation message for the given priority.
+     * One row of the rule table.
+     *
+     * @param reopenThreshold reopen count from which the ticket escalates; {@code Integer.MAX_VALUE} for never
+     * @param sla             age after which an open ticket escalates regardless of reopens; null for none
      */
-    public String escalationMessage(String priority) {
-        return switch (priority.toUpperCase()) {
-            case "CRITICAL" -> "Immediately escalate to on-call engineer.";
-            case "HIGH"     -> "Escalate within 1 hour.";
-            case "MEDIUM"   -> "Escalate within 4 hours.";
-            case "LOW"      -> "No escalation required.";
-            default -> throw new IllegalArgumentException("Unknown priority: " + priority);
-        };
+    public record Rule(int reopenThreshold, Duration sla, String message) {
+
+        public boolean escalates(int reopenCount) {
+            return reopenCount >= reopenThreshold;
+        }
+
+        long slaMillis() {
+            return sla == null ? -1 : sla.toMillis();
+        }
+
+        /**
+         * The instant, in epoch millis, at which a ticket created at {@code createdAtMillis} misses this
+         * rule's SLA. Only meaningful for rules with an SLA.
+         */
+        public long deadlineMillis(long createdAtMillis) {
+            return createdAtMillis + sla.toMillis();
+        }
     }
+
+    public record Escalation(UUID ticketId, Priority priority, Instant dueAt) {}
+
+    public record Plan(List<Escalation> due, List<Escalation> scheduled) {}
 }
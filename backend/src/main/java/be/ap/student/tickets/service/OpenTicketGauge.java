@@ -0,0 +1,77 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.repo.SupportTicketRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Incrementally maintained count of open ({@link TicketStatus#PENDING}) tickets.
+ * <p>
+ * Seeded once from the database at startup, adjusted in memory on every create and
+ * status change, and periodically reconciled with {@code countByStatus} so drift from
+ * failed transactions or other writers is corrected. Exposed as the {@code tickets.open} gauge.
+ */
+@Component
+public class OpenTicketGauge {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenTicketGauge.class);
+
+    private final SupportTicketRepository repository;
+    private final AtomicLong openTickets = new AtomicLong();
+
+    public OpenTicketGauge(SupportTicketRepository repository, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        Gauge.builder("tickets.open", openTickets, AtomicLong::get)
+                .description("Number of tickets in status PENDING")
+                .register(meterRegistry);
+    }
+
+    public long get() {
+        return openTickets.get();
+    }
+
+    public void ticketCreated(TicketStatus status) {
+        if (status == TicketStatus.PENDING) {
+            openTickets.incrementAndGet();
+        }
+    }
+
+    public void statusChanged(TicketStatus previous, TicketStatus current) {
+        if (previous == current) {
+            return;
+        }
+        if (previous == TicketStatus.PENDING) {
+            openTickets.decrementAndGet();
+        } else if (current == TicketStatus.PENDING) {
+            openTickets.incrementAndGet();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        openTickets.set(repository.countByStatus(TicketStatus.PENDING));
+    }
+
+    /**
+     * Creates committed between the count and the {@code set} are lost until the next run;
+     * the window is small and self-correcting, which is acceptable for a monitoring gauge.
+     */
+    @Scheduled(fixedDelayString = "${tickets.open-gauge.reconcile-interval:PT5M}",
+            initialDelayString = "${tickets.open-gauge.reconcile-interval:PT5M}")
+    public void reconcile() {
+        long actual = repository.countByStatus(TicketStatus.PENDING);
+        long previous = openTickets.getAndSet(actual);
+        if (previous != actual) {
+            log.info("open_ticket_gauge_reconciled previous={} actual={}", previous, actual);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.common.scheduling.HierarchicalTimingWheel;
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.repo.SupportTicketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces the SLAs of {@link EscalationService}: every open ticket with an SLA gets its deadline
+ * ({@code created_at + sla}) in a {@link HierarchicalTimingWheel}, and tickets still open when it passes
+ * are escalated.
+ * <p>
+ * At startup the wheel is rebuilt from {@code support_ticket} with one query over
+ * {@code idx_support_ticket_status_priority_created}, which covers the columns read. After that
+ * {@link TicketService} registers new and reopened tickets. One thread advances the wheel every
+ * {@code tick} and escalates the tickets that fell due in batches of {@code batch-size}, checking their
+ * current status with one lookup per batch. Closed tickets are not removed from the wheel; that check
+ * skips them when their deadline comes. A deadline costs one small entry, so millions of them fit in
+ * memory, and no thread waits on any of them.
+ * <p>
+ * An escalation is recorded in {@code support_ticket.escalated_at}, set only when still null, so a ticket
+ * escalates once: the rebuild leaves escalated tickets out and a restart does not escalate them again.
+ * Reopening a ticket clears the marker in the same transaction.
+ */
+@Component
+public class SlaEscalationScheduler implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SlaEscalationScheduler.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SupportTicketRepository repository;
+    private final EscalationService escalationService;
+    private final Clock clock;
+    private final Duration tick;
+    private final int batchSize;
+    private final Map<Priority, Counter> escalations = new EnumMap<>(Priority.class);
+    private final Queue<Deadline> registrations = new ConcurrentLinkedQueue<>();
+
+    // Owned by the sweeper thread once started.
+    private HierarchicalTimingWheel<UUID> wheel;
+    private volatile int pending;
+    private volatile boolean running;
+    private Thread sweeper;
+
+    @Autowired
+    public SlaEscalationScheduler(JdbcTemplate jdbcTemplate, SupportTicketRepository repository,
+                                  EscalationService escalationService, MeterRegistry meterRegistry,
+                                  @Value("${tickets.sla.tick:PT1S}") Duration tick,
+                                  @Value("${tickets.sla.batch-size:500}") int batchSize) {
+        this(jdbcTemplate, repository, escalationService, meterRegistry, tick, batchSize, Clock.systemUTC());
+    }
+
+    SlaEscalationScheduler(JdbcTemplate jdbcTemplate, SupportTicketRepository repository,
+                           EscalationService escalationService, MeterRegistry meterRegistry, Duration tick,
+                           int batchSize, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.repository = repository;
+        this.escalationService = escalationService;
+        this.clock = clock;
+        this.tick = tick;
+        this.batchSize = batchSize;
+        for (Priority priority : Priority.values()) {
+            escalations.put(priority, Counter.builder("tickets.sla.escalations")
+                    .description("Tickets escalated for missing their SLA")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("tickets.sla.pending", this, scheduler -> scheduler.pending)
+                .description("SLA deadlines waiting in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    public void ticketCreated(SupportTicket ticket) {
+        register(ticket);
+    }
+
+    /**
+     * Called inside the status change transaction: clears the escalation marker of a ticket reopened
+     * after being closed, so it can escalate again.
+     */
+    public void reopening(SupportTicket ticket, TicketStatus previous) {
+        if (reopened(ticket, previous)) {
+            jdbcTemplate.update("update support_ticket set escalated_at = null where id = ?", ticket.getId());
+        }
+    }
+
+    /**
+     * A ticket reopened after being closed gets its deadline back; it fires right away when already past.
+     */
+    public void statusChanged(SupportTicket ticket, TicketStatus previous) {
+        if (reopened(ticket, previous)) {
+            register(ticket);
+        }
+    }
+
+    private static boolean reopened(SupportTicket ticket, TicketStatus previous) {
+        return previous == TicketStatus.CLOSED && !TicketStatus.CLOSED.name().equals(ticket.getStatus());
+    }
+
+    @Override
+    public void start() {
+        rebuild();
+        running = true;
+        sweeper = Thread.ofPlatform().name("sla-escalations").daemon().start(this::sweepLoop);
+    }
+
+    @Override
+    public void stop() {
+        if (sweeper == null) {
+            return;
+        }
+        running = false;
+        sweeper.interrupt();
+        try {
+            sweeper.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sweeper = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before the web server, so no ticket is created before the wheel is rebuilt.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 16384;
+    }
+
+    /**
+     * Starts a new wheel with the deadline of every open, not yet escalated ticket that has an SLA.
+     */
+    void rebuild() {
+        wheel = new HierarchicalTimingWheel<>(tick, clock.millis());
+        List<TicketStatus> statuses = new ArrayList<>();
+        List<Priority> priorities = new ArrayList<>();
+        for (TicketStatus status : TicketStatus.values()) {
+            if (status != TicketStatus.CLOSED) {
+                statuses.add(status);
+            }
+        }
+        for (Priority priority : Priority.values()) {
+            if (escalationService.rule(priority, TicketStatus.PENDING).sla() != null) {
+                priorities.add(priority);
+            }
+        }
+        if (priorities.isEmpty()) {
+            return;
+        }
+        String sql = "select id, priority, status, created_at from support_ticket where status in ("
+                + placeholders(statuses.size()) + ") and priority in (" + placeholders(priorities.size()) + ") and escalated_at is null";
+        List<Object> args = new ArrayList<>();
+        statuses.forEach(status -> args.add(status.name()));
+        priorities.forEach(priority -> args.add(priority.name()));
+
+        long startNanos = System.nanoTime();
+        RowCallbackHandler addDeadline = rs -> {
+            EscalationService.Rule rule = escalationService.rule(Priority.valueOf(rs.getString(2)),
+                    TicketStatus.valueOf(rs.getString(3)));
+            wheel.add(rs.getObject(1, UUID.class), rule.deadlineMillis(rs.getTimestamp(4).getTime()));
+        };
+        jdbcTemplate.query(sql, addDeadline, args.toArray());
+        pending = wheel.size();
+        log.info("sla_wheel_rebuilt pending={} durationMs={}", wheel.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Adds the registrations made since the last sweep, advances the wheel to now and escalates what
+     * fell due. Returns the number of tickets escalated.
+     */
+    int sweep() {
+        Deadline deadline;
+        while ((deadline = registrations.poll()) != null) {
+            wheel.add(deadline.ticketId(), deadline.dueMillis());
+        }
+        List<UUID> due = new ArrayList<>();
+        wheel.advance(clock.millis(), due::add);
+        pending = wheel.size();
+
+        int escalated = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            escalated += escalate(due.subList(from, Math.min(due.size(), from + batchSize)));
+        }
+        return escalated;
+    }
+
+    private int escalate(List<UUID> batch) {
+        List<SupportTicket> overdue = new ArrayList<>();
+        int[] marked;
+        try {
+            for (SupportTicket ticket : repository.findAllById(batch)) {
+                if (escalationService.rule(ticket.getPriority(), TicketStatus.valueOf(ticket.getStatus())).sla() != null) {
+                    overdue.add(ticket);
+                }
+            }
+            Timestamp escalatedAt = new Timestamp(clock.millis());
+            marked = jdbcTemplate.batchUpdate(
+                    "update support_ticket set escalated_at = ? where id = ? and escalated_at is null",
+                    overdue.stream().map(ticket -> new Object[]{escalatedAt, ticket.getId()}).toList());
+        } catch (RuntimeException e) {
+            // Try again on the next tick rather than dropping the deadlines.
+            log.warn("sla_escalation_batch_failed size={} reason={}", batch.size(), e.getMessage());
+            long now = clock.millis();
+            batch.forEach(ticketId -> registrations.add(new Deadline(ticketId, now)));
+            return 0;
+        }
+        int escalated = 0;
+        for (int i = 0; i < overdue.size(); i++) {
+            if (marked[i] == 0) {
+                // Already escalated, e.g. registered twice.
+                continue;
+            }
+            SupportTicket ticket = overdue.get(i);
+            EscalationService.Rule rule = escalationService.rule(ticket.getPriority(),
+                    TicketStatus.valueOf(ticket.getStatus()));
+            escalations.get(ticket.getPriority()).increment();
+            log.warn("ticket_sla_escalated ticketNumber={} priority={} status={} createdAt={} sla={} action=\"{}\"",
+                    ticket.getTicketNumber(), ticket.getPriority(), ticket.getStatus(), ticket.getCreatedAt(),
+                    rule.sla(), rule.message());
+            escalated++;
+        }
+        return escalated;
+    }
+
+    private void sweepLoop() {
+        long tickMillis = tick.toMillis();
+        while (running) {
+            try {
+                Thread.sleep(tickMillis);
+                sweep();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.error("sla_sweep_failed reason={}", e.getMessage());
+            }
+        }
+    }
+
+    private void register(SupportTicket ticket) {
+        EscalationService.Rule rule = escalationService.rule(ticket.getPriority(), TicketStatus.valueOf(ticket.getStatus()));
+        if (rule.sla() != null) {
+            registrations.add(new Deadline(ticket.getId(), rule.deadlineMillis(ticket.getCreatedAt().toEpochMilli())));
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private record Deadline(UUID ticketId, long dueMillis) {}
+}
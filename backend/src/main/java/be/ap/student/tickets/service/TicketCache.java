@@ -0,0 +1,106 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.dto.TicketSummary;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of {@link TicketSummary} by ticket id, for {@code GET /api/tickets/{id}}.
+ * <p>
+ * Bounded by an estimate of the retained bytes ({@code max-weight}) with Caffeine's W-TinyLFU
+ * eviction, so a scan of one-off ids does not push out the hot tickets. Entries live for {@code ttl};
+ * ids that do not exist are cached as absent for the much shorter {@code negative-ttl}, which keeps
+ * floods of unknown ids away from the database while a ticket created under such an id shows up
+ * quickly. {@link TicketService} writes new and changed tickets through after commit, so the TTL only
+ * bounds staleness from writes made outside this node. Hits, misses and evictions are published as
+ * the {@code cache.*} metrics with {@code cache=tickets}.
+ */
+@Component
+public class TicketCache {
+
+    static final String NAME = "tickets";
+
+    // Object header, fields, UUID, boxed Instant and the map node; strings are added per entry.
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+    private static final int ABSENT_WEIGHT_BYTES = 96;
+
+    private final Cache<UUID, Optional<TicketSummary>> cache;
+
+    public TicketCache(MeterRegistry meterRegistry,
+                       @Value("${tickets.cache.max-weight:16MB}") DataSize maxWeight,
+                       @Value("${tickets.cache.ttl:PT10M}") Duration ttl,
+                       @Value("${tickets.cache.negative-ttl:PT5S}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight.toBytes())
+                .weigher((UUID id, Optional<TicketSummary> entry) -> weigh(entry))
+                .expireAfter(new TtlExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    /**
+     * The cached summary, or the result of {@code loader} which is then cached, absent or not.
+     * Concurrent misses for one id share a single load.
+     */
+    public Optional<TicketSummary> get(UUID id, Function<UUID, Optional<TicketSummary>> loader) {
+        return cache.get(id, loader);
+    }
+
+    public void put(TicketSummary summary) {
+        cache.put(summary.id(), Optional.of(summary));
+    }
+
+    public void invalidate(UUID id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    long estimatedSize() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private static int weigh(Optional<TicketSummary> entry) {
+        if (entry.isEmpty()) {
+            return ABSENT_WEIGHT_BYTES;
+        }
+        TicketSummary summary = entry.get();
+        // Latin-1 strings take one byte per character.
+        return ENTRY_OVERHEAD_BYTES + summary.ticketNumber().length() + summary.subject().length();
+    }
+
+    private record TtlExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<UUID, Optional<TicketSummary>> {
+
+        @Override
+        public long expireAfterCreate(UUID id, Optional<TicketSummary> entry, long currentTime) {
+            return entry.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID id, Optional<TicketSummary> entry, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(id, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID id, Optional<TicketSummary> entry, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
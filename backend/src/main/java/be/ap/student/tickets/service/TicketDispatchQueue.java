@@ -0,0 +1,176 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PENDING tickets waiting for an agent, for {@link TicketService#claimNext()}: one lock-free
+ * {@link ConcurrentSkipListSet} per priority, oldest first. {@link #poll()} removes the first entry of
+ * the highest non-empty priority with a compare-and-set, so concurrent claimers each get a different
+ * ticket without waiting on one another.
+ * <p>
+ * The queue is a hint; the database decides. A claim only succeeds when its conditional update still
+ * finds the ticket PENDING, so an entry that went stale (a ticket moved on by another node) is dropped
+ * when it comes up. Filled from {@code support_ticket} at startup; every {@code reconcile-interval} it
+ * adds what other nodes created since the previous pass, and every {@code full-reconcile-interval} it
+ * reads all PENDING tickets again for those other nodes moved back to PENDING. Between those,
+ * {@link TicketService} reports creates and status changes. Entries are counted in the
+ * {@code tickets.dispatch.pending} gauge by priority.
+ */
+@Component
+public class TicketDispatchQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketDispatchQueue.class);
+    private static final Priority[] CLAIM_ORDER = {Priority.HIGH, Priority.MEDIUM, Priority.LOW};
+    private static final Comparator<Entry> OLDEST_FIRST =
+            Comparator.comparingLong(Entry::createdAtMillis).thenComparing(Entry::ticketId);
+
+    private static final String PENDING_SQL = "select id, priority, created_at from support_ticket where status = ?";
+    private static final String PENDING_SINCE_SQL = PENDING_SQL + " and created_at > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long overlapMillis;
+    private final long fullIntervalNanos;
+    private long watermarkMillis = Long.MIN_VALUE;
+    private long nextFullNanos;
+    @SuppressWarnings("unchecked")
+    private final ConcurrentSkipListSet<Entry>[] queues = new ConcurrentSkipListSet[Priority.values().length];
+
+    public TicketDispatchQueue(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                               @Value("${tickets.dispatch.reconcile-overlap:PT1M}") Duration overlap,
+                               @Value("${tickets.dispatch.full-reconcile-interval:PT1H}") Duration fullInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.overlapMillis = overlap.toMillis();
+        this.fullIntervalNanos = fullInterval.toNanos();
+        for (Priority priority : Priority.values()) {
+            ConcurrentSkipListSet<Entry> queue = new ConcurrentSkipListSet<>(OLDEST_FIRST);
+            queues[priority.ordinal()] = queue;
+            Gauge.builder("tickets.dispatch.pending", queue, ConcurrentSkipListSet::size)
+                    .description("Tickets waiting in the dispatch queue")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Takes the oldest ticket of the highest priority that has one; null when the queue is empty.
+     */
+    public Entry poll() {
+        for (Priority priority : CLAIM_ORDER) {
+            Entry entry = queues[priority.ordinal()].pollFirst();
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    public void ticketCreated(SupportTicket ticket) {
+        if (TicketStatus.PENDING.name().equals(ticket.getStatus())) {
+            add(ticket);
+        }
+    }
+
+    public void statusChanged(SupportTicket ticket, TicketStatus previous) {
+        boolean pending = TicketStatus.PENDING.name().equals(ticket.getStatus());
+        if (pending && previous != TicketStatus.PENDING) {
+            add(ticket);
+        } else if (!pending && previous == TicketStatus.PENDING) {
+            queues[ticket.getPriority().ordinal()].remove(entry(ticket));
+        }
+    }
+
+    /**
+     * Hands an entry back after its claim failed for a reason other than the ticket having moved on.
+     */
+    public void putBack(Entry entry) {
+        queues[entry.priority().ordinal()].add(entry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcileAll();
+    }
+
+    /**
+     * Adds the PENDING tickets created since the newest one the previous pass read, less
+     * {@code reconcile-overlap} for creates that committed after a later one, over
+     * {@code idx_support_ticket_status_created}; a full pass instead when one is due. Entries are only
+     * added, never swapped out, so creates reported while it runs are kept; a ticket claimed meanwhile may
+     * come back, and its claim then fails on the status check.
+     */
+    @Scheduled(fixedDelayString = "${tickets.dispatch.reconcile-interval:PT1M}",
+            initialDelayString = "${tickets.dispatch.reconcile-interval:PT1M}")
+    public synchronized void reconcile() {
+        if (watermarkMillis == Long.MIN_VALUE || System.nanoTime() - nextFullNanos >= 0) {
+            reconcileAll();
+        } else {
+            read("incremental", PENDING_SINCE_SQL, TicketStatus.PENDING.name(),
+                    new Timestamp(watermarkMillis - overlapMillis));
+        }
+    }
+
+    /**
+     * Adds every PENDING ticket of the table that is missing, including those created long ago and moved
+     * back to PENDING on another node.
+     */
+    public synchronized void reconcileAll() {
+        nextFullNanos = System.nanoTime() + fullIntervalNanos;
+        read("full", PENDING_SQL, TicketStatus.PENDING.name());
+    }
+
+    private void read(String pass, String sql, Object... args) {
+        long startNanos = System.nanoTime();
+        int[] added = {0};
+        long[] newest = {watermarkMillis};
+        jdbcTemplate.query(sql, rs -> {
+            Priority priority = Priority.valueOf(rs.getString(2));
+            long createdAtMillis = rs.getTimestamp(3).getTime();
+            newest[0] = Math.max(newest[0], createdAtMillis);
+            if (queues[priority.ordinal()].add(new Entry(rs.getObject(1, UUID.class), priority, createdAtMillis))) {
+                added[0]++;
+            }
+        }, args);
+        watermarkMillis = newest[0];
+        if (added[0] > 0) {
+            log.info("dispatch_queue_reconciled pass={} added={} durationMs={}", pass, added[0],
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (ConcurrentSkipListSet<Entry> queue : queues) {
+            size += queue.size();
+        }
+        return size;
+    }
+
+    private void add(SupportTicket ticket) {
+        queues[ticket.getPriority().ordinal()].add(entry(ticket));
+    }
+
+    private static Entry entry(SupportTicket ticket) {
+        return new Entry(ticket.getId(), ticket.getPriority(), ticket.getCreatedAt().toEpochMilli());
+    }
+
+    public record Entry(UUID ticketId, Priority priority, long createdAtMillis) {}
+}
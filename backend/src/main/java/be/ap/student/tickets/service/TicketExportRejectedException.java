@@ -0,0 +1,11 @@
+package be.ap.student.tickets.service;
+
+/**
+ * Thrown when every export slot is taken and another export cannot be started.
+ */
+public class TicketExportRejectedException extends RuntimeException {
+
+    public TicketExportRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,219 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.dto.TicketSearchCriteria;
+import be.ap.student.tickets.dto.TicketSummary;
+import be.ap.student.tickets.repo.TicketSearchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes every ticket matching a search as NDJSON or CSV, for {@code GET /api/tickets/export}.
+ * <p>
+ * Rows are read from {@link TicketSearchRepository#scan} and written as they arrive, so an export of
+ * the whole table needs no more heap than one of a single ticket. NDJSON lines are the
+ * {@link TicketSummary} JSON of the search API; CSV has the same columns under a header row, quoted
+ * per RFC 4180, with cells that a spreadsheet would run as a formula prefixed by {@code '}. Exported
+ * rows are counted in {@code tickets.export.rows} by format.
+ * <p>
+ * An export holds a database connection for as long as it streams, so at most {@code max-concurrent}
+ * run at once; callers {@link #acquire()} a slot before starting one and {@link #release()} it after.
+ */
+@Service
+public class TicketExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketExportService.class);
+    private static final String CSV_HEADER = "id,ticketNumber,subject,priority,status,createdAt\r\n";
+
+    private final TicketSearchRepository searchRepository;
+    private final ObjectWriter ndjsonWriter;
+    private final int fetchSize;
+    private final Semaphore slots;
+    private final Map<Format, Counter> exported = new EnumMap<>(Format.class);
+
+    public TicketExportService(TicketSearchRepository searchRepository, JsonMapper jsonMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${tickets.export.fetch-size:1000}") int fetchSize,
+                               @Value("${tickets.export.max-concurrent:4}") int maxConcurrent) {
+        this.searchRepository = searchRepository;
+        this.slots = new Semaphore(maxConcurrent);
+        // Lines are ended by hand; the default separator would put a space before every line but the first.
+        this.ndjsonWriter = jsonMapper.writerFor(TicketSummary.class).withRootValueSeparator("");
+        this.fetchSize = fetchSize;
+        for (Format format : Format.values()) {
+            exported.put(format, Counter.builder("tickets.export.rows")
+                    .description("Tickets written by exports")
+                    .tag("format", format.extension())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("tickets.export.active", slots, s -> maxConcurrent - s.availablePermits())
+                .description("Exports streaming right now")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one of the {@code max-concurrent} export slots without waiting.
+     *
+     * @throws TicketExportRejectedException when every slot is taken
+     */
+    public void acquire() {
+        if (!slots.tryAcquire()) {
+            throw new TicketExportRejectedException("Too many exports in progress");
+        }
+    }
+
+    /**
+     * Gives back a slot taken by {@link #acquire()}.
+     */
+    public void release() {
+        slots.release();
+    }
+
+    /**
+     * Writes the export to {@code out} and returns the number of tickets; {@code out} is flushed, not closed.
+     */
+    public long export(TicketSearchCriteria criteria, Format format, OutputStream out) throws IOException {
+        long startNanos = System.nanoTime();
+        long rows;
+        try {
+            rows = format == Format.CSV ? writeCsv(criteria, out) : writeNdjson(criteria, out);
+        } catch (UncheckedIOException e) {
+            // Usually the client going away mid-export.
+            throw e.getCause();
+        }
+        exported.get(format).increment(rows);
+        log.info("ticket_export_finished format={} rows={} durationMs={}", format.extension(), rows,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return rows;
+    }
+
+    private long writeNdjson(TicketSearchCriteria criteria, OutputStream out) {
+        try (JsonGenerator generator = ndjsonWriter.createGenerator(new NonClosingOutputStream(out))) {
+            long rows = searchRepository.scan(criteria, fetchSize, ticket -> {
+                ndjsonWriter.writeValue(generator, ticket);
+                generator.writeRaw('\n');
+            });
+            generator.flush();
+            return rows;
+        }
+    }
+
+    private long writeCsv(TicketSearchCriteria criteria, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16384);
+        writer.write(CSV_HEADER);
+        long rows = searchRepository.scan(criteria, fetchSize, ticket -> {
+            try {
+                writer.write(ticket.id().toString());
+                writer.write(',');
+                writeCsvCell(writer, ticket.ticketNumber());
+                writer.write(',');
+                writeCsvCell(writer, ticket.subject());
+                writer.write(',');
+                writer.write(ticket.priority().name());
+                writer.write(',');
+                writer.write(ticket.status().name());
+                writer.write(',');
+                writer.write(ticket.createdAt().toString());
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+        return rows;
+    }
+
+    static void writeCsvCell(Writer writer, String value) throws IOException {
+        boolean formula = !value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0;
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    public enum Format {
+        NDJSON("ndjson", "application/x-ndjson"),
+        CSV("csv", "text/csv");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public static Format of(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("format must be one of ndjson, csv");
+        }
+    }
+
+    /**
+     * Lets the generator be closed, releasing its buffers, without closing the response stream.
+     */
+    private static final class NonClosingOutputStream extends java.io.FilterOutputStream {
+
+        private NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.event.TicketEvent;
+import be.ap.student.tickets.event.TicketEventOutbox;
+import be.ap.student.tickets.repo.SupportTicketBatchWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Optional write-behind ingestion mode for ticket creation ({@code tickets.ingestion.mode=batched}).
+ * <p>
+ * Tickets (with their ticket number already assigned) are put on a bounded queue. A single writer
+ * thread drains the queue into batches of up to {@code batch-size} tickets, or whatever arrived within
+ * {@code max-wait} of the first one, and inserts each batch with JDBC batch statements in one
+ * transaction, together with the tickets' outbox events. Callers block until the batch containing their
+ * ticket has committed (group commit). A ticket still queued after {@code commit-timeout} is taken out
+ * again; once the writer has it, its batch may commit at any moment, so the caller waits for the outcome
+ * rather than answering for a ticket that could still be stored.
+ * A full queue, a stopped pipeline or a ticket that was not picked up in time is reported with
+ * {@link TicketIngestionRejectedException}; the ticket was not stored then, so the request can be retried.
+ */
+@Component
+public class TicketIngestionPipeline implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketIngestionPipeline.class);
+
+    private final SupportTicketBatchWriter batchWriter;
+    private final TicketEventOutbox eventOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxWaitNanos;
+    private final long commitTimeoutNanos;
+    private final BlockingQueue<PendingTicket> queue;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public TicketIngestionPipeline(SupportTicketBatchWriter batchWriter, TicketEventOutbox eventOutbox,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${tickets.ingestion.mode:direct}") String mode,
+                                   @Value("${tickets.ingestion.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${tickets.ingestion.batch-size:200}") int batchSize,
+                                   @Value("${tickets.ingestion.max-wait:PT0.005S}") Duration maxWait,
+                                   @Value("${tickets.ingestion.commit-timeout:PT10S}") Duration commitTimeout) {
+        this.batchWriter = batchWriter;
+        this.eventOutbox = eventOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = "batched".equalsIgnoreCase(mode);
+        this.batchSize = batchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.commitTimeoutNanos = commitTimeout.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enqueues the ticket and its creation event and waits until both have been committed as part of a batch.
+     */
+    public SupportTicket submit(SupportTicket ticket, TicketEvent createdEvent) {
+        if (!running) {
+            throw new TicketIngestionRejectedException("Ticket ingestion is not running");
+        }
+        PendingTicket pending = new PendingTicket(ticket, createdEvent, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            throw new TicketIngestionRejectedException("Ticket ingestion queue is full");
+        }
+        // stop() may have drained the queue between the running check and the offer; if the entry is
+        // still queued nobody will pick it up, otherwise the writer or stop() completes it.
+        if (!running && queue.remove(pending)) {
+            throw new TicketIngestionRejectedException("Ticket ingestion is not running");
+        }
+        try {
+            try {
+                return pending.committed().get(commitTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (queue.remove(pending)) {
+                    throw new TicketIngestionRejectedException(
+                            "Ticket " + ticket.getTicketNumber() + " was not committed in time");
+                }
+                return pending.committed().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for ticket " + ticket.getTicketNumber(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Failed to store ticket " + ticket.getTicketNumber(), e.getCause());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("ticket-ingestion").daemon().start(this::drainLoop);
+    }
+
+    @Override
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingTicket> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        leftovers.forEach(p -> p.committed().completeExceptionally(
+                new TicketIngestionRejectedException("Ticket ingestion is shutting down")));
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the embedded web server, so in-flight requests can still commit.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 4096;
+    }
+
+    private void drainLoop() {
+        List<PendingTicket> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collectBatch(List<PendingTicket> batch) throws InterruptedException {
+        PendingTicket first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingTicket next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingTicket> batch) {
+        List<SupportTicket> tickets = batch.stream().map(PendingTicket::ticket).toList();
+        List<TicketEvent> events = batch.stream().map(PendingTicket::createdEvent).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                batchWriter.insertAll(tickets);
+                eventOutbox.appendAll(events);
+            });
+            batch.forEach(p -> p.committed().complete(p.ticket()));
+        } catch (RuntimeException e) {
+            // One bad row rolls back the whole batch; retry row by row so the others still commit.
+            log.warn("ticket_batch_failed size={} reason={}", batch.size(), e.getMessage());
+            batch.forEach(this::flushSingle);
+        }
+    }
+
+    private void flushSingle(PendingTicket pending) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                batchWriter.insertAll(List.of(pending.ticket()));
+                eventOutbox.append(pending.createdEvent());
+            });
+            pending.committed().complete(pending.ticket());
+        } catch (RuntimeException e) {
+            pending.committed().completeExceptionally(e);
+        }
+    }
+
+    private record PendingTicket(SupportTicket ticket, TicketEvent createdEvent,
+                                 CompletableFuture<SupportTicket> committed) {}
+}
@@ -0,0 +1,11 @@
+package be.ap.student.tickets.service;
+
+/**
+ * Thrown when the batched ingestion queue is full and a create request cannot be accepted.
+ */
+public class TicketIngestionRejectedException extends RuntimeException {
+
+    public TicketIngestionRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,27 @@
+package be.ap.student.tickets.service;
+
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Thrown when no ticket has the requested id; answered with 404. The stack trace is not filled in:
+ * the cause is the request, and the lookup path is always the same.
+ */
+public class TicketNotFoundException extends NoSuchElementException {
+
+    private final UUID ticketId;
+
+    public TicketNotFoundException(UUID ticketId) {
+        super("Ticket with id " + ticketId + " not found");
+        this.ticketId = ticketId;
+    }
+
+    public UUID getTicketId() {
+        return ticketId;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -1,22 +1,197 @@
 package be.ap.student.tickets.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
 import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Generates ticket numbers in the BR-001 format {@code TCK-YYYY-000001}.
+ * <p>
+ * Sequence values are reserved from the database in blocks of {@link #BLOCK_SIZE}
+ * (pooled hi-lo allocation on a per-year sequence created with {@code increment by 50}),
+ * so only one in every {@code BLOCK_SIZE} calls needs a database round trip. Numbers
+ * within a block are handed out from a lock-free in-memory counter. Each calendar year
+ * has its own sequence, which restarts numbering at 1 as BR-001 requires. Batch creates take
+ * their numbers with {@link #nextTicketNumbers}, which reserves all the blocks it needs in one
+ * round trip.
+ * <p>
+ * Issued numbers are counted in {@code tickets.number.issued}; only the block refills, the one part
+ * that can be slow, are timed ({@code tickets.number.refill}), as timing the in-memory path would cost
+ * more than the path itself.
+ */
 @Component
 public class TicketNumberGenerator {
 
+    static final int BLOCK_SIZE = 50;
+    private static final String PREFIX = "TCK-";
+    private static final int NUMBER_WIDTH = 6;
+
     private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final AtomicReference<Block> current = new AtomicReference<>(Block.EXHAUSTED);
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private final Counter issued;
+    private final Timer refills;
+
+    @Autowired
+    public TicketNumberGenerator(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this(jdbcTemplate, meterRegistry, Clock.systemDefaultZone());
+    }
 
-    public TicketNumberGenerator(JdbcTemplate jdbcTemplate) {
+    TicketNumberGenerator(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry, Clock clock) {
         this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.issued = Counter.builder("tickets.number.issued").register(meterRegistry);
+        this.refills = Timer.builder("tickets.number.refill")
+                .description("Sequence block reservations")
+                .register(meterRegistry);
     }
 
     public String nextTicketNumber() {
-        Long seq = jdbcTemplate.queryForObject("select nextval('ticket_seq')", Long.class);
-        int year = Year.now().getValue();
-        return String.format("TCK-%d-%06d", year, seq);
+        int year = Year.now(clock).getValue();
+        while (true) {
+            Block block = current.get();
+            if (block.year == year) {
+                long value = block.next.getAndIncrement();
+                if (value <= block.last) {
+                    issued.increment();
+                    return format(year, value);
+                }
+            }
+            refill(block, year);
+        }
+    }
+
+    /**
+     * {@code count} ticket numbers, ascending. What is left of the current block is
+     * used first; the rest comes from fresh blocks reserved with a single query, and what is left of the
+     * last of those becomes the current block.
+     */
+    public List<String> nextTicketNumbers(int count) {
+        int year = Year.now(clock).getValue();
+        List<String> numbers = new ArrayList<>(count);
+        Block block = current.get();
+        if (block.year == year) {
+            take(block, count, numbers);
+        }
+        if (numbers.size() < count) {
+            refill(year, count, numbers);
+        }
+        issued.increment(count);
+        return numbers;
+    }
+
+    private static void take(Block block, int count, List<String> numbers) {
+        while (true) {
+            long first = block.next.get();
+            if (first > block.last) {
+                return;
+            }
+            long end = Math.min(block.last, first + count - 1);
+            if (block.next.compareAndSet(first, end + 1)) {
+                for (long value = first; value <= end; value++) {
+                    numbers.add(format(block.year, value));
+                }
+                return;
+            }
+        }
+    }
+
+    private void refill(int year, int count, List<String> numbers) {
+        int blocks = (count - numbers.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        refillLock.lock();
+        try {
+            Timer.Sample sample = Timer.start();
+            String sequence = sequenceName(year);
+            if (current.get().year != year) {
+                jdbcTemplate.execute("create sequence if not exists " + sequence
+                        + " start with 1 increment by " + BLOCK_SIZE);
+            }
+            List<Long> firsts = jdbcTemplate.queryForList(
+                    "select nextval('" + sequence + "') from system_range(1, ?)", Long.class, blocks);
+            if (firsts.size() != blocks) {
+                throw new IllegalStateException("Sequence " + sequence + " returned " + firsts.size() + " values");
+            }
+            firsts.sort(null);
+            Block last = null;
+            for (Long first : firsts) {
+                last = new Block(year, first, first + BLOCK_SIZE - 1);
+                take(last, count - numbers.size(), numbers);
+            }
+            // Keep the remainder unless another caller already installed a block with numbers left.
+            Block previous = current.get();
+            if (previous.year != year || previous.next.get() > previous.last) {
+                current.set(last);
+            }
+            sample.stop(refills);
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the exhausted (or previous-year) block. Only one thread goes to the database;
+     * threads that raced on the same block find it already replaced and retry the counter.
+     */
+    private void refill(Block exhausted, int year) {
+        refillLock.lock();
+        try {
+            if (current.get() != exhausted) {
+                return;
+            }
+            Timer.Sample sample = Timer.start();
+            String sequence = sequenceName(year);
+            if (exhausted.year != year) {
+                jdbcTemplate.execute("create sequence if not exists " + sequence
+                        + " start with 1 increment by " + BLOCK_SIZE);
+            }
+            Long first = jdbcTemplate.queryForObject("select nextval('" + sequence + "')", Long.class);
+            if (first == null) {
+                throw new IllegalStateException("Sequence " + sequence + " returned no value");
+            }
+            current.set(new Block(year, first, first + BLOCK_SIZE - 1));
+            sample.stop(refills);
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    static String sequenceName(int year) {
+        return "ticket_seq_" + year;
+    }
+
+    static String format(int year, long number) {
+        String digits = Long.toString(number);
+        StringBuilder sb = new StringBuilder(PREFIX.length() + 5 + Math.max(NUMBER_WIDTH, digits.length()));
+        sb.append(PREFIX).append(year).append('-');
+        for (int i = digits.length(); i < NUMBER_WIDTH; i++) {
+            sb.append('0');
+        }
+        return sb.append(digits).toString();
+    }
+
+    private static final class Block {
+        static final Block EXHAUSTED = new Block(Integer.MIN_VALUE, 1, 0);
+
+        final int year;
+        final AtomicLong next;
+        final long last;
+
+        Block(int year, long first, long last) {
+            this.year = year;
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
     }
-}
\ No newline at end of file
+}
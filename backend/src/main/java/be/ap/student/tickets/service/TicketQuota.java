@@ -0,0 +1,231 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.domain.Priority;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The feature-001 creation limits: a user creates at most {@code max-tickets} tickets, of which at most
+ * {@code max-high-priority} HIGH, in any sliding {@code window} (a day by default).
+ * <p>
+ * Each user has the creation times inside the window in an immutable state swapped by compare-and-set,
+ * so {@link #reserve} checks and takes a slot in one atomic step and concurrent creates from one user
+ * cannot overshoot; different users never contend. A user not in memory is loaded with one query over
+ * {@code idx_support_ticket_user_created}. Users are held in a Caffeine cache bounded by
+ * {@code max-users} and dropped after a window without creates, when nothing they hold still counts,
+ * so idle eviction loses nothing. The cache is published as the {@code cache.*} metrics with
+ * {@code cache=ticket-quota}.
+ * <p>
+ * The limits are kept per node, like the {@link TicketCache}. A user pushed out by the size bound while
+ * a create is still uncommitted is reloaded without it, so {@code max-users} should cover the users
+ * active within a window.
+ * <p>
+ * The limits are meant for people. Integrations (monitoring, imports) create all their tickets under
+ * one service user id, mostly through the batch endpoint, and would be stopped after the third; the
+ * user ids in {@code exempt-users} are therefore not limited, in single and batch creates alike. Every
+ * other user is limited the same way in both, each batch item taking one slot.
+ */
+@Component
+public class TicketQuota {
+
+    static final String NAME = "ticket-quota";
+
+    private static final Logger log = LoggerFactory.getLogger(TicketQuota.class);
+    private static final long[] NONE = {};
+    private static final Reservation EXEMPT = new Reservation(null, 0, false);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final long windowMillis;
+    private final int maxTickets;
+    private final int maxHighPriority;
+    private final Set<String> exemptUsers;
+    private final String ticketsMessage;
+    private final String highPriorityMessage;
+    private final LoadingCache<String, UserWindow> users;
+
+    @Autowired
+    public TicketQuota(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                       @Value("${tickets.quota.window:P1D}") Duration window,
+                       @Value("${tickets.quota.max-tickets:3}") int maxTickets,
+                       @Value("${tickets.quota.max-high-priority:2}") int maxHighPriority,
+                       @Value("${tickets.quota.max-users:100000}") long maxUsers,
+                       @Value("${tickets.quota.exempt-users:}") List<String> exemptUsers) {
+        this(jdbcTemplate, meterRegistry, window, maxTickets, maxHighPriority, maxUsers, exemptUsers,
+                Clock.systemUTC());
+    }
+
+    TicketQuota(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry, Duration window, int maxTickets,
+                int maxHighPriority, long maxUsers, List<String> exemptUsers, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.windowMillis = window.toMillis();
+        this.maxTickets = maxTickets;
+        this.maxHighPriority = maxHighPriority;
+        this.exemptUsers = Set.copyOf(exemptUsers);
+        this.ticketsMessage = "A user can create at most " + maxTickets + " tickets per " + describe(window);
+        this.highPriorityMessage = "A user can create at most " + maxHighPriority + " HIGH priority tickets per "
+                + describe(window);
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(window)
+                .ticker(() -> clock.millis() * 1_000_000)
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, users, NAME);
+    }
+
+    /**
+     * Takes a slot for a ticket of {@code priority} by {@code userId}; hand it back with {@link #release}
+     * when the ticket is not stored after all.
+     *
+     * @throws TicketQuotaExceededException when the user is at one of the limits
+     */
+    Reservation reserve(String userId, Priority priority) {
+        if (exemptUsers.contains(userId)) {
+            return EXEMPT;
+        }
+        UserWindow user = users.get(userId);
+        boolean high = priority == Priority.HIGH;
+        long now = clock.millis();
+        long from = now - windowMillis;
+        while (true) {
+            State current = user.state.get();
+            long[] all = since(current.all(), from);
+            long[] highs = since(current.high(), from);
+            if (all.length >= maxTickets) {
+                throw exceeded(userId, TicketQuotaExceededException.Limit.TICKETS, ticketsMessage, all[0], now);
+            }
+            if (high && highs.length >= maxHighPriority) {
+                throw exceeded(userId, TicketQuotaExceededException.Limit.HIGH_PRIORITY_TICKETS, highPriorityMessage,
+                        highs[0], now);
+            }
+            State next = new State(append(all, now), high ? append(highs, now) : highs);
+            if (user.state.compareAndSet(current, next)) {
+                return new Reservation(user, now, high);
+            }
+        }
+    }
+
+    void release(Reservation reservation) {
+        if (reservation == EXEMPT) {
+            return;
+        }
+        AtomicReference<State> state = reservation.user().state;
+        while (true) {
+            State current = state.get();
+            State next = new State(remove(current.all(), reservation.createdAtMillis()),
+                    reservation.high() ? remove(current.high(), reservation.createdAtMillis()) : current.high());
+            if (state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    void invalidateAll() {
+        users.invalidateAll();
+    }
+
+    long estimatedSize() {
+        users.cleanUp();
+        return users.estimatedSize();
+    }
+
+    private UserWindow load(String userId) {
+        long from = clock.millis() - windowMillis;
+        long[][] times = {NONE, NONE};
+        jdbcTemplate.query("select priority, created_at from support_ticket where user_id = ? and created_at > ?"
+                        + " order by created_at",
+                rs -> {
+                    long createdAt = rs.getTimestamp(2).getTime();
+                    times[0] = append(times[0], createdAt);
+                    if (Priority.HIGH.name().equals(rs.getString(1))) {
+                        times[1] = append(times[1], createdAt);
+                    }
+                },
+                userId, new Timestamp(from));
+        return new UserWindow(new State(times[0], times[1]));
+    }
+
+    private TicketQuotaExceededException exceeded(String userId, TicketQuotaExceededException.Limit limit,
+                                                  String message, long oldestMillis, long now) {
+        Duration retryAfter = Duration.ofMillis(oldestMillis + windowMillis - now);
+        log.warn("ticket_quota_exceeded userId={} limit={} retryAfter={}", userId, limit, retryAfter);
+        return new TicketQuotaExceededException(limit, message, retryAfter);
+    }
+
+    // Times are ascending, so the ones still in the window are a suffix.
+    private static long[] since(long[] times, long from) {
+        int first = 0;
+        while (first < times.length && times[first] <= from) {
+            first++;
+        }
+        return first == 0 ? times : Arrays.copyOfRange(times, first, times.length);
+    }
+
+    private static long[] append(long[] times, long time) {
+        long[] next = Arrays.copyOf(times, times.length + 1);
+        next[times.length] = time;
+        // A reload can race a reservation made with a slightly earlier clock reading.
+        for (int i = times.length; i > 0 && next[i - 1] > next[i]; i--) {
+            long swap = next[i - 1];
+            next[i - 1] = next[i];
+            next[i] = swap;
+        }
+        return next;
+    }
+
+    private static long[] remove(long[] times, long time) {
+        for (int i = 0; i < times.length; i++) {
+            if (times[i] == time) {
+                long[] next = new long[times.length - 1];
+                System.arraycopy(times, 0, next, 0, i);
+                System.arraycopy(times, i + 1, next, i, times.length - i - 1);
+                return next;
+            }
+        }
+        return times;
+    }
+
+    private static String describe(Duration window) {
+        if (window.equals(Duration.ofDays(1))) {
+            return "day";
+        }
+        return window.toMinutes() % 60 == 0 ? window.toHours() + " hours" : window.toMinutes() + " minutes";
+    }
+
+    /**
+     * A slot taken by {@link #reserve}; {@link #EXEMPT} for users without limits.
+     */
+    record Reservation(UserWindow user, long createdAtMillis, boolean high) {}
+
+    /**
+     * A user's creation times in the window, oldest first.
+     */
+    private record State(long[] all, long[] high) {}
+
+    private static final class UserWindow {
+
+        private final AtomicReference<State> state;
+
+        private UserWindow(State state) {
+            this.state = new AtomicReference<>(state);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package be.ap.student.tickets.service;
+
+import java.time.Duration;
+
+/**
+ * A user reached one of the {@link TicketQuota} limits; answered with 429 and a {@code Retry-After} of
+ * the time until the oldest ticket counting against the limit leaves the window. Rejections are expected
+ * traffic, so no stack trace is filled in.
+ */
+public class TicketQuotaExceededException extends RuntimeException {
+
+    private final Limit limit;
+    private final Duration retryAfter;
+
+    public TicketQuotaExceededException(Limit limit, String message, Duration retryAfter) {
+        super(message, null, false, false);
+        this.limit = limit;
+        this.retryAfter = retryAfter;
+    }
+
+    public Limit getLimit() {
+        return limit;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * {@link #getRetryAfter()} rounded up to whole seconds, at least one, as {@code Retry-After} takes it.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    public enum Limit {
+        TICKETS("TICKET_LIMIT_EXCEEDED"),
+        HIGH_PRIORITY_TICKETS("HIGH_PRIORITY_LIMIT_EXCEEDED");
+
+        private final String code;
+
+        Limit(String code) {
+            this.code = code;
+        }
+
+        public String code() {
+            return code;
+        }
+    }
+}
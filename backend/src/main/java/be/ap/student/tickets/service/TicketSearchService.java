@@ -0,0 +1,38 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.dto.TicketSearchCriteria;
+import be.ap.student.tickets.dto.TicketSearchCursor;
+import be.ap.student.tickets.dto.TicketSearchPage;
+import be.ap.student.tickets.dto.TicketSummary;
+import be.ap.student.tickets.repo.TicketSearchRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class TicketSearchService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final TicketSearchRepository searchRepository;
+
+    public TicketSearchService(TicketSearchRepository searchRepository) {
+        this.searchRepository = searchRepository;
+    }
+
+    public TicketSearchPage search(TicketSearchCriteria criteria, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        TicketSearchCursor after = cursor == null || cursor.isBlank() ? null : TicketSearchCursor.decode(cursor);
+
+        // Fetch one extra row to learn whether another page exists without a count query.
+        List<TicketSummary> rows = searchRepository.search(criteria, after, limit + 1);
+        if (rows.size() <= limit) {
+            return new TicketSearchPage(rows, null);
+        }
+        List<TicketSummary> page = rows.subList(0, limit);
+        return new TicketSearchPage(List.copyOf(page), TicketSearchCursor.of(page.get(limit - 1)).encode());
+    }
+}
@@ -1,66 +1,340 @@
 package be.ap.student.tickets.service;
 
+import be.ap.student.common.api.RequestValidationException;
+import be.ap.student.common.id.UuidV7Generator;
 import be.ap.student.tickets.domain.Priority;
 import be.ap.student.tickets.domain.SupportTicket;
 import be.ap.student.tickets.domain.TicketStatus;
 import be.ap.student.tickets.dto.CreateTicketRequest;
+import be.ap.student.tickets.dto.CreateTicketRequestValidator;
+import be.ap.student.tickets.dto.TicketSummary;
+import be.ap.student.tickets.event.TicketCreatedEvent;
+import be.ap.student.tickets.event.TicketEventOutbox;
+import be.ap.student.tickets.event.TicketStatusChangedEvent;
+import be.ap.student.tickets.repo.SupportTicketBatchWriter;
 import be.ap.student.tickets.repo.SupportTicketRepository;
+import be.ap.student.tickets.repo.TicketSearchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
-import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static be.ap.student.common.web.CorrelationIdFilter.MDC_KEY;
 
 @Service
 public class TicketService {
 
+    static final String TIMER = "tickets.service";
+
     private static final Logger log = LoggerFactory.getLogger(TicketService.class);
 
     private final SupportTicketRepository repository;
+    private final SupportTicketBatchWriter batchWriter;
+    private final TicketSearchRepository searchRepository;
     private final TicketNumberGenerator ticketNumberGenerator;
+    private final OpenTicketGauge openTicketGauge;
+    private final TicketIngestionPipeline ingestionPipeline;
+    private final DashboardStatsService dashboardStats;
+    private final TicketEventOutbox eventOutbox;
+    private final TicketCache ticketCache;
+    private final SlaEscalationScheduler slaScheduler;
+    private final TicketDispatchQueue dispatchQueue;
+    private final TicketQuota quota;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
 
-    public TicketService(SupportTicketRepository repository, TicketNumberGenerator ticketNumberGenerator) {
+    public TicketService(SupportTicketRepository repository, SupportTicketBatchWriter batchWriter,
+                         TicketSearchRepository searchRepository,
+                         TicketNumberGenerator ticketNumberGenerator, OpenTicketGauge openTicketGauge,
+                         TicketIngestionPipeline ingestionPipeline, DashboardStatsService dashboardStats,
+                         TicketEventOutbox eventOutbox, TicketCache ticketCache,
+                         SlaEscalationScheduler slaScheduler, TicketDispatchQueue dispatchQueue, TicketQuota quota,
+                         PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
         this.repository = repository;
+        this.batchWriter = batchWriter;
+        this.searchRepository = searchRepository;
         this.ticketNumberGenerator = ticketNumberGenerator;
+        this.openTicketGauge = openTicketGauge;
+        this.ingestionPipeline = ingestionPipeline;
+        this.dashboardStats = dashboardStats;
+        this.eventOutbox = eventOutbox;
+        this.ticketCache = ticketCache;
+        this.slaScheduler = slaScheduler;
+        this.dispatchQueue = dispatchQueue;
+        this.quota = quota;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
     }
 
     public Optional<SupportTicket> create(CreateTicketRequest req) {
-        Priority priority;
+        return timed("create", () -> createTicket(req));
+    }
+
+    /**
+     * Creates every ticket of a batch that is valid and within the user's quota, checked in request order,
+     * each item taking one quota slot unless its user is one of {@code tickets.quota.exempt-users} (see
+     * {@link TicketQuota}), and stores them together: the numbers come from one {@link TicketNumberGenerator#nextTicketNumbers}
+     * call, and the rows and their outbox events are written with JDBC batches in one transaction. The
+     * result has one entry per request, in order, holding either the stored ticket or the exception that
+     * rejected it. When the write or a quota lookup fails nothing is stored, every quota slot taken is given
+     * back and the exception is thrown.
+     */
+    public List<BatchResult> createAll(List<CreateTicketRequest> requests) {
+        return timed("createAll", () -> createTickets(requests));
+    }
+
+    private List<BatchResult> createTickets(List<CreateTicketRequest> requests) {
+        int size = requests.size();
+        RuntimeException[] rejections = new RuntimeException[size];
+        TicketQuota.Reservation[] reservations = new TicketQuota.Reservation[size];
+        List<Integer> accepted = new ArrayList<>(size);
+        SupportTicket[] stored = new SupportTicket[size];
+        // Any failure before the commit (a quota load, the write) stores nothing: give back every slot taken.
         try {
-            priority = Priority.valueOf(req.getPriority());
+            for (int i = 0; i < size; i++) {
+                CreateTicketRequest req = requests.get(i);
+                try {
+                    CreateTicketRequestValidator.validate(req);
+                    reservations[i] = quota.reserve(req.getUserId(), parsePriority(req));
+                    accepted.add(i);
+                } catch (RequestValidationException | TicketValidationException | TicketQuotaExceededException e) {
+                    rejections[i] = e;
+                }
+            }
+            if (!accepted.isEmpty()) {
+                storeAll(requests, accepted, stored);
+            }
+        } catch (RuntimeException e) {
+            for (TicketQuota.Reservation reservation : reservations) {
+                if (reservation != null) {
+                    quota.release(reservation);
+                }
+            }
+            throw e;
+        }
+
+        List<BatchResult> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (stored[i] != null) {
+                ticketCreated(stored[i]);
+            }
+            results.add(new BatchResult(stored[i], rejections[i]));
+        }
+        log.info("ticket_batch_created requested={} created={} rejected={} correlationId={} openTickets={}",
+                size, accepted.size(), size - accepted.size(), MDC.get(MDC_KEY), openTicketGauge.get());
+        return results;
+    }
+
+    private void storeAll(List<CreateTicketRequest> requests, List<Integer> accepted, SupportTicket[] stored) {
+        List<String> ticketNumbers = ticketNumberGenerator.nextTicketNumbers(accepted.size());
+        Instant now = Instant.now();
+        String correlationId = MDC.get(MDC_KEY);
+        List<SupportTicket> tickets = new ArrayList<>(accepted.size());
+        List<TicketCreatedEvent> events = new ArrayList<>(accepted.size());
+        for (int j = 0; j < accepted.size(); j++) {
+            int i = accepted.get(j);
+            CreateTicketRequest req = requests.get(i);
+            SupportTicket ticket = new SupportTicket(ticketNumbers.get(j), UuidV7Generator.next(), req.getSubject(),
+                    req.getDescription(), Priority.valueOf(req.getPriority()), TicketStatus.PENDING, now,
+                    req.getUserId());
+            tickets.add(ticket);
+            events.add(TicketCreatedEvent.of(ticket, req.getUserId(), correlationId));
+            stored[i] = ticket;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            batchWriter.insertAll(tickets);
+            eventOutbox.appendAll(events);
+        });
+    }
+
+    private Optional<SupportTicket> createTicket(CreateTicketRequest req) {
+        Priority priority = parsePriority(req);
+
+        TicketQuota.Reservation reservation = quota.reserve(req.getUserId(), priority);
+        SupportTicket saved;
+        try {
+            saved = store(req, priority);
+        } catch (RuntimeException e) {
+            quota.release(reservation);
+            throw e;
+        }
+        ticketCreated(saved);
+        log.info("ticket_created ticketNumber={} priority={} correlationId={} openTickets={}",
+                saved.getTicketNumber(), saved.getPriority(), MDC.get(MDC_KEY), openTicketGauge.get());
+        return Optional.ofNullable(saved);
+    }
+
+    private static Priority parsePriority(CreateTicketRequest req) {
+        try {
+            return Priority.valueOf(req.getPriority());
         } catch (Exception e) {
-            throw new IllegalArgumentException("priority must be one of LOW, MEDIUM, HIGH");
+            throw TicketValidationException.INVALID_PRIORITY;
         }
+    }
 
+    /**
+     * Reports a committed ticket to the in-memory views; replaces a cached "not found" for its id.
+     */
+    private void ticketCreated(SupportTicket saved) {
+        ticketCache.put(TicketSummary.of(saved));
+        openTicketGauge.ticketCreated(TicketStatus.PENDING);
+        dashboardStats.ticketCreated(saved);
+        slaScheduler.ticketCreated(saved);
+        dispatchQueue.ticketCreated(saved);
+    }
+
+    private SupportTicket store(CreateTicketRequest req, Priority priority) {
         String ticketNumber = ticketNumberGenerator.nextTicketNumber();
         SupportTicket ticket = new SupportTicket(
                 ticketNumber,
-                UUID.fromString(req.getUserId()),
+                UuidV7Generator.next(),
                 req.getSubject(),
                 req.getDescription(),
                 priority,
                 TicketStatus.PENDING,
-                Instant.now()
+                Instant.now(),
+                req.getUserId()
         );
 
-        SupportTicket saved = repository.save(ticket);
-        // SonarQube: Invoke method(s) only conditionally. (java:S2629)
-        if (log.isInfoEnabled()) {
-            long openCount = repository.countByStatus(TicketStatus.PENDING);
-            log.info("ticket_created ticketNumber={} priority={} correlationId={} openTickets={}",
-                    saved.getTicketNumber(), saved.getPriority(), MDC.get(MDC_KEY), openCount);
+        // The event is stored in the ticket's transaction and published later by the OutboxRelay.
+        TicketCreatedEvent event = TicketCreatedEvent.of(ticket, req.getUserId(), MDC.get(MDC_KEY));
+        return ingestionPipeline.isEnabled()
+                ? ingestionPipeline.submit(ticket, event)
+                : transactionTemplate.execute(status -> {
+                    SupportTicket stored = repository.save(ticket);
+                    eventOutbox.append(event);
+                    return stored;
+                });
+    }
+
+    @Transactional
+    public SupportTicket changeStatus(UUID id, TicketStatus status) {
+        SupportTicket ticket = findById(id);
+        TicketStatus previous = ticket.changeStatus(status);
+        if (previous != status) {
+            eventOutbox.append(TicketStatusChangedEvent.of(ticket, previous, Instant.now(), MDC.get(MDC_KEY)));
         }
-        return Optional.ofNullable(saved);
+        slaScheduler.reopening(ticket, previous);
+        TicketSummary summary = TicketSummary.of(ticket);
+        afterCommit(() -> {
+            openTicketGauge.statusChanged(previous, status);
+            dashboardStats.statusChanged(ticket, previous);
+            slaScheduler.statusChanged(ticket, previous);
+            dispatchQueue.statusChanged(ticket, previous);
+            ticketCache.put(summary);
+        });
+        return ticket;
+    }
+
+    /**
+     * Moves the oldest PENDING ticket of the highest priority to IN_PROGRESS for the calling agent;
+     * empty when nothing is waiting. Candidates come from the {@link TicketDispatchQueue}, so concurrent
+     * agents try different tickets instead of queueing on the same row, and the conditional update
+     * decides: an agent on this node or another that loses the race gets 0 rows and moves on to the
+     * next candidate, so a ticket is never handed out twice.
+     */
+    public Optional<SupportTicket> claimNext() {
+        return timed("claimNext", this::claim);
+    }
+
+    private Optional<SupportTicket> claim() {
+        TicketDispatchQueue.Entry entry;
+        while ((entry = dispatchQueue.poll()) != null) {
+            UUID id = entry.ticketId();
+            SupportTicket claimed;
+            try {
+                claimed = transactionTemplate.execute(status -> {
+                    if (repository.changeStatusIf(id, TicketStatus.PENDING, TicketStatus.IN_PROGRESS) == 0) {
+                        return null;
+                    }
+                    SupportTicket ticket = repository.findById(id).orElseThrow(() -> new TicketNotFoundException(id));
+                    eventOutbox.append(TicketStatusChangedEvent.of(ticket, TicketStatus.PENDING, Instant.now(),
+                            MDC.get(MDC_KEY)));
+                    return ticket;
+                });
+            } catch (RuntimeException e) {
+                dispatchQueue.putBack(entry);
+                throw e;
+            }
+            if (claimed != null) {
+                openTicketGauge.statusChanged(TicketStatus.PENDING, TicketStatus.IN_PROGRESS);
+                dashboardStats.statusChanged(claimed, TicketStatus.PENDING);
+                slaScheduler.statusChanged(claimed, TicketStatus.PENDING);
+                ticketCache.put(TicketSummary.of(claimed));
+                log.info("ticket_claimed ticketNumber={} priority={} correlationId={} openTickets={}",
+                        claimed.getTicketNumber(), claimed.getPriority(), MDC.get(MDC_KEY), openTicketGauge.get());
+                return Optional.of(claimed);
+            }
+        }
+        return Optional.empty();
     }
 
     public SupportTicket findById(UUID id) {
-        return repository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Ticket with id " + id + " not found"));
+        return timed("findById", () -> repository.findById(id)
+                .orElseThrow(() -> new TicketNotFoundException(id)));
     }
+
+    /**
+     * The ticket's summary, served from the {@link TicketCache} when possible.
+     */
+    public TicketSummary findSummaryById(UUID id) {
+        return timed("findSummaryById", () -> ticketCache.get(id, searchRepository::findSummaryById)
+                .orElseThrow(() -> new TicketNotFoundException(id)));
+    }
+
+    /**
+     * Records {@code call} in {@value #TIMER}, tagged with the method and the exception it threw, if any.
+     */
+    private <T> T timed(String method, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER)
+                    .description("TicketService calls")
+                    .tag("method", method)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Runs {@code update} of the in-memory views (cache, gauges, schedulers) once the surrounding
+     * transaction commits; a rollback leaves them untouched.
+     */
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    /**
+     * One request of {@link #createAll}: the stored ticket, or the exception it was rejected with.
+     */
+    public record BatchResult(SupportTicket ticket, RuntimeException rejection) {}
 }
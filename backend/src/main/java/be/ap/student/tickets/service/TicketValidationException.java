@@ -0,0 +1,16 @@
+package be.ap.student.tickets.service;
+
+/**
+ * A create request {@link TicketService} cannot accept, answered as {@code VALIDATION_ERROR} by its own
+ * handler in {@code GlobalExceptionHandler}. The known cases are shared instances without a stack trace
+ * or suppressed exceptions, so rejecting a request allocates nothing.
+ */
+public final class TicketValidationException extends RuntimeException {
+
+    public static final TicketValidationException INVALID_PRIORITY =
+            new TicketValidationException("priority must be one of LOW, MEDIUM, HIGH");
+
+    private TicketValidationException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,4 +1,5 @@
-create sequence if not exists ticket_seq start with 1 increment by 1;
+-- Ticket numbers come from one pooled sequence per year (ticket_seq_YYYY, increment by 50),
+-- created on first use by TicketNumberGenerator.
 
 create table if not exists support_ticket (
                                               id uuid primary key,
@@ -8,5 +9,79 @@ create table if not exists support_ticket (
     priority varchar(16) not null,
     status varchar(16) not null,
     created_at timestamp not null,
+    user_id varchar(64),
+    -- Set once the SLA escalation has fired, so a restart does not escalate the ticket again
+    escalated_at timestamp,
     constraint uk_ticket_number unique (ticket_number)
-    );
\ No newline at end of file
+    );
+
+-- Keyset search (feature-002): equality on status/priority, seek + order on (created_at, id)
+-- escalated_at is only carried so the SLA wheel rebuild reads from the index alone
+create index if not exists idx_support_ticket_status_priority_created on support_ticket (status, priority, created_at, id, escalated_at);
+create index if not exists idx_support_ticket_status_created on support_ticket (status, created_at, id);
+create index if not exists idx_support_ticket_created on support_ticket (created_at, id);
+create index if not exists idx_support_ticket_subject on support_ticket (subject);
+-- Creation quota (feature-001): a user's tickets inside the window, priority included so the index covers it
+create index if not exists idx_support_ticket_user_created on support_ticket (user_id, created_at, priority);
+
+-- Transactional outbox (feature-004): rows are written in the ticket transaction and removed by
+-- OutboxRelay once delivered, so the table only holds undelivered events.
+create table if not exists outbox (
+    id bigint generated by default as identity primary key,
+    event_id uuid not null,
+    topic varchar(64) not null,
+    event_type varchar(64) not null,
+    correlation_id varchar(64),
+    payload varchar(4000) not null,
+    created_at timestamp not null
+    );
+
+create table if not exists outbox_checkpoint (
+    relay varchar(64) primary key,
+    last_id bigint not null,
+    delivered bigint not null,
+    updated_at timestamp not null
+    );
+
+-- Idempotency-Key replays: successful responses by path and key, purged once older than the TTL
+create table if not exists idempotency_key (
+    idem_key varchar(320) primary key,
+    fingerprint bigint not null,
+    status int not null,
+    content_type varchar(128),
+    body varbinary(65536) not null,
+    created_at timestamp not null
+    );
+create index if not exists idx_idempotency_key_created_at on idempotency_key (created_at);
+
+-- Notification consumer (feature-004): handled event ids for idempotency, and the dead letter queue
+create table if not exists processed_event (
+    event_id uuid primary key,
+    processed_at timestamp not null
+    );
+create index if not exists idx_processed_event_processed_at on processed_event (processed_at);
+
+create table if not exists notification_dead_letter (
+    id bigint generated by default as identity primary key,
+    event_id uuid not null,
+    original_topic varchar(64) not null,
+    payload varchar(4000) not null,
+    error_message varchar(1000) not null,
+    attempts int not null,
+    created_at timestamp not null
+    );
+
+-- Audit log (feature-007): entries live in monthly audit_log_yyyyMM tables created by AuditLogRepository
+create table if not exists audit_dead_letter (
+    id bigint generated by default as identity primary key,
+    event_id uuid not null,
+    correlation_id varchar(64),
+    user_id varchar(64) not null,
+    event_type varchar(64) not null,
+    action varchar(255) not null,
+    details varchar(4000),
+    occurred_at timestamp not null,
+    error_message varchar(1000) not null,
+    attempts int not null,
+    created_at timestamp not null
+    );
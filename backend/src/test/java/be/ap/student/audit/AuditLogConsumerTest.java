@@ -0,0 +1,135 @@
+package be.ap.student.audit;
+
+import be.ap.student.tickets.dto.CreateTicketRequest;
+import be.ap.student.tickets.service.TicketService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static be.ap.student.common.web.CorrelationIdFilter.MDC_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+public class AuditLogConsumerTest {
+
+    @Autowired
+    private AuditLogConsumer consumer;
+
+    @Autowired
+    private AuditLogRepository repository;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @AfterEach
+    void clearMdc() {
+        MDC.remove(MDC_KEY);
+    }
+
+    private static <T> T awaitNonEmpty(Supplier<List<T>> query) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            List<T> result = query.get();
+            if (!result.isEmpty()) {
+                return result.getFirst();
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Nothing stored within 10s");
+    }
+
+    @Test
+    void ticketCreate_isStoredWithCorrelationIdOfTheRequest() throws Exception {
+        String correlationId = "corr-" + UUID.randomUUID();
+        MDC.put(MDC_KEY, correlationId);
+        CreateTicketRequest req = new CreateTicketRequest();
+        req.setSubject("Audit trail");
+        req.setDescription("Ticket created to produce an audit entry.");
+        req.setPriority("LOW");
+        req.setUserId(UUID.randomUUID().toString());
+
+        ticketService.create(req);
+
+        AuditEvent stored = awaitNonEmpty(() -> repository.findByCorrelationId(YearMonth.now(ZoneOffset.UTC), correlationId));
+        assertThat(stored.userId()).isEqualTo(req.getUserId());
+        assertThat(stored.eventType()).isEqualTo("TicketCreatedEvent");
+        assertThat(stored.action()).startsWith("Ticket TCK-").endsWith(" created");
+        assertThat(stored.details()).contains("\"subject\":\"Audit trail\"");
+    }
+
+    @Test
+    void record_takesCorrelationIdFromMdc() throws Exception {
+        String correlationId = "corr-" + UUID.randomUUID();
+        MDC.put(MDC_KEY, correlationId);
+
+        consumer.record(AuditEvent.of("UserLoginEvent", "user-1", "User logged in successfully.", null));
+
+        AuditEvent stored = awaitNonEmpty(() -> repository.findByCorrelationId(YearMonth.now(ZoneOffset.UTC), correlationId));
+        assertThat(stored.userId()).isEqualTo("user-1");
+        assertThat(stored.action()).isEqualTo("User logged in successfully.");
+    }
+
+    @Test
+    void write_storesEachEventIdOnce() {
+        String correlationId = "corr-" + UUID.randomUUID();
+        Instant occurredAt = Instant.parse("2025-03-14T10:00:00Z");
+        AuditEvent first = new AuditEvent(UUID.randomUUID(), correlationId, "user-2", "ResourceCreatedEvent",
+                "Resource created", null, occurredAt);
+        AuditEvent second = new AuditEvent(UUID.randomUUID(), correlationId, "user-2", "ResourceUpdatedEvent",
+                "Resource updated", null, occurredAt.plusSeconds(1));
+        AuditEvent third = new AuditEvent(UUID.randomUUID(), correlationId, "user-2", "ResourceDeletedEvent",
+                "Resource deleted", null, occurredAt.plusSeconds(2));
+        // Stored by another node, so unknown to this node's Bloom filter and only caught by the key.
+        repository.createPartitionsFor(List.of(third));
+        repository.insertAll(List.of(third));
+
+        consumer.write(List.of(first, first));
+        consumer.write(List.of(first, second));
+        consumer.write(List.of(second, third));
+
+        assertThat(repository.findByCorrelationId(YearMonth.of(2025, 3), correlationId))
+                .extracting(AuditEvent::eventId)
+                .containsExactly(first.eventId(), second.eventId(), third.eventId());
+    }
+
+    @Test
+    void insertAll_writesEachEventToThePartitionOfItsMonth() {
+        String correlationId = "corr-" + UUID.randomUUID();
+        AuditEvent january = new AuditEvent(UUID.randomUUID(), correlationId, "user-3", "UserLogoutEvent",
+                "User logged out", null, Instant.parse("2025-01-31T23:59:59Z"));
+        AuditEvent february = new AuditEvent(UUID.randomUUID(), correlationId, "user-3", "UserLoginEvent",
+                "User logged in", null, Instant.parse("2025-02-01T00:00:00Z"));
+
+        repository.createPartitionsFor(List.of(january, february));
+        repository.insertAll(List.of(january, february));
+
+        assertThat(repository.findByCorrelationId(YearMonth.of(2025, 1), correlationId)).containsExactly(january);
+        assertThat(repository.findByCorrelationId(YearMonth.of(2025, 2), correlationId)).containsExactly(february);
+        assertThat(repository.findPartitions()).contains(YearMonth.of(2025, 1), YearMonth.of(2025, 2));
+    }
+
+    @Test
+    void insertAll_doesNotCreatePartitions() {
+        AuditEvent event = new AuditEvent(UUID.randomUUID(), "corr-" + UUID.randomUUID(), "user-4", "UserLoginEvent",
+                "User logged in", null, Instant.parse("2011-04-01T00:00:00Z"));
+
+        assertThatThrownBy(() -> repository.insertAll(List.of(event)))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);
+        assertThat(repository.findPartitions()).doesNotContain(YearMonth.of(2011, 4));
+
+        consumer.write(List.of(event));
+        assertThat(repository.count(YearMonth.of(2011, 4))).isEqualTo(1);
+    }
+}
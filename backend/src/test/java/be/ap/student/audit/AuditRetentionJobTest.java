@@ -0,0 +1,57 @@
+package be.ap.student.audit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.Period;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class AuditRetentionJobTest {
+
+    @Autowired
+    private AuditLogRepository repository;
+
+    private static AuditEvent eventAt(String instant) {
+        return new AuditEvent(UUID.randomUUID(), "corr-retention", "user-9", "UserLoginEvent", "User logged in",
+                null, Instant.parse(instant));
+    }
+
+    @Test
+    void dropExpiredPartitions_dropsWholeMonthsOlderThanRetention() {
+        List<AuditEvent> events = List.of(
+                eventAt("2019-05-31T23:59:59Z"),
+                eventAt("2019-06-01T00:00:00Z"),
+                eventAt("2019-07-15T12:00:00Z"));
+        repository.createPartitionsFor(events);
+        repository.insertAll(events);
+        Clock clock = Clock.fixed(Instant.parse("2021-06-20T04:15:00Z"), ZoneOffset.UTC);
+        AuditRetentionJob job = new AuditRetentionJob(repository, Period.ofYears(2), clock);
+
+        List<YearMonth> dropped = job.dropExpiredPartitions();
+
+        assertThat(dropped).contains(YearMonth.of(2019, 5)).doesNotContain(YearMonth.of(2019, 6));
+        assertThat(repository.findPartitions()).doesNotContain(YearMonth.of(2019, 5))
+                .contains(YearMonth.of(2019, 6), YearMonth.of(2019, 7));
+        assertThat(repository.count(YearMonth.of(2019, 5))).isZero();
+        assertThat(repository.count(YearMonth.of(2019, 6))).isEqualTo(1);
+    }
+
+    @Test
+    void createUpcomingPartitions_createsCurrentAndNextMonth() {
+        Clock clock = Clock.fixed(Instant.parse("2030-12-20T04:15:00Z"), ZoneOffset.UTC);
+        AuditRetentionJob job = new AuditRetentionJob(repository, Period.ofYears(2), clock);
+
+        job.createUpcomingPartitions();
+
+        assertThat(repository.findPartitions()).contains(YearMonth.of(2030, 12), YearMonth.of(2031, 1));
+    }
+}
@@ -0,0 +1,72 @@
+package be.ap.student.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventIdBloomFilterTest {
+
+    @Test
+    void addedIds_areAlwaysReported() {
+        EventIdBloomFilter filter = new EventIdBloomFilter(10_000, 0.01);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            filter.add(id);
+        }
+
+        assertThat(ids).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void falsePositiveRate_staysNearConfiguredRate() {
+        EventIdBloomFilter filter = new EventIdBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(UUID.randomUUID());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void sequentialIds_spreadOverTheFilter() {
+        // Time-ordered ids differ mostly in a few bits; the hash must still spread them.
+        EventIdBloomFilter filter = new EventIdBloomFilter(10_000, 0.01);
+        for (long i = 0; i < 10_000; i++) {
+            filter.add(new UUID(0x0190_0000_0000_7000L + (i << 16), 0x8000_0000_0000_0000L));
+        }
+
+        int falsePositives = 0;
+        for (long i = 10_000; i < 20_000; i++) {
+            if (filter.mightContain(new UUID(0x0190_0000_0000_7000L + (i << 16), 0x8000_0000_0000_0000L))) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void fullGeneration_rollsOverButStillCoversPreviousOne() {
+        EventIdBloomFilter filter = new EventIdBloomFilter(100, 0.01);
+        UUID first = UUID.randomUUID();
+        filter.add(first);
+        for (int i = 0; i < 150; i++) {
+            filter.add(UUID.randomUUID());
+        }
+
+        assertThat(filter.mightContain(first)).isTrue();
+    }
+}
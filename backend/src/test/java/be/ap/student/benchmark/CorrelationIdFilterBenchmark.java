@@ -0,0 +1,113 @@
+package be.ap.student.benchmark;
+
+import be.ap.student.common.web.CorrelationIdFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request overhead of the {@link CorrelationIdFilter}: generating an id when the client sent none,
+ * and validating and propagating one it did send. The chain is a no-op, so the figure is the filter
+ * alone (plus the mock request and response, which are reset rather than allocated per call).
+ * <p>
+ * The {@code legacy*} benchmarks run the previous filter, which used {@link UUID#randomUUID()} and echoed
+ * the header unchecked; the {@code *Contended} ones generate from four threads at once, where the
+ * shared {@code SecureRandom} behind random UUIDs shows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CorrelationIdFilterBenchmark {
+
+    private static final FilterChain NO_OP = (request, response) -> { };
+
+    private final OncePerRequestFilter filter = new CorrelationIdFilter();
+    private final OncePerRequestFilter legacy = new LegacyCorrelationIdFilter();
+    private MockHttpServletRequest withoutHeader;
+    private MockHttpServletRequest withHeader;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        withoutHeader = new MockHttpServletRequest("GET", "/api/tickets");
+        withHeader = new MockHttpServletRequest("GET", "/api/tickets");
+        withHeader.addHeader(CorrelationIdFilter.HEADER, "3f2a6c1e-9d4b-4e1a-8c55-0b7e2d9a1f64");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public String generated() throws ServletException, IOException {
+        return run(filter, withoutHeader);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generatedContended() throws ServletException, IOException {
+        return run(filter, withoutHeader);
+    }
+
+    @Benchmark
+    public String propagated() throws ServletException, IOException {
+        return run(filter, withHeader);
+    }
+
+    @Benchmark
+    public String legacyGenerated() throws ServletException, IOException {
+        return run(legacy, withoutHeader);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String legacyGeneratedContended() throws ServletException, IOException {
+        return run(legacy, withoutHeader);
+    }
+
+    @Benchmark
+    public String legacyPropagated() throws ServletException, IOException {
+        return run(legacy, withHeader);
+    }
+
+    private String run(OncePerRequestFilter target, MockHttpServletRequest request)
+            throws ServletException, IOException {
+        // OncePerRequestFilter marks the request as filtered; clear it so every call does the work.
+        request.clearAttributes();
+        response.reset();
+        target.doFilter(request, response, NO_OP);
+        return response.getHeader(CorrelationIdFilter.HEADER);
+    }
+
+    /**
+     * The filter as it was before ULID generation and header validation.
+     */
+    static class LegacyCorrelationIdFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            String correlationId = request.getHeader(CorrelationIdFilter.HEADER);
+            if (correlationId == null || correlationId.isBlank()) {
+                correlationId = UUID.randomUUID().toString();
+            }
+            MDC.put(CorrelationIdFilter.MDC_KEY, correlationId);
+            response.setHeader(CorrelationIdFilter.HEADER, correlationId);
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                MDC.remove(CorrelationIdFilter.MDC_KEY);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package be.ap.student.benchmark;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.service.EscalationService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@code shouldEscalate} decision over a fixed mix of priorities and reopen counts,
+ * including the lower-case input the API accepts, and of the enum lookup. {@code evaluateMillion}
+ * sweeps one million tickets of mixed priority, status and age (reported per ticket).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EscalationServiceBenchmark {
+
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "CRITICAL", "medium", "high"};
+
+    private static final int SWEEP_SIZE = 1_000_000;
+
+    private final EscalationService escalationService = new EscalationService();
+    private final Priority[] priorities = Priority.values();
+    private final TicketStatus[] statuses = TicketStatus.values();
+    private List<SupportTicket> tickets;
+    private Instant now;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        now = Instant.parse("2026-03-01T12:00:00Z");
+        tickets = new ArrayList<>(SWEEP_SIZE);
+        for (int i = 0; i < SWEEP_SIZE; i++) {
+            tickets.add(new SupportTicket("T-" + i, new UUID(random.nextLong(), random.nextLong()), "subject",
+                    "description", priorities[random.nextInt(priorities.length)],
+                    statuses[random.nextInt(statuses.length)], now.minusSeconds(random.nextInt(8 * 3600))));
+        }
+    }
+
+    @Benchmark
+    public boolean shouldEscalate() {
+        int i = next++ & 0xff;
+        return escalationService.shouldEscalate(PRIORITIES[i % PRIORITIES.length], i & 3);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(6)
+    public void shouldEscalateAllPriorities(Blackhole blackhole) {
+        for (String priority : PRIORITIES) {
+            blackhole.consume(escalationService.shouldEscalate(priority, 2));
+        }
+    }
+
+    @Benchmark
+    public boolean shouldEscalateEnum() {
+        int i = next++ & 0xff;
+        return escalationService.shouldEscalate(priorities[i % priorities.length], statuses[i % statuses.length], i & 3);
+    }
+
+    @Benchmark
+    @Warmup(iterations = 3, time = 5)
+    @Measurement(iterations = 5, time = 5)
+    @OperationsPerInvocation(SWEEP_SIZE)
+    public EscalationService.Plan evaluateMillion() {
+        return escalationService.evaluate(tickets, now);
+    }
+}
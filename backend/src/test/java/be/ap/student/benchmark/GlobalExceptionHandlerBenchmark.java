@@ -0,0 +1,158 @@
+package be.ap.student.benchmark;
+
+import be.ap.student.common.api.ApiError;
+import be.ap.student.common.api.PreparedApiError;
+import be.ap.student.common.api.RequestValidationException;
+import be.ap.student.common.web.CorrelationIdFilter;
+import be.ap.student.common.web.GlobalExceptionHandler;
+import be.ap.student.tickets.controller.TicketController;
+import be.ap.student.tickets.dto.CreateTicketRequest;
+import be.ap.student.tickets.dto.CreateTicketRequestValidator;
+import be.ap.student.tickets.service.TicketNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.MDC;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning exceptions into {@link ApiError} responses: a two-field validation failure, a
+ * rejected argument and the catch-all. The exceptions are built once, so only the handler is measured;
+ * {@code newIllegalArgument} adds constructing the exception, stack trace included, as a request pays it.
+ * <p>
+ * The rest compares the paths of an invalid create request: Bean Validation against
+ * {@link CreateTicketRequestValidator}, a not-found exception with and without a stack trace, and the
+ * response body written by Jackson against the cached template bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(new SimpleMeterRegistry(), jsonMapper);
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+    private MethodArgumentNotValidException validation;
+    private IllegalArgumentException illegalArgument;
+    private Exception unexpected;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private CreateTicketRequest invalidRequest;
+    private PreparedApiError prepared;
+    private ApiError plain;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        MethodParameter parameter = new MethodParameter(
+                TicketController.class.getMethod("create", CreateTicketRequest.class), 0);
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new CreateTicketRequest(), "req");
+        bindingResult.rejectValue("subject", "NotBlank");
+        bindingResult.rejectValue("description", "Size");
+        validation = new MethodArgumentNotValidException(parameter, bindingResult);
+        illegalArgument = new IllegalArgumentException("Unknown priority: URGENT");
+        unexpected = new IllegalStateException("boom");
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        invalidRequest = new CreateTicketRequest();
+        invalidRequest.setSubject("x");
+        invalidRequest.setDescription("too short");
+        invalidRequest.setPriority("MEDIUM");
+        invalidRequest.setUserId(UUID.randomUUID().toString());
+        MDC.put(CorrelationIdFilter.MDC_KEY, "3f2a6c1e-9d4b-4e1a-8c55-0b7e2d9a1f64");
+        prepared = (PreparedApiError) handler.handleValidation(validation).getBody();
+        plain = new ApiError(prepared.getCorrelationId(), prepared.getCode(), prepared.getMessage(),
+                prepared.getFieldErrors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        MDC.remove(CorrelationIdFilter.MDC_KEY);
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiError> validationError() {
+        return handler.handleValidation(validation);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiError> illegalArgument() {
+        return handler.handleIllegalArg(illegalArgument);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiError> newIllegalArgument() {
+        return handler.handleIllegalArg(new IllegalArgumentException("Unknown priority: URGENT"));
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiError> internalError() {
+        return handler.handleGeneric(unexpected);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateTicketRequest>> beanValidation() {
+        return validator.validate(invalidRequest);
+    }
+
+    @Benchmark
+    public Object fastValidation() {
+        try {
+            CreateTicketRequestValidator.validate(invalidRequest);
+            return null;
+        } catch (RequestValidationException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiError> fastValidationError() {
+        try {
+            CreateTicketRequestValidator.validate(invalidRequest);
+            return null;
+        } catch (RequestValidationException e) {
+            return handler.handleRequestValidation(e);
+        }
+    }
+
+    @Benchmark
+    public Object newNoSuchElement() {
+        return new NoSuchElementException("Ticket with id " + prepared.getCorrelationId() + " not found");
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiError> newTicketNotFound() {
+        return handler.handleNotFound(new TicketNotFoundException(UUID.randomUUID()));
+    }
+
+    @Benchmark
+    public int jacksonBody() throws IOException {
+        out.reset();
+        jsonMapper.writeValue(out, plain);
+        return out.size();
+    }
+
+    @Benchmark
+    public int templateBody() throws IOException {
+        out.reset();
+        prepared.writeTo(out);
+        return out.size();
+    }
+}
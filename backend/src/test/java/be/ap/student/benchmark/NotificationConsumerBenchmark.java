@@ -0,0 +1,78 @@
+package be.ap.student.benchmark;
+
+import be.ap.student.BackendApplication;
+import be.ap.student.notifications.LocalSmtpStandIn;
+import be.ap.student.tickets.event.InMemoryEventBus;
+import be.ap.student.tickets.event.OutboxMessage;
+import be.ap.student.tickets.event.TicketCreatedEvent;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notification throughput of one node: each invocation publishes {@value #EVENTS} distinct
+ * {@code ticket-created} events on the bus, the way the outbox relay does, and waits until all emails
+ * have been handed to the SMTP stand-in. Events per second is {@value #EVENTS} times the reported
+ * ops/s; the target is over 1 000 with an SMTP round trip of {@code smtpLatency}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class NotificationConsumerBenchmark {
+
+    private static final int EVENTS = 1000;
+
+    @Param({"PT0S", "PT0.005S"})
+    public String smtpLatency;
+
+    private ConfigurableApplicationContext context;
+    private InMemoryEventBus eventBus;
+    private LocalSmtpStandIn smtp;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:notification-bench-" + smtpLatency + ";DB_CLOSE_DELAY=-1",
+                        "--tickets.notifications.smtp.latency=" + smtpLatency,
+                        "--logging.level.be.ap.student=WARN");
+        eventBus = context.getBean(InMemoryEventBus.class);
+        smtp = context.getBean(LocalSmtpStandIn.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long consume() throws InterruptedException {
+        List<OutboxMessage> batch = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            long id = ++sequence;
+            String payload = """
+                    {"eventType":"TicketCreatedEvent","payload":{"ticketNumber":"TCK-2026-%06d",\
+                    "subject":"Cannot login","priority":"HIGH","createdByUserId":"%s"}}""".formatted(id, UUID.randomUUID());
+            batch.add(new OutboxMessage(id, UUID.randomUUID(), TicketCreatedEvent.TOPIC, "TicketCreatedEvent",
+                    "bench-" + id, payload, Instant.now()));
+        }
+        long target = smtp.sentCount() + EVENTS;
+        eventBus.publish(batch);
+        while (smtp.sentCount() < target) {
+            Thread.sleep(1);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,90 @@
+package be.ap.student.benchmark;
+
+import be.ap.student.BackendApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tickets created per second over HTTP, one {@code POST /api/tickets} per ticket against one
+ * {@code POST /api/tickets/batch} per {@value #BATCH_SIZE} tickets, from a single client on keep-alive
+ * connections. Every ticket has its own user, so the quota never rejects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TicketBatchCreateBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String TICKET = """
+            {"subject":"Alert: disk full on node %d","description":"Monitoring reports /var at 100 percent.",\
+            "priority":"MEDIUM","userId":"%s"}""";
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI single;
+    private URI batch;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:batch-create-bench;DB_CLOSE_DELAY=-1",
+                        "--logging.level.be.ap.student=WARN",
+                        "--logging.level.ticket-events=WARN");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        single = URI.create("http://localhost:" + port + "/api/tickets");
+        batch = URI.create("http://localhost:" + port + "/api/tickets/batch");
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int perItem() throws IOException, InterruptedException {
+        return post(single, ticket());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int batch() throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder(BATCH_SIZE * 160).append('[');
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            body.append(i == 0 ? "" : ",").append(ticket());
+        }
+        return post(batch, body.append(']').toString());
+    }
+
+    private String ticket() {
+        return TICKET.formatted(counter++, UUID.randomUUID());
+    }
+
+    private int post(URI uri, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 201) {
+            throw new IllegalStateException("Unexpected status " + status);
+        }
+        return status;
+    }
+}
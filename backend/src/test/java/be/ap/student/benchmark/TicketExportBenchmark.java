@@ -0,0 +1,89 @@
+package be.ap.student.benchmark;
+
+import be.ap.student.BackendApplication;
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.dto.TicketSearchCriteria;
+import be.ap.student.tickets.repo.SupportTicketBatchWriter;
+import be.ap.student.tickets.service.TicketExportService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Rows per second of a full-table export, per format and with or without gzip, into a stream that
+ * discards the bytes. The fork runs with a small heap, several times smaller than the table would be as
+ * a list, so a run that collected the rows would fail rather than just be slow.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx768m"})
+public class TicketExportBenchmark {
+
+    private static final int ROWS = 500_000;
+    private static final TicketSearchCriteria ALL = new TicketSearchCriteria(null, null, null, null, false, false);
+
+    @Param({"ndjson", "csv"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ConfigurableApplicationContext context;
+    private TicketExportService exportService;
+    private TicketExportService.Format exportFormat;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:export-bench;DB_CLOSE_DELAY=-1",
+                        "--logging.level.be.ap.student=WARN");
+        exportService = context.getBean(TicketExportService.class);
+        exportFormat = TicketExportService.Format.of(format);
+        SupportTicketBatchWriter writer = context.getBean(SupportTicketBatchWriter.class);
+
+        Instant base = Instant.parse("2020-01-01T00:00:00Z");
+        List<SupportTicket> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new SupportTicket("TCK-E-" + i, UUID.randomUUID(), "Benchmark subject, number " + i,
+                    "Benchmark description", Priority.values()[i % 3], TicketStatus.PENDING, base.plusSeconds(i)));
+            if (batch.size() == 10_000) {
+                writer.insertAll(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long export() throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        if (!gzip) {
+            return exportService.export(ALL, exportFormat, out);
+        }
+        GZIPOutputStream compressed = new GZIPOutputStream(out, 16384);
+        long rows = exportService.export(ALL, exportFormat, compressed);
+        compressed.finish();
+        return rows;
+    }
+}
@@ -0,0 +1,96 @@
+package be.ap.student.benchmark;
+
+import be.ap.student.common.id.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Insert throughput into a UUID primary key that already holds {@code rows} keys, for random (v4)
+ * against time-ordered (v7, {@link UuidV7Generator}) ids. Random keys land on any page of the index,
+ * so once it outgrows the page cache most inserts read and split a cold page; v7 keys all go to the
+ * right edge.
+ * <p>
+ * The table is {@code support_ticket}'s key with a timestamp, in an H2 file database under
+ * {@code target/}, so 50M rows need disk rather than heap; the prefill dominates the run time (minutes
+ * per 10M rows). Run with {@code -p rows=1000000} for a quick comparison. The database size after the
+ * run is printed as {@code id_insert_db_size}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TicketIdInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"1000000", "10000000", "50000000"})
+    public int rows;
+
+    @Param({"random", "v7"})
+    public String keys;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+    private Supplier<UUID> ids;
+
+    @Setup
+    public void setUp() throws SQLException, IOException {
+        ids = "v7".equals(keys) ? UuidV7Generator::next : UUID::randomUUID;
+        directory = Files.createDirectories(Path.of("target", "id-insert-bench"));
+        String name = directory.resolve(keys + "-" + rows).toAbsolutePath().toString();
+        Files.deleteIfExists(Path.of(name + ".mv.db"));
+        connection = DriverManager.getConnection("jdbc:h2:file:" + name, "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table ticket_key (id uuid primary key, created_at timestamp not null)");
+        }
+        insert = connection.prepareStatement("insert into ticket_key (id, created_at) values (?, ?)");
+        for (int done = 0; done < rows; done += BATCH_SIZE) {
+            insertBatch(Math.min(BATCH_SIZE, rows - done));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException, IOException {
+        insert.close();
+        connection.close();
+        Path file = directory.resolve(keys + "-" + rows + ".mv.db");
+        System.out.println("id_insert_db_size keys=" + keys + " rows=" + rows + " bytes=" + Files.size(file));
+        Files.delete(file);
+    }
+
+    /**
+     * One transaction of {@value #BATCH_SIZE} inserts; the score is rows per second.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insert() throws SQLException {
+        insertBatch(BATCH_SIZE);
+    }
+
+    private void insertBatch(int size) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < size; i++) {
+            insert.setObject(1, ids.get());
+            insert.setTimestamp(2, now);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+}
@@ -0,0 +1,69 @@
+package be.ap.student.benchmark;
+
+import be.ap.student.BackendApplication;
+import be.ap.student.tickets.dto.CreateTicketRequest;
+import be.ap.student.tickets.service.TicketService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Create throughput of the per-request JPA path ({@code direct}) versus the write-behind
+ * batch ingestion pipeline ({@code batched}) under 32 concurrent callers against H2, and for a single
+ * caller, where {@code batched} pays its {@code max-wait} on every create.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class TicketIngestionBenchmark {
+
+    @Param({"direct", "batched"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private TicketService ticketService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:ingestion-bench-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "--tickets.ingestion.mode=" + mode,
+                        "--logging.level.be.ap.student=WARN");
+        ticketService = context.getBean(TicketService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object create() {
+        return ticketService.create(request());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object createSingleCaller() {
+        return ticketService.create(request());
+    }
+
+    private static CreateTicketRequest request() {
+        CreateTicketRequest req = new CreateTicketRequest();
+        req.setSubject("Cannot login to portal");
+        req.setDescription("I cannot login since yesterday. Please investigate.");
+        req.setPriority("MEDIUM");
+        req.setUserId(UUID.randomUUID().toString());
+        return req;
+    }
+}
@@ -0,0 +1,62 @@
+package be.ap.student.benchmark;
+
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.dto.CreateTicketRequest;
+import be.ap.student.tickets.dto.CreateTicketResponse;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the create endpoint's payloads: reading a {@link CreateTicketRequest} body and
+ * writing the {@link CreateTicketResponse}, with readers and writers built once as the web layer does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketJsonBenchmark {
+
+    private ObjectReader requestReader;
+    private ObjectWriter requestWriter;
+    private ObjectWriter responseWriter;
+    private byte[] requestJson;
+    private CreateTicketRequest request;
+    private CreateTicketResponse response;
+
+    @Setup
+    public void setUp() {
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        requestReader = jsonMapper.readerFor(CreateTicketRequest.class);
+        requestWriter = jsonMapper.writerFor(CreateTicketRequest.class);
+        responseWriter = jsonMapper.writerFor(CreateTicketResponse.class);
+        request = new CreateTicketRequest();
+        request.setSubject("Cannot login to portal");
+        request.setDescription("I cannot login since yesterday. The page says my session expired. Please investigate.");
+        request.setPriority("MEDIUM");
+        request.setUserId(UUID.randomUUID().toString());
+        requestJson = requestWriter.writeValueAsBytes(request);
+        response = new CreateTicketResponse("TCK-2026-000042", TicketStatus.PENDING);
+    }
+
+    @Benchmark
+    public CreateTicketRequest readRequest() {
+        return requestReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public byte[] writeRequest() {
+        return requestWriter.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() {
+        return responseWriter.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,79 @@
+package be.ap.student.benchmark;
+
+import be.ap.student.BackendApplication;
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.dto.TicketSummary;
+import be.ap.student.tickets.repo.SupportTicketBatchWriter;
+import be.ap.student.tickets.service.TicketService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GET /api/tickets/{id}} latency distribution with and without the {@code TicketCache}:
+ * 16 callers look up random ids out of 10 000 tickets with a 2000-character description, 20% of the
+ * lookups hot on 100 tickets. Compare the {@code p0.99} lines of the sample output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+public class TicketLookupBenchmark {
+
+    private static final int TICKETS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private TicketService ticketService;
+    private UUID[] ids;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:lookup-bench;DB_CLOSE_DELAY=-1",
+                        "--logging.level.be.ap.student=WARN");
+        ticketService = context.getBean(TicketService.class);
+        String description = "x".repeat(2000);
+        List<SupportTicket> tickets = new ArrayList<>(TICKETS);
+        ids = new UUID[TICKETS];
+        for (int i = 0; i < TICKETS; i++) {
+            ids[i] = UUID.randomUUID();
+            tickets.add(new SupportTicket("TCK-L-" + i, ids[i], "Lookup subject " + i, description,
+                    Priority.values()[i % 3], TicketStatus.PENDING, Instant.now()));
+        }
+        context.getBean(SupportTicketBatchWriter.class).insertAll(tickets);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TicketSummary cached() {
+        return ticketService.findSummaryById(nextId());
+    }
+
+    @Benchmark
+    public TicketSummary uncached() {
+        return TicketSummary.of(ticketService.findById(nextId()));
+    }
+
+    private UUID nextId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return ids[random.nextInt(5) == 0 ? random.nextInt(100) : random.nextInt(TICKETS)];
+    }
+}
@@ -0,0 +1,58 @@
+package be.ap.student.benchmark;
+
+import be.ap.student.tickets.service.TicketNumberGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.time.Year;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the pooled ticket number allocator with the previous one-round-trip-per-ticket
+ * implementation against an in-memory H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketNumberGeneratorBenchmark {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TicketNumberGenerator pooled;
+
+    @Setup
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:ticket-number-bench;DB_CLOSE_DELAY=-1", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create sequence if not exists ticket_seq start with 1 increment by 1");
+        pooled = new TicketNumberGenerator(jdbcTemplate, new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.execute("shutdown");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public String pooledBlockAllocation() {
+        return pooled.nextTicketNumber();
+    }
+
+    @Benchmark
+    public String roundTripPerTicket() {
+        Long seq = jdbcTemplate.queryForObject("select nextval('ticket_seq')", Long.class);
+        return String.format("TCK-%d-%06d", Year.now().getValue(), seq);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String pooledBlockAllocation64Threads() {
+        return pooled.nextTicketNumber();
+    }
+}
@@ -0,0 +1,94 @@
+package be.ap.student.benchmark;
+
+import be.ap.student.BackendApplication;
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.dto.TicketSummary;
+import be.ap.student.tickets.repo.SupportTicketBatchWriter;
+import be.ap.student.tickets.repo.SupportTicketRepository;
+import be.ap.student.tickets.repo.TicketSearchRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the entity read path versus the summary projections, uncached. Run with {@code -prof gc}
+ * and compare {@code gc.alloc.rate.norm} (bytes allocated per operation) next to the latency.
+ * Tickets carry a 2000-character description, which only the entity paths load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class TicketReadPathBenchmark {
+
+    private static final int TICKETS = 10_000;
+    private static final Limit PAGE = Limit.of(20);
+
+    private ConfigurableApplicationContext context;
+    private SupportTicketRepository repository;
+    private TicketSearchRepository searchRepository;
+    private UUID[] ids;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:read-path-bench;DB_CLOSE_DELAY=-1",
+                        "--logging.level.be.ap.student=WARN");
+        repository = context.getBean(SupportTicketRepository.class);
+        searchRepository = context.getBean(TicketSearchRepository.class);
+        String description = "x".repeat(2000);
+        List<SupportTicket> tickets = new ArrayList<>(TICKETS);
+        ids = new UUID[TICKETS];
+        for (int i = 0; i < TICKETS; i++) {
+            ids[i] = UUID.randomUUID();
+            tickets.add(new SupportTicket("TCK-R-" + i, ids[i], "Read path subject " + i, description,
+                    Priority.values()[i % 3], TicketStatus.PENDING, Instant.now()));
+        }
+        context.getBean(SupportTicketBatchWriter.class).insertAll(tickets);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TicketSummary byIdEntity() {
+        return repository.findById(nextId()).map(TicketSummary::of).orElseThrow();
+    }
+
+    @Benchmark
+    public TicketSummary byIdJdbcProjection() {
+        return searchRepository.findSummaryById(nextId()).orElseThrow();
+    }
+
+    @Benchmark
+    public List<TicketSummary> pageEntity() {
+        return repository.findOldestByPriorityAndStatus(Priority.HIGH, TicketStatus.PENDING, PAGE).stream()
+                .map(TicketSummary::of)
+                .toList();
+    }
+
+    @Benchmark
+    public List<TicketSummary> pageJpaProjection() {
+        return repository.findOldestSummariesByPriorityAndStatus(Priority.HIGH, TicketStatus.PENDING, PAGE);
+    }
+
+    private UUID nextId() {
+        return ids[next++ % TICKETS];
+    }
+}
@@ -0,0 +1,111 @@
+package be.ap.student.benchmark;
+
+import be.ap.student.BackendApplication;
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.dto.TicketSearchCriteria;
+import be.ap.student.tickets.dto.TicketSearchCursor;
+import be.ap.student.tickets.dto.TicketSummary;
+import be.ap.student.tickets.repo.SupportTicketBatchWriter;
+import be.ap.student.tickets.repo.TicketSearchRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a deep search page at growing table sizes (feature-002 NFR-003): keyset pagination
+ * should stay flat while OFFSET grows with the page position. Run with {@code -p rows=10000000}
+ * for the full 10M-row comparison; it needs a few GB of heap for the in-memory database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class TicketSearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final TicketSearchCriteria HIGH_PENDING =
+            new TicketSearchCriteria(TicketStatus.PENDING, Priority.HIGH, null, null, false, false);
+
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TicketSearchRepository searchRepository;
+    private JdbcTemplate jdbcTemplate;
+    private final TicketSearchCursor[] deepCursors = new TicketSearchCursor[8];
+    private int deepOffset;
+    private int jitter;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:search-bench-" + rows + ";DB_CLOSE_DELAY=-1",
+                        "--logging.level.be.ap.student=WARN");
+        searchRepository = context.getBean(TicketSearchRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        SupportTicketBatchWriter writer = context.getBean(SupportTicketBatchWriter.class);
+
+        Instant base = Instant.parse("2020-01-01T00:00:00Z");
+        List<SupportTicket> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new SupportTicket("TCK-B-" + i, UUID.randomUUID(), "Benchmark subject " + i,
+                    "Benchmark description", Priority.values()[i % 3], TicketStatus.PENDING, base.plusSeconds(i)));
+            if (batch.size() == 10_000) {
+                writer.insertAll(batch);
+                batch.clear();
+            }
+        }
+        writer.insertAll(batch);
+
+        // Position the cursor 90% deep into the HIGH/PENDING result set.
+        deepOffset = (int) (rows / 3 * 0.9);
+        for (int i = 0; i < deepCursors.length; i++) {
+            deepCursors[i] = TicketSearchCursor.of(offsetPage(deepOffset + i, 1).get(0));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // Deep-page benchmarks rotate through 8 positions so H2 cannot reuse the previous result
+    // of an identical statement.
+
+    @Benchmark
+    public List<TicketSummary> firstPage() {
+        return searchRepository.search(HIGH_PENDING, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<TicketSummary> deepPageKeyset() {
+        return searchRepository.search(HIGH_PENDING, deepCursors[jitter++ & 7], PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<TicketSummary> deepPageOffset() {
+        return offsetPage(deepOffset + (jitter++ & 7), PAGE_SIZE);
+    }
+
+    private List<TicketSummary> offsetPage(int offset, int size) {
+        return jdbcTemplate.query(
+                "select id, ticket_number, subject, priority, status, created_at from support_ticket "
+                        + "where status = 'PENDING' and priority = 'HIGH' "
+                        + "order by status desc, priority desc, created_at desc, id desc "
+                        + "offset ? rows fetch next ? rows only",
+                TicketSearchRepository.SUMMARY_ROW_MAPPER, offset, size);
+    }
+}
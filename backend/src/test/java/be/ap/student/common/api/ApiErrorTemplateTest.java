@@ -0,0 +1,44 @@
+package be.ap.student.common.api;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ApiErrorTemplateTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final ApiErrorTemplate template = ApiErrorTemplate.of(jsonMapper, "VALIDATION_ERROR",
+            "Request validation failed", List.of(new ApiError.FieldError("subject", "invalid")));
+
+    private String render(PreparedApiError error) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        error.writeTo(out);
+        assertThat(out.size()).isEqualTo(error.contentLength());
+        return out.toString();
+    }
+
+    @Test
+    void writesWhatJacksonWouldWrite() throws IOException {
+        for (String correlationId : new String[]{"01JABCDEFGHJKMNPQRSTVWXYZ0", null, "quote\"and\\slashé"}) {
+            PreparedApiError error = template.withCorrelationId(correlationId);
+
+            assertThat(render(error)).isEqualTo(jsonMapper.writeValueAsString(
+                    new ApiError(correlationId, error.getCode(), error.getMessage(), error.getFieldErrors())));
+        }
+    }
+
+    @Test
+    void readsLikeAnApiError() {
+        PreparedApiError error = template.withCorrelationId("corr-123");
+
+        assertThat(error.getCorrelationId()).isEqualTo("corr-123");
+        assertThat(error.getCode()).isEqualTo("VALIDATION_ERROR");
+        assertThat(error.getMessage()).isEqualTo("Request validation failed");
+        assertThat(error.getFieldErrors()).containsExactly(new ApiError.FieldError("subject", "invalid"));
+    }
+}
@@ -0,0 +1,91 @@
+package be.ap.student.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UuidV7GeneratorTest {
+
+    @Test
+    void next_hasVersion7VariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(UuidV7Generator.epochMillis(id)).isBetween(before, after + 1);
+    }
+
+    @Test
+    void idsWithinOneMillisecond_countUp_andSortByString() {
+        UuidV7Generator generator = new UuidV7Generator(() -> 1_700_000_000_000L);
+
+        UUID first = generator.nextId();
+        UUID second = generator.nextId();
+        UUID third = generator.nextId();
+
+        assertThat(second.getMostSignificantBits()).isEqualTo(first.getMostSignificantBits() + 1);
+        assertThat(third.getMostSignificantBits()).isEqualTo(first.getMostSignificantBits() + 2);
+        assertThat(List.of(first.toString(), second.toString(), third.toString())).isSorted();
+        assertThat(UuidV7Generator.epochMillis(third)).isEqualTo(1_700_000_000_000L);
+    }
+
+    @Test
+    void counterOverflow_borrowsTheNextMillisecond_andClockStepsBackAreIgnored() {
+        AtomicLong now = new AtomicLong(1_700_000_000_000L);
+        UuidV7Generator generator = new UuidV7Generator(now::get);
+
+        UUID previous = generator.nextId();
+        for (int i = 1; i < (1 << UuidV7Generator.COUNTER_BITS) + 10; i++) {
+            UUID id = generator.nextId();
+            assertThat(id.toString()).isGreaterThan(previous.toString());
+            previous = id;
+        }
+        assertThat(UuidV7Generator.epochMillis(previous)).isEqualTo(1_700_000_000_001L);
+
+        now.set(1_699_999_999_000L);
+        assertThat(generator.nextId().toString()).isGreaterThan(previous.toString());
+    }
+
+    @Test
+    void concurrentCallers_getUniqueIncreasingIds() throws Exception {
+        UuidV7Generator generator = new UuidV7Generator(System::currentTimeMillis);
+        int threads = 8;
+        int perThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<UUID>>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> ids = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.nextId());
+                    }
+                    return ids;
+                }));
+            }
+            Set<UUID> all = new HashSet<>();
+            for (Future<List<UUID>> future : futures) {
+                List<UUID> ids = future.get();
+                for (int i = 1; i < ids.size(); i++) {
+                    assertThat(ids.get(i).toString()).isGreaterThan(ids.get(i - 1).toString());
+                }
+                all.addAll(ids);
+            }
+            assertThat(all).hasSize(threads * perThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
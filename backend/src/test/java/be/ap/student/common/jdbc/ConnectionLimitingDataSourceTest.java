@@ -0,0 +1,74 @@
+package be.ap.student.common.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConnectionLimitingDataSourceTest {
+
+    private final DataSource pool = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+
+    @Test
+    void getConnection_holdsAPermitUntilClosedOnce() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(pool, 2, Duration.ofMillis(10));
+
+        Connection first = dataSource.getConnection();
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+        first.close();
+        first.close();
+
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void getConnection_whenAllPermitsAreTaken_timesOut() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(pool, 1, Duration.ofMillis(50));
+        Connection held = dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        held.close();
+        try (Connection next = dataSource.getConnection()) {
+            assertThat(next).isNotNull();
+        }
+    }
+
+    @Test
+    void getConnection_whenThePoolFails_returnsThePermit() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLTransientConnectionException("pool timeout"));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(pool, 1, Duration.ofMillis(10));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool timeout");
+
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void connection_delegatesOtherCallsAndUnwraps() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.isWrapperFor(Connection.class)).thenReturn(true);
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(pool, 1, Duration.ofMillis(10));
+
+        try (Connection limited = dataSource.getConnection()) {
+            assertThat(limited.getAutoCommit()).isTrue();
+            assertThat(limited.isWrapperFor(Connection.class)).isTrue();
+            assertThat(limited).isEqualTo(limited);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package be.ap.student.common.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class PrometheusEndpointTest {
+
+    @LocalServerPort
+    private int port;
+
+    private HttpResponse<String> post(HttpClient client, String json, String correlationId) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tickets"))
+                .header("Content-Type", "application/json")
+                .header("X-Correlation-Id", correlationId)
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void prometheus_exposesRequestServiceRepositoryPoolHibernateAndErrorMetricsWithExemplars() throws Exception {
+        String correlationId = "metrics-" + UUID.randomUUID().toString().substring(0, 8);
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            assertThat(post(client, """
+                    {"subject":"Printer on fire","description":"The printer on floor 2 is smoking again.",\
+                    "priority":"HIGH","userId":"%s"}""".formatted(UUID.randomUUID()), correlationId).statusCode())
+                    .isEqualTo(201);
+            assertThat(post(client, "{\"subject\":\"x\"}", correlationId).statusCode()).isEqualTo(400);
+
+            HttpResponse<String> scrape = client.send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/prometheus"))
+                            .header("Accept", "application/openmetrics-text; version=1.0.0")
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertThat(scrape.statusCode()).isEqualTo(200);
+            assertThat(scrape.body())
+                    .contains("http_server_requests_seconds_bucket{")
+                    .contains("uri=\"/api/tickets\"")
+                    .contains("tickets_service_seconds_count{exception=\"none\",method=\"create\"}")
+                    .contains("tickets_number_refill_seconds_bucket{")
+                    .contains("spring_data_repository_invocations_seconds_bucket{")
+                    .contains("repository=\"SupportTicketRepository\"")
+                    .contains("hikaricp_connections_max{")
+                    .contains("hibernate_transactions_total{")
+                    .contains("tickets_api_errors_total{code=\"VALIDATION_ERROR\",status=\"400\"}")
+                    .contains("trace_id=\"" + correlationId + "\"");
+        }
+    }
+}
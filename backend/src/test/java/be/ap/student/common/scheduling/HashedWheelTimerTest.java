@@ -0,0 +1,72 @@
+package be.ap.student.common.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HashedWheelTimerTest {
+
+    @Test
+    void schedule_firesAfterDelayRoundedToTick() throws Exception {
+        try (HashedWheelTimer timer = new HashedWheelTimer("test-timer", Duration.ofMillis(10), 8, Runnable::run)) {
+            CountDownLatch fired = new CountDownLatch(1);
+            AtomicLong firedAt = new AtomicLong();
+            long scheduledAt = System.nanoTime();
+
+            timer.schedule(() -> {
+                firedAt.set(System.nanoTime());
+                fired.countDown();
+            }, Duration.ofMillis(50));
+
+            assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(firedAt.get() - scheduledAt).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+            assertThat(timer.pendingCount()).isZero();
+        }
+    }
+
+    @Test
+    void schedule_delayLongerThanOneRotationWaitsForRemainingRounds() throws Exception {
+        // 4 buckets of 10 ms: a 150 ms delay wraps around the wheel three times.
+        try (HashedWheelTimer timer = new HashedWheelTimer("test-timer", Duration.ofMillis(10), 4, Runnable::run)) {
+            CountDownLatch fired = new CountDownLatch(1);
+            long scheduledAt = System.nanoTime();
+
+            timer.schedule(fired::countDown, Duration.ofMillis(150));
+
+            assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(System.nanoTime() - scheduledAt).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(150));
+        }
+    }
+
+    @Test
+    void schedule_manyTasksAllFire() throws Exception {
+        try (HashedWheelTimer timer = new HashedWheelTimer("test-timer", Duration.ofMillis(5), 64, Runnable::run)) {
+            CountDownLatch fired = new CountDownLatch(10_000);
+            for (int i = 0; i < 10_000; i++) {
+                timer.schedule(fired::countDown, Duration.ofMillis(i % 200));
+            }
+
+            assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    void stop_returnsUnfiredTasksAndRejectsNewOnes() {
+        HashedWheelTimer timer = new HashedWheelTimer("test-timer", Duration.ofMillis(10), 8, Runnable::run);
+        Runnable task = () -> { };
+        timer.schedule(task, Duration.ofMinutes(5));
+
+        List<Runnable> unfired = timer.stop();
+
+        assertThat(unfired).containsExactly(task);
+        assertThat(timer.pendingCount()).isZero();
+        assertThatThrownBy(() -> timer.schedule(task, Duration.ZERO)).isInstanceOf(IllegalStateException.class);
+    }
+}
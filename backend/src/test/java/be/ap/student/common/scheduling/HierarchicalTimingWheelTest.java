@@ -0,0 +1,104 @@
+package be.ap.student.common.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_772_366_400_000L; // 2026-03-01T12:00:00Z
+
+    @Test
+    void advance_firesAfterTheDeadlineTickEnds_neverEarly() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(Duration.ofSeconds(1), START);
+        List<String> fired = new ArrayList<>();
+        wheel.add("a", START + 2_500);
+
+        wheel.advance(START + 2_999, fired::add);
+        assertThat(fired).isEmpty();
+
+        wheel.advance(START + 3_000, fired::add);
+        assertThat(fired).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void add_pastDeadlineFiresOnNextAdvance() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(Duration.ofSeconds(1), START);
+        List<String> fired = new ArrayList<>();
+        wheel.advance(START + 10_000, fired::add);
+
+        wheel.add("late", START + 1_000);
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advance(START + 10_000, fired::add);
+        assertThat(fired).containsExactly("late");
+    }
+
+    @Test
+    void advance_cascadesFarDeadlinesDownTheLevels() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(Duration.ofSeconds(1), START);
+        List<String> fired = new ArrayList<>();
+        long fourHours = Duration.ofHours(4).toMillis();
+        long thirtyDays = Duration.ofDays(30).toMillis();
+        wheel.add("medium", START + fourHours);
+        wheel.add("month", START + thirtyDays);
+
+        for (long now = START; now < START + fourHours; now += 60_000) {
+            wheel.advance(now, fired::add);
+        }
+        assertThat(fired).isEmpty();
+        wheel.advance(START + fourHours + 1_000, fired::add);
+        assertThat(fired).containsExactly("medium");
+
+        wheel.advance(START + thirtyDays, fired::add);
+        assertThat(fired).containsExactly("medium");
+        wheel.advance(START + thirtyDays + 1_000, fired::add);
+        assertThat(fired).containsExactly("medium", "month");
+    }
+
+    @Test
+    void advance_millionDeadlinesAllFireInTickOrder() {
+        Duration tick = Duration.ofSeconds(1);
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(tick, START);
+        SplittableRandom random = new SplittableRandom(11);
+        long horizon = Duration.ofHours(8).toMillis();
+        for (int i = 0; i < 1_000_000; i++) {
+            long deadline = START + random.nextLong(horizon);
+            wheel.add(deadline, deadline);
+        }
+        assertThat(wheel.size()).isEqualTo(1_000_000);
+
+        // fired, early, out of order
+        long[] counts = new long[3];
+        long[] lastTick = {Long.MIN_VALUE};
+        for (long now = START; now <= START + horizon + 1_000; now += 1_000) {
+            long current = now;
+            wheel.advance(now, deadline -> {
+                counts[0]++;
+                if (deadline >= current) {
+                    counts[1]++;
+                }
+                if (deadline / 1_000 < lastTick[0]) {
+                    counts[2]++;
+                }
+                lastTick[0] = deadline / 1_000;
+            });
+        }
+
+        assertThat(counts).containsExactly(1_000_000, 0, 0);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void constructor_rejectsSubMillisecondTick() {
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<>(Duration.ofNanos(10), START))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
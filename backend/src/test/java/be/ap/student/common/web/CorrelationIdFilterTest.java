@@ -0,0 +1,117 @@
+package be.ap.student.common.web;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static be.ap.student.common.web.CorrelationIdFilter.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CorrelationIdFilterTest {
+
+    private final CorrelationIdFilter filter = new CorrelationIdFilter();
+
+    private String filter(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        FilterChain chain = (req, res) -> seen.set(MDC.get(MDC_KEY));
+        filter.doFilter(request, response, chain);
+        assertThat(MDC.get(MDC_KEY)).isNull();
+        return seen.get();
+    }
+
+    @Test
+    void doFilter_keepsValidInboundId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tickets");
+        request.addHeader(HEADER, "3f2a6c1e-9d4b-4e1a-8c55-0b7e2d9a1f64");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(filter(request, response)).isEqualTo("3f2a6c1e-9d4b-4e1a-8c55-0b7e2d9a1f64");
+        assertThat(response.getHeader(HEADER)).isEqualTo("3f2a6c1e-9d4b-4e1a-8c55-0b7e2d9a1f64");
+        assertThat(request.getAttribute(ATTRIBUTE)).isEqualTo("3f2a6c1e-9d4b-4e1a-8c55-0b7e2d9a1f64");
+    }
+
+    @Test
+    void doFilter_replacesMissingOrInvalidInboundId() throws Exception {
+        for (String header : new String[]{null, "", "  ", "a".repeat(MAX_LENGTH + 1), "x\r\nSet-Cookie: a=b", "<script>"}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tickets");
+            if (header != null) {
+                request.addHeader(HEADER, header);
+            }
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            String correlationId = filter(request, response);
+
+            assertThat(correlationId).hasSize(CorrelationIdGenerator.LENGTH).isNotEqualTo(header);
+            assertThat(response.getHeader(HEADER)).isEqualTo(correlationId);
+        }
+    }
+
+    @Test
+    void doFilter_reusesCachedIdOnLaterDispatch() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dashboard/stream");
+        request.setAttribute(ATTRIBUTE, "cached-id");
+        request.addHeader(HEADER, "ignored-id");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(filter(request, response)).isEqualTo("cached-id");
+        assertThat(response.getHeader(HEADER)).isNull();
+    }
+
+    @Test
+    void isValid_acceptsOnlyBoundedSafeCharacters() {
+        assertThat(isValid("abc-DEF_123.x")).isTrue();
+        assertThat(isValid("a".repeat(MAX_LENGTH))).isTrue();
+        assertThat(isValid("a".repeat(MAX_LENGTH + 1))).isFalse();
+        assertThat(isValid("with space")).isFalse();
+        assertThat(isValid("é")).isFalse();
+        assertThat(isValid(null)).isFalse();
+    }
+
+    @Test
+    void generator_producesSortableCrockfordIds() {
+        SplittableRandom random = new SplittableRandom(42);
+        String first = CorrelationIdGenerator.next(1_700_000_000_000L, random);
+        String second = CorrelationIdGenerator.next(1_700_000_000_001L, random);
+
+        assertThat(first).hasSize(26).matches("[0-9A-HJKMNP-TV-Z]{26}");
+        assertThat(first.substring(0, 10)).isEqualTo("01HF7YAT00");
+        assertThat(second).isGreaterThan(first);
+        assertThat(isValid(first)).isTrue();
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(CorrelationIdGenerator.next());
+        }
+        assertThat(ids).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void taskDecorator_carriesMdcIntoExecutorThreads() throws Exception {
+        CorrelationIdTaskDecorator decorator = new CorrelationIdTaskDecorator();
+        AtomicReference<String> seen = new AtomicReference<>();
+        Runnable task;
+        MDC.put(MDC_KEY, "async-id");
+        try {
+            task = decorator.decorate(() -> seen.set(MDC.get(MDC_KEY)));
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(task).get();
+        }
+        assertThat(seen.get()).isEqualTo("async-id");
+
+        task.run();
+        assertThat(MDC.get(MDC_KEY)).isNull();
+    }
+}
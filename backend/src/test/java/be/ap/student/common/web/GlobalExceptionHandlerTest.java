@@ -1,6 +1,15 @@
 package be.ap.student.common.web;
 
 import be.ap.student.common.api.ApiError;
+import be.ap.student.common.api.PreparedApiError;
+import be.ap.student.common.api.RequestValidationException;
+import be.ap.student.tickets.service.TicketExportRejectedException;
+import be.ap.student.tickets.service.TicketIngestionRejectedException;
+import be.ap.student.tickets.service.TicketNotFoundException;
+import be.ap.student.tickets.service.TicketQuotaExceededException;
+import be.ap.student.tickets.service.TicketValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,15 +18,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.UUID;
 
 import static be.ap.student.common.web.CorrelationIdFilter.MDC_KEY;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -26,6 +40,12 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class GlobalExceptionHandlerTest {
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private JsonMapper jsonMapper = JsonMapper.builder().build();
+
     @InjectMocks
     private GlobalExceptionHandler globalExceptionHandler;
 
@@ -94,6 +114,45 @@ public class GlobalExceptionHandlerTest {
         assertThat(response.getBody().getFieldErrors()).isEmpty();
     }
 
+    @Test
+    void handleTicketValidation_returnsBadRequestForTheSharedStacklessInstance() {
+        TicketValidationException ex = TicketValidationException.INVALID_PRIORITY;
+
+        ResponseEntity<ApiError> response = globalExceptionHandler.handleTicketValidation(ex);
+
+        assertThat(ex.getStackTrace()).isEmpty();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().getCode()).isEqualTo("BAD_REQUEST");
+        assertThat(response.getBody().getMessage()).isEqualTo("priority must be one of LOW, MEDIUM, HIGH");
+    }
+
+    @Test
+    void handleBusy_ingestionRejected_returnsServiceUnavailableWithRetryAfter() {
+        TicketIngestionRejectedException ex = new TicketIngestionRejectedException("Ticket ingestion queue is full");
+
+        ResponseEntity<ApiError> response = globalExceptionHandler.handleBusy(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getCorrelationId()).isEqualTo("test-correlation-id");
+        assertThat(response.getBody().getCode()).isEqualTo("SERVICE_BUSY");
+        assertThat(response.getBody().getMessage()).isEqualTo("Ticket ingestion queue is full");
+        assertThat(meterRegistry.get(GlobalExceptionHandler.ERRORS).tags("code", "SERVICE_BUSY", "status", "503")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void handleBusy_exportRejected_returnsServiceUnavailableWithRetryAfter() {
+        ResponseEntity<ApiError> response = globalExceptionHandler.handleBusy(
+                new TicketExportRejectedException("Too many exports in progress"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getBody().getCode()).isEqualTo("SERVICE_BUSY");
+        assertThat(response.getBody().getMessage()).isEqualTo("Too many exports in progress");
+    }
+
     @Test
     void handleGeneric_returnsInternalServerError() {
         Exception ex = new Exception("Generic error message");
@@ -107,4 +166,52 @@ public class GlobalExceptionHandlerTest {
         assertThat(response.getBody().getMessage()).isEqualTo("Something went wrong");
         assertThat(response.getBody().getFieldErrors()).isEmpty();
     }
+
+    @Test
+    void handleRequestValidation_returnsCachedTemplateWithFieldErrors() {
+        RequestValidationException ex = new RequestValidationException(List.of("subject", "userId"));
+
+        ResponseEntity<ApiError> first = globalExceptionHandler.handleRequestValidation(ex);
+        ResponseEntity<ApiError> second = globalExceptionHandler.handleRequestValidation(ex);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(first.getBody()).isInstanceOf(PreparedApiError.class);
+        assertThat(first.getBody().getCorrelationId()).isEqualTo("test-correlation-id");
+        assertThat(first.getBody().getCode()).isEqualTo("VALIDATION_ERROR");
+        assertThat(first.getBody().getFieldErrors()).containsExactly(
+                new ApiError.FieldError("subject", "invalid"), new ApiError.FieldError("userId", "invalid"));
+        assertThat(jsonMapper.writeValueAsString(second.getBody()))
+                .isEqualTo(jsonMapper.writeValueAsString(first.getBody()));
+        assertThat(meterRegistry.get(GlobalExceptionHandler.ERRORS).tags("code", "VALIDATION_ERROR", "status", "400")
+                .counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void handleNotFound_returnsNotFoundWithoutTheId() {
+        ResponseEntity<ApiError> response = globalExceptionHandler.handleNotFound(
+                new TicketNotFoundException(UUID.randomUUID()));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getCorrelationId()).isEqualTo("test-correlation-id");
+        assertThat(response.getBody().getCode()).isEqualTo("NOT_FOUND");
+        assertThat(response.getBody().getMessage()).isEqualTo("Ticket not found");
+    }
+
+    @Test
+    void handleQuotaExceeded_returnsTooManyRequestsWithRetryAfter() {
+        TicketQuotaExceededException ex = new TicketQuotaExceededException(
+                TicketQuotaExceededException.Limit.HIGH_PRIORITY_TICKETS,
+                "A user can create at most 2 HIGH priority tickets per day", Duration.ofMillis(90_500));
+
+        ResponseEntity<ApiError> response = globalExceptionHandler.handleQuotaExceeded(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("91");
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getCode()).isEqualTo("HIGH_PRIORITY_LIMIT_EXCEEDED");
+        assertThat(response.getBody().getMessage()).isEqualTo("A user can create at most 2 HIGH priority tickets per day");
+        assertThat(meterRegistry.get(GlobalExceptionHandler.ERRORS)
+                .tags("code", "HIGH_PRIORITY_LIMIT_EXCEEDED", "status", "429").counter().count()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,226 @@
+package be.ap.student.common.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static be.ap.student.common.web.IdempotencyKeyFilter.HEADER;
+import static be.ap.student.common.web.IdempotencyKeyFilter.REPLAYED_HEADER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class IdempotencyKeyFilterTest {
+
+    private static final String BODY = "{\"subject\":\"Cannot login\"}";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IdempotencyStore store = new IdempotencyStore(mock(JdbcTemplate.class), meterRegistry, 1000,
+            Duration.ofHours(24));
+    private final IdempotencyKeyFilter filter = new IdempotencyKeyFilter(store, meterRegistry,
+            JsonMapper.builder().build(), List.of("/api/tickets"), Duration.ofSeconds(5), DataSize.ofBytes(64));
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final FilterChain createTicket = (req, res) -> {
+        String body = new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        int n = executions.incrementAndGet();
+        ((jakarta.servlet.http.HttpServletResponse) res).setStatus(201);
+        res.setContentType("application/json");
+        res.getWriter().write("{\"ticketNumber\":\"TCK-2026-00000" + n + "\",\"echo\":" + body.length() + "}");
+    };
+
+    private static MockHttpServletRequest post(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/tickets");
+        if (key != null) {
+            request.addHeader(HEADER, key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void retryWithSameKey_isReplayedWithoutRunningTheRequest() throws Exception {
+        MockHttpServletResponse first = send(post("key-1", BODY), createTicket);
+        MockHttpServletResponse retry = send(post("key-1", BODY), createTicket);
+
+        assertThat(executions).hasValue(1);
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(first.getContentAsString()).isEqualTo("{\"ticketNumber\":\"TCK-2026-000001\",\"echo\":26}");
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(retry.getContentType()).isEqualTo("application/json");
+        assertThat(retry.getHeader(REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(first.getHeader(REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void requestsWithoutKeyOrOnOtherPaths_passThrough() throws Exception {
+        send(post(null, BODY), createTicket);
+        send(post(null, BODY), createTicket);
+        MockHttpServletRequest other = post("key-1", BODY);
+        other.setRequestURI("/api/tickets/batch");
+        send(other, createTicket);
+        send(other, createTicket);
+
+        assertThat(executions).hasValue(4);
+    }
+
+    @Test
+    void trailingSlashAndContextPath_shareTheKeyOfThePath() throws Exception {
+        send(post("key-1", BODY), createTicket);
+        MockHttpServletRequest trailingSlash = post("key-1", BODY);
+        trailingSlash.setRequestURI("/api/tickets/");
+        MockHttpServletRequest underContextPath = post("key-1", BODY);
+        underContextPath.setContextPath("/support");
+        underContextPath.setRequestURI("/support/api/tickets");
+
+        assertThat(send(trailingSlash, createTicket).getHeader(REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(send(underContextPath, createTicket).getHeader(REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void bodyOverMaxSize_isRejectedWith413() throws Exception {
+        String large = "{\"subject\":\"" + "x".repeat(64) + "\"}";
+        MockHttpServletRequest withLength = post("key-1", large);
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/api/tickets") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.addHeader(HEADER, "key-2");
+        chunked.setContent(large.getBytes(StandardCharsets.UTF_8));
+
+        for (MockHttpServletRequest request : List.of(withLength, chunked)) {
+            MockHttpServletResponse response = send(request, createTicket);
+
+            assertThat(response.getStatus()).isEqualTo(413);
+            assertThat(response.getContentAsString()).contains("\"code\":\"PAYLOAD_TOO_LARGE\"");
+        }
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void cachedBody_canBeReadWithAReadListener() throws Exception {
+        List<String> calls = new ArrayList<>();
+        FilterChain nonBlockingRead = (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    calls.add("data:" + new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    calls.add("done");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    calls.add("error");
+                }
+            });
+            ((jakarta.servlet.http.HttpServletResponse) res).setStatus(201);
+        };
+
+        send(post("key-1", BODY), nonBlockingRead);
+
+        assertThat(calls).containsExactly("data:" + BODY, "done");
+    }
+
+    @Test
+    void sameKeyWithDifferentBody_isRejected() throws Exception {
+        send(post("key-1", BODY), createTicket);
+
+        MockHttpServletResponse response = send(post("key-1", "{\"subject\":\"Something else\"}"), createTicket);
+
+        assertThat(response.getStatus()).isEqualTo(422);
+        assertThat(response.getContentAsString()).contains("\"code\":\"IDEMPOTENCY_KEY_REUSED\"");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void failedResponses_areNotStored() throws Exception {
+        FilterChain rejected = (req, res) -> {
+            executions.incrementAndGet();
+            ((jakarta.servlet.http.HttpServletResponse) res).setStatus(503);
+        };
+        send(post("key-1", BODY), rejected);
+
+        MockHttpServletResponse retry = send(post("key-1", BODY), createTicket);
+
+        assertThat(executions).hasValue(2);
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getHeader(REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void invalidKey_isRejected() throws Exception {
+        for (String key : new String[]{"", "with space", "k".repeat(IdempotencyKeyFilter.MAX_KEY_LENGTH + 1)}) {
+            MockHttpServletResponse response = send(post(key, BODY), createTicket);
+
+            assertThat(response.getStatus()).isEqualTo(400);
+        }
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void concurrentRetries_waitForTheFirstRequest() throws Exception {
+        int retries = 16;
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowCreate = (req, res) -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            createTicket.doFilter(req, res);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(retries);
+        List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+        try {
+            for (int i = 0; i < retries; i++) {
+                responses.add(executor.submit(() -> send(post("key-1", BODY), slowCreate)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<MockHttpServletResponse> response : responses) {
+                assertThat(response.get().getStatus()).isEqualTo(201);
+                assertThat(response.get().getContentAsString()).contains("TCK-2026-000001");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(executions).hasValue(1);
+        assertThat(meterRegistry.get("tickets.idempotency.replays").tag("source", "in-flight").counter().count())
+                .isEqualTo(retries - 1);
+    }
+}
@@ -0,0 +1,69 @@
+package be.ap.student.common.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class IdempotencyStoreTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Instant now = Instant.parse("2026-03-01T10:00:00Z");
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from idempotency_key");
+        store = store(now);
+    }
+
+    private IdempotencyStore store(Instant instant) {
+        return new IdempotencyStore(jdbcTemplate, new SimpleMeterRegistry(), 1000, Duration.ofHours(24),
+                Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    private static IdempotencyStore.StoredResponse created(String ticketNumber) {
+        return new IdempotencyStore.StoredResponse(42L, 201, "application/json",
+                ("{\"ticketNumber\":\"" + ticketNumber + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void storedResponses_areFoundByOtherNodesUntilTheyExpire() throws Exception {
+        assertThat(store.begin("/api/tickets key-1", WAIT)).isNull();
+        store.complete("/api/tickets key-1", created("TCK-2026-000001"));
+
+        IdempotencyStore.StoredResponse replayed = store(now.plus(Duration.ofHours(23))).begin("/api/tickets key-1", WAIT);
+        assertThat(replayed).isNotNull();
+        assertThat(replayed.status()).isEqualTo(201);
+        assertThat(new String(replayed.body(), StandardCharsets.UTF_8)).contains("TCK-2026-000001");
+        assertThat(replayed.fingerprint()).isEqualTo(42L);
+
+        IdempotencyStore later = store(now.plus(Duration.ofHours(25)));
+        assertThat(later.begin("/api/tickets key-1", WAIT)).isNull();
+        assertThat(later.purgeExpired()).isEqualTo(1);
+    }
+
+    @Test
+    void failedResponses_releaseTheKeyWithoutStoringIt() throws Exception {
+        assertThat(store.begin("/api/tickets key-2", WAIT)).isNull();
+        store.complete("/api/tickets key-2", new IdempotencyStore.StoredResponse(42L, 400, null, new byte[0]));
+
+        assertThat(store.begin("/api/tickets key-2", WAIT)).isNull();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from idempotency_key", Integer.class)).isZero();
+    }
+}
@@ -0,0 +1,43 @@
+package be.ap.student.config;
+
+import be.ap.student.common.jdbc.ConnectionLimitingDataSource;
+import be.ap.student.common.threads.VirtualThreadPinningMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:virtual-threads;DB_CLOSE_DELAY=-1"
+})
+public class VirtualThreadConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @Test
+    void virtualMode_limitsConnectionsToThePoolSize() throws SQLException {
+        assertThat(dataSource).isInstanceOf(ConnectionLimitingDataSource.class);
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        // Scheduled jobs and background writers may hold a connection right now, so only the upper bound
+        // is exact here; ConnectionLimitingDataSourceTest covers the limit itself.
+        assertThat(((ConnectionLimitingDataSource) dataSource).availablePermits())
+                .isBetween(0, hikari.getMaximumPoolSize());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM support_ticket", Long.class)).isNotNull();
+        assertThat(pinningMonitor.isRunning()).isTrue();
+    }
+}
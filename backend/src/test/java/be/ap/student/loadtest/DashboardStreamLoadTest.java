@@ -0,0 +1,163 @@
+package be.ap.student.loadtest;
+
+import be.ap.student.tickets.dto.CreateTicketRequest;
+import be.ap.student.tickets.service.DashboardStreamService;
+import be.ap.student.tickets.service.TicketService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Opens {@code load.subscribers} (default 10 000) dashboard streams against one embedded server,
+ * creates a ticket and measures how long the fan-out takes to reach every subscriber.
+ * <p>
+ * Client and server share this JVM, so each subscriber costs two sockets: 10 000 subscribers need an
+ * open-file limit above 20 000 ({@code ulimit -n}). Run with
+ * {@code mvn -P load-tests test -Dtest=DashboardStreamLoadTest [-Dload.subscribers=N]}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "tickets.dashboard.stream.interval=PT1S")
+public class DashboardStreamLoadTest {
+
+    private static final int SUBSCRIBERS = Integer.getInteger("load.subscribers", 10_000);
+    private static final int CONCURRENT_CONNECTS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private DashboardStreamService streamService;
+
+    @Test
+    void fanOutReachesAllSubscribers() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        HttpRequest subscribe = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/dashboard/stream"))
+                .build();
+
+        CountDownLatch connected = new CountDownLatch(SUBSCRIBERS);
+        CountDownLatch updated = new CountDownLatch(SUBSCRIBERS);
+        AtomicInteger failures = new AtomicInteger();
+        List<FrameCounter> counters = new ArrayList<>(SUBSCRIBERS);
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(SUBSCRIBERS);
+
+        // Ramp up with a bounded number of handshakes in flight instead of a SYN flood on the accept queue.
+        Semaphore connecting = new Semaphore(CONCURRENT_CONNECTS);
+        long connectStart = System.nanoTime();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            connecting.acquire();
+            FrameCounter counter = new FrameCounter(connected, updated, connecting);
+            counters.add(counter);
+            responses.add(client.sendAsync(subscribe, HttpResponse.BodyHandlers.fromLineSubscriber(counter))
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            failures.incrementAndGet();
+                            connecting.release();
+                        }
+                    }));
+        }
+        boolean allConnected = connected.await(120, TimeUnit.SECONDS);
+        assertThat(allConnected)
+                .as("all subscribers received the initial frame (missing=%d, registered=%d, failures=%d)",
+                        connected.getCount(), streamService.subscriberCount(), failures.get())
+                .isTrue();
+        long connectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
+        assertThat(streamService.subscriberCount()).isGreaterThanOrEqualTo(SUBSCRIBERS);
+
+        CreateTicketRequest req = new CreateTicketRequest();
+        req.setSubject("Load test fan-out");
+        req.setDescription("Ticket created to trigger one dashboard frame.");
+        req.setPriority("HIGH");
+        req.setUserId(UUID.randomUUID().toString());
+        long createdAt = System.nanoTime();
+        ticketService.create(req);
+
+        assertThat(updated.await(30, TimeUnit.SECONDS)).as("all subscribers received the update").isTrue();
+        long fanOutMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createdAt);
+        System.out.printf("dashboard_stream_load subscribers=%d connectMs=%d fanOutMs=%d failures=%d%n",
+                SUBSCRIBERS, connectMillis, fanOutMillis, failures.get());
+
+        assertThat(failures.get()).isZero();
+        // One tick interval plus the time to write 10k small frames.
+        assertThat(fanOutMillis).isLessThan(10_000);
+
+        counters.forEach(FrameCounter::cancel);
+        responses.forEach(response -> response.cancel(true));
+        client.close();
+    }
+
+    private static final class FrameCounter implements Flow.Subscriber<String> {
+
+        private final CountDownLatch connected;
+        private final CountDownLatch updated;
+        private final Semaphore connecting;
+        private int frames;
+        private volatile Flow.Subscription subscription;
+
+        private FrameCounter(CountDownLatch connected, CountDownLatch updated, Semaphore connecting) {
+            this.connected = connected;
+            this.updated = updated;
+            this.connecting = connecting;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (!line.startsWith("data:")) {
+                return;
+            }
+            frames++;
+            if (frames == 1) {
+                connected.countDown();
+                connecting.release();
+            } else if (frames == 2) {
+                updated.countDown();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        void cancel() {
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package be.ap.student.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Result of one {@link OpenLoopLoadGenerator} run: a latency histogram and error count per operation.
+ */
+public final class LoadReport {
+
+    /**
+     * Latency objective: the {@code percentile} (e.g. 95.0) of {@code operation} must stay below {@code limit}.
+     */
+    public record Slo(String operation, double percentile, Duration limit, String source) {
+    }
+
+    public record OperationReport(String name, Histogram latencyMicros, long errors, long dropped) {
+
+        public long count() {
+            return latencyMicros.getTotalCount();
+        }
+
+        public double percentileMillis(double percentile) {
+            return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+
+    private final double ratePerSecond;
+    private final Duration duration;
+    private final List<OperationReport> operations;
+
+    LoadReport(double ratePerSecond, Duration duration, List<OperationReport> operations) {
+        this.ratePerSecond = ratePerSecond;
+        this.duration = duration;
+        this.operations = List.copyOf(operations);
+    }
+
+    public List<OperationReport> operations() {
+        return operations;
+    }
+
+    public OperationReport operation(String name) {
+        return operations.stream()
+                .filter(operation -> operation.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No operation " + name));
+    }
+
+    /**
+     * Failed, unexpected-status and dropped requests over all operations.
+     */
+    public long errors() {
+        return operations.stream().mapToLong(operation -> operation.errors() + operation.dropped()).sum();
+    }
+
+    /**
+     * One line per breached objective; empty when all hold. An operation without samples breaches its
+     * objectives, so a mix that silently stopped sending one kind of request does not pass.
+     */
+    public List<String> violations(List<Slo> slos) {
+        List<String> violations = new ArrayList<>();
+        for (Slo slo : slos) {
+            OperationReport operation = operation(slo.operation());
+            double limitMillis = slo.limit().toNanos() / 1_000_000.0;
+            if (operation.count() == 0) {
+                violations.add(String.format("%s: no samples for p%s (%s)", slo.operation(), slo.percentile(),
+                        slo.source()));
+            } else if (operation.percentileMillis(slo.percentile()) > limitMillis) {
+                violations.add(String.format("%s: p%s %.1fms > %.0fms (%s)", slo.operation(), slo.percentile(),
+                        operation.percentileMillis(slo.percentile()), limitMillis, slo.source()));
+            }
+        }
+        return violations;
+    }
+
+    @Override
+    public String toString() {
+        return operations.stream()
+                .map(operation -> String.format("load_report operation=%s rate=%.0f/s durationS=%d count=%d "
+                                + "p50Ms=%.1f p95Ms=%.1f p99Ms=%.1f maxMs=%.1f errors=%d dropped=%d",
+                        operation.name(), ratePerSecond, duration.toSeconds(), operation.count(),
+                        operation.percentileMillis(50), operation.percentileMillis(95),
+                        operation.percentileMillis(99), operation.latencyMicros().getMaxValue() / 1000.0,
+                        operation.errors(), operation.dropped()))
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+}
@@ -0,0 +1,95 @@
+package be.ap.student.loadtest;
+
+import be.ap.student.BackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Standalone entry point for the {@link TicketApiScenarios}, for runs against a deployed instance or
+ * from a separate load machine. Exits with 1 when a request failed or an objective was breached.
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) be.ap.student.loadtest.LoadTestRunner \
+ *     [--target=http://host:9090] [--scenario=all|tickets|search|dashboard] [--rate=50] \
+ *     [--duration=PT30S] [--warmup=PT10S] [--max-in-flight=2000]
+ * </pre>
+ * Without {@code --target} the application is started in this JVM on a random port against H2.
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "true");
+        }
+        String scenario = options.getOrDefault("scenario", "all");
+        double rate = Double.parseDouble(options.getOrDefault("rate", "50"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT30S"));
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT10S"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "2000"));
+
+        ConfigurableApplicationContext context = null;
+        URI target;
+        if (options.containsKey("target")) {
+            target = URI.create(options.get("target"));
+        } else {
+            context = new SpringApplicationBuilder(BackendApplication.class)
+                    .run("--server.port=0", "--logging.level.be.ap.student=WARN");
+            target = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+        }
+
+        List<String> failures = new ArrayList<>();
+        try (HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build()) {
+            TicketApiScenarios scenarios = new TicketApiScenarios(client, target);
+            if (scenario.equals("all") || scenario.equals("tickets")) {
+                LoadReport report = new OpenLoopLoadGenerator(client, scenarios.ticketMix(scenarios.seed(200)),
+                        rate, maxInFlight).run(warmup, duration);
+                failures.addAll(check(report, TicketApiScenarios.FEATURE_001_SLOS));
+            }
+            if (scenario.equals("all") || scenario.equals("search")) {
+                scenarios.seed(500);
+                LoadReport report = new OpenLoopLoadGenerator(client, scenarios.searchMix(), rate, maxInFlight)
+                        .run(warmup, duration);
+                failures.addAll(check(report, TicketApiScenarios.FEATURE_002_SLOS));
+            }
+            if (scenario.equals("all") || scenario.equals("dashboard")) {
+                LoadReport report = new OpenLoopLoadGenerator(client, scenarios.dashboardMix(), rate, maxInFlight)
+                        .run(warmup, duration);
+                failures.addAll(check(report, TicketApiScenarios.FEATURE_003_SLOS));
+            }
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+
+        failures.forEach(failure -> System.out.println("load_slo_breached " + failure));
+        System.exit(failures.isEmpty() ? 0 : 1);
+    }
+
+    private static List<String> check(LoadReport report, List<LoadReport.Slo> slos) {
+        System.out.println(report);
+        List<String> failures = new ArrayList<>(report.violations(slos));
+        if (report.errors() > 0) {
+            failures.add(report.errors() + " failed or dropped requests");
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,125 @@
+package be.ap.student.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-loop HTTP load at a constant arrival rate.
+ * <p>
+ * Request {@code i} is due at {@code start + i / rate}, whether or not earlier requests have
+ * completed, and its latency is measured from that due time rather than from when it was actually
+ * sent. A server that stalls therefore shows up in the percentiles as the queueing it causes, instead
+ * of quietly slowing the generator down (coordinated omission). Requests are sent asynchronously; at
+ * most {@code maxInFlight} are outstanding, and a request that finds no room is counted as dropped,
+ * which fails the run like any other error.
+ * <p>
+ * Latencies are recorded per operation in HdrHistogram, in microseconds with three significant digits.
+ */
+public final class OpenLoopLoadGenerator {
+
+    /**
+     * One kind of request in the mix, picked with probability {@code weight / sum of weights}.
+     */
+    public record Operation(String name, int weight, Supplier<HttpRequest> request, int expectedStatus) {
+    }
+
+    private final HttpClient client;
+    private final List<Operation> operations;
+    private final int totalWeight;
+    private final double ratePerSecond;
+    private final int maxInFlight;
+
+    public OpenLoopLoadGenerator(HttpClient client, List<Operation> operations, double ratePerSecond, int maxInFlight) {
+        this.client = client;
+        this.operations = List.copyOf(operations);
+        this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        this.ratePerSecond = ratePerSecond;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Runs {@code warmup} unrecorded, then {@code duration} recorded, and waits for the stragglers.
+     */
+    public LoadReport run(Duration warmup, Duration duration) throws InterruptedException {
+        Map<String, OperationStats> stats = new LinkedHashMap<>();
+        operations.forEach(operation -> stats.put(operation.name(), new OperationStats()));
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long due = start + i * intervalNanos;
+            if (due >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = pick();
+            OperationStats operationStats = due >= measureFrom ? stats.get(operation.name()) : null;
+            if (!inFlight.tryAcquire()) {
+                if (operationStats != null) {
+                    operationStats.dropped.incrementAndGet();
+                }
+                continue;
+            }
+            client.sendAsync(operation.request().get(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        if (operationStats == null) {
+                            return;
+                        }
+                        operationStats.latencyMicros.recordValue(
+                                Math.max(0, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due)));
+                        if (error != null || response.statusCode() != operation.expectedStatus()) {
+                            operationStats.errors.incrementAndGet();
+                        }
+                    });
+        }
+        if (!inFlight.tryAcquire(maxInFlight, 60, TimeUnit.SECONDS)) {
+            throw new IllegalStateException((maxInFlight - inFlight.availablePermits())
+                    + " requests still running 60s after the last was sent");
+        }
+
+        List<LoadReport.OperationReport> reports = new ArrayList<>();
+        stats.forEach((name, operationStats) -> reports.add(new LoadReport.OperationReport(name,
+                operationStats.latencyMicros.copy(), operationStats.errors.get(), operationStats.dropped.get())));
+        return new LoadReport(ratePerSecond, duration, reports);
+    }
+
+    private Operation pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : operations) {
+            ticket -= operation.weight();
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("No operations");
+    }
+
+    private static final class OperationStats {
+
+        private final Histogram latencyMicros = new ConcurrentHistogram(3);
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+    }
+}
@@ -0,0 +1,173 @@
+package be.ap.student.loadtest;
+
+import be.ap.student.BackendApplication;
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.repo.SupportTicketBatchWriter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same closed-loop load against the app in platform-thread and in virtual-thread mode
+ * ({@code spring.threads.virtual.enabled}) and prints throughput and latency percentiles for both.
+ * <p>
+ * {@code load.connections} clients (default 1000) each keep one connection busy for {@code load.duration}
+ * (default 30s), alternating {@code GET /api/tickets/{id}} on random ids out of 10 000 tickets with a
+ * status/priority search, which always queries the database. Client and server share this JVM, so each
+ * connection costs two sockets: 10 000 connections need {@code ulimit -n} above 20 000, and a 50 000
+ * run needs a separate client machine. Numbers from a single-core container say little about either
+ * mode; compare them on the target hardware. Run with
+ * {@code mvn -P load-tests test -Dtest=ThreadingModeLoadTest [-Dload.connections=N] [-Dload.duration=PT60S]}.
+ */
+@Tag("load")
+public class ThreadingModeLoadTest {
+
+    private static final int CONNECTIONS = Integer.getInteger("load.connections", 1000);
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final int TICKETS = 10_000;
+
+    @Test
+    void platformAndVirtualThreadsServeTheSameLoadWithoutErrors() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+        System.out.println(platform);
+        System.out.println(virtual);
+
+        assertThat(platform.errors).as("errors with platform threads").isZero();
+        assertThat(virtual.errors).as("errors with virtual threads").isZero();
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                // Arguments rather than default properties, which application.properties would override.
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:threading-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "--server.tomcat.accept-count=" + CONNECTIONS,
+                        "--logging.level.be.ap.student=WARN")) {
+            UUID[] ids = seed(context.getBean(SupportTicketBatchWriter.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            drive(port, ids, WARMUP);
+            Result result = drive(port, ids, DURATION);
+            result.mode = mode;
+            return result;
+        }
+    }
+
+    private static UUID[] seed(SupportTicketBatchWriter batchWriter) {
+        UUID[] ids = new UUID[TICKETS];
+        List<SupportTicket> tickets = new ArrayList<>(TICKETS);
+        for (int i = 0; i < TICKETS; i++) {
+            ids[i] = UUID.randomUUID();
+            tickets.add(new SupportTicket("TCK-T-" + i, ids[i], "Threading subject " + i, "Threading load test",
+                    Priority.values()[i % 3], TicketStatus.PENDING, Instant.now()));
+        }
+        batchWriter.insertAll(tickets);
+        return ids;
+    }
+
+    private static Result drive(int port, UUID[] ids, Duration duration) throws InterruptedException {
+        String base = "http://localhost:" + port + "/api/tickets";
+        HttpRequest search = HttpRequest.newBuilder(URI.create(base + "?status=PENDING&priority=HIGH&limit=20"))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        AtomicLong errors = new AtomicLong();
+        ConcurrentLinkedQueue<long[]> latencies = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(CONNECTIONS);
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(30))
+                .build()) {
+            for (int c = 0; c < CONNECTIONS; c++) {
+                Thread.ofVirtual().start(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    try {
+                        for (int i = 0; System.nanoTime() < deadline; i++) {
+                            HttpRequest request = i % 2 == 0 ? search : HttpRequest.newBuilder(
+                                    URI.create(base + "/" + ids[ThreadLocalRandom.current().nextInt(ids.length)]))
+                                    .timeout(Duration.ofSeconds(60))
+                                    .build();
+                            long start = System.nanoTime();
+                            try {
+                                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                                if (response.statusCode() != 200) {
+                                    errors.incrementAndGet();
+                                    continue;
+                                }
+                            } catch (Exception e) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                            if (count == samples.length) {
+                                samples = Arrays.copyOf(samples, count * 2);
+                            }
+                            samples[count++] = System.nanoTime() - start;
+                        }
+                    } finally {
+                        latencies.add(Arrays.copyOf(samples, count));
+                        done.countDown();
+                    }
+                });
+            }
+            done.await(duration.toSeconds() + 120, TimeUnit.SECONDS);
+        }
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, errors.get(), duration);
+    }
+
+    private static final class Result {
+
+        private final long[] sortedNanos;
+        private final long errors;
+        private final Duration duration;
+        private String mode;
+
+        private Result(long[] sortedNanos, long errors, Duration duration) {
+            this.sortedNanos = sortedNanos;
+            this.errors = errors;
+            this.duration = duration;
+        }
+
+        private double percentileMillis(double percentile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+            return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("threading_mode_load mode=%s connections=%d requests=%d throughput=%.0f/s "
+                            + "p50Ms=%.1f p99Ms=%.1f p999Ms=%.1f errors=%d",
+                    mode, CONNECTIONS, sortedNanos.length, sortedNanos.length / (double) duration.toSeconds(),
+                    percentileMillis(0.50), percentileMillis(0.99), percentileMillis(0.999), errors);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package be.ap.student.loadtest;
+
+import be.ap.student.loadtest.LoadReport.Slo;
+import be.ap.student.loadtest.OpenLoopLoadGenerator.Operation;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Request mixes and latency objectives for the ticket API, shared by {@link TicketApiSloLoadTest} and
+ * {@link LoadTestRunner}. Only the public HTTP API is used, so the same scenarios run against an
+ * embedded server or a deployed one.
+ */
+public final class TicketApiScenarios {
+
+    static final String CREATE = "create";
+    static final String GET_BY_ID = "getById";
+    static final String VALIDATION_ERROR = "validationError";
+    static final String SEARCH = "search";
+    static final String SEARCH_NEXT_PAGE = "searchNextPage";
+    static final String DASHBOARD = "dashboard";
+
+    /**
+     * feature-001 NFR-001 sets p95 for create. The other limits are the team's own objectives: the read
+     * and error paths held to the same p95, and p99 with room for the tail.
+     */
+    public static final List<Slo> FEATURE_001_SLOS = List.of(
+            new Slo(CREATE, 95, Duration.ofMillis(300), "feature-001 NFR-001"),
+            new Slo(CREATE, 99, Duration.ofMillis(800), "team objective"),
+            new Slo(GET_BY_ID, 95, Duration.ofMillis(300), "team objective"),
+            new Slo(GET_BY_ID, 99, Duration.ofMillis(800), "team objective"),
+            new Slo(VALIDATION_ERROR, 95, Duration.ofMillis(300), "team objective"),
+            new Slo(VALIDATION_ERROR, 99, Duration.ofMillis(800), "team objective"));
+
+    /**
+     * feature-002 NFR-001: fetching tickets stays below p95 300ms at normal dataset size. The p99 limits
+     * are the team's own objectives.
+     */
+    public static final List<Slo> FEATURE_002_SLOS = List.of(
+            new Slo(SEARCH, 95, Duration.ofMillis(300), "feature-002 NFR-001"),
+            new Slo(SEARCH, 99, Duration.ofMillis(800), "team objective"),
+            new Slo(SEARCH_NEXT_PAGE, 95, Duration.ofMillis(300), "feature-002 NFR-001"),
+            new Slo(SEARCH_NEXT_PAGE, 99, Duration.ofMillis(800), "team objective"));
+
+    /**
+     * feature-003 NFR-001: the dashboard is fully loaded within 2 seconds; held for p99, so
+     * practically every load. The p95 limit is the team's own objective.
+     */
+    public static final List<Slo> FEATURE_003_SLOS = List.of(
+            new Slo(DASHBOARD, 95, Duration.ofMillis(300), "team objective"),
+            new Slo(DASHBOARD, 99, Duration.ofSeconds(2), "feature-003 NFR-001"));
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    public TicketApiScenarios(HttpClient client, URI baseUri) {
+        this.client = client;
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * Creates {@code count} tickets through the API and returns the ids of up to {@code count} tickets
+     * found by searching, so {@code getById} has real ids to ask for.
+     */
+    public List<UUID> seed(int count) throws IOException, InterruptedException {
+        for (int i = 0; i < count; i++) {
+            HttpResponse<Void> response = client.send(create(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode());
+            }
+        }
+        List<UUID> ids = new ArrayList<>(count);
+        String cursor = null;
+        do {
+            HttpResponse<String> response = client.send(get("/api/tickets?limit=100"
+                    + (cursor == null ? "" : "&cursor=" + encode(cursor))), HttpResponse.BodyHandlers.ofString());
+            JsonNode page = jsonMapper.readTree(response.body());
+            page.get("items").forEach(item -> ids.add(UUID.fromString(item.get("id").asString())));
+            cursor = page.path("nextCursor").isString() ? page.get("nextCursor").asString() : null;
+        } while (cursor != null && ids.size() < count);
+        return ids;
+    }
+
+    /**
+     * feature-001: half creates, the rest lookups by id and requests rejected by validation.
+     */
+    public List<Operation> ticketMix(List<UUID> ids) {
+        return List.of(
+                new Operation(CREATE, 50, this::create, 201),
+                new Operation(GET_BY_ID, 40,
+                        () -> get("/api/tickets/" + ids.get(ThreadLocalRandom.current().nextInt(ids.size()))), 200),
+                new Operation(VALIDATION_ERROR, 10, this::invalidCreate, 400));
+    }
+
+    /**
+     * feature-002: filtered first pages and a deeper page behind a cursor.
+     */
+    public List<Operation> searchMix() throws IOException, InterruptedException {
+        HttpResponse<String> firstPage = client.send(get("/api/tickets?limit=20"), HttpResponse.BodyHandlers.ofString());
+        JsonNode nextCursor = jsonMapper.readTree(firstPage.body()).path("nextCursor");
+        String secondPage = "/api/tickets?limit=20" + (nextCursor.isString() ? "&cursor=" + encode(nextCursor.asString()) : "");
+        String[] priorities = {"LOW", "MEDIUM", "HIGH"};
+        return List.of(
+                new Operation(SEARCH, 80, () -> get("/api/tickets?status=PENDING&limit=20&priority="
+                        + priorities[ThreadLocalRandom.current().nextInt(priorities.length)]), 200),
+                new Operation(SEARCH_NEXT_PAGE, 20, () -> get(secondPage), 200));
+    }
+
+    /**
+     * feature-003: dashboard loads, with some creates so the figures keep changing.
+     */
+    public List<Operation> dashboardMix() {
+        return List.of(
+                new Operation(DASHBOARD, 90, () -> get("/api/dashboard"), 200),
+                new Operation(CREATE, 10, this::create, 201));
+    }
+
+    private HttpRequest create() {
+        return post("""
+                {"subject":"Cannot login to portal","description":"Load test ticket: I cannot login since yesterday.",\
+                "priority":"%s","userId":"%s"}""".formatted(
+                ThreadLocalRandom.current().nextBoolean() ? "MEDIUM" : "HIGH", UUID.randomUUID()));
+    }
+
+    private HttpRequest invalidCreate() {
+        return post("""
+                {"subject":"x","description":"too short","priority":"MEDIUM","userId":"%s"}""".formatted(UUID.randomUUID()));
+    }
+
+    private HttpRequest post(String json) {
+        return HttpRequest.newBuilder(baseUri.resolve("/api/tickets"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static String encode(String cursor) {
+        return URLEncoder.encode(cursor, StandardCharsets.UTF_8);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package be.ap.student.loadtest;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Open-loop load against an embedded server on a random port, failing when a latency requirement of
+ * feature-001, -002 or -003 or a team objective is breached, or any request fails.
+ * <p>
+ * Each scenario runs at {@code load.rate} requests per second (default 50) for {@code load.duration}
+ * (default 30s) after {@code load.warmup} (default 10s). Run with
+ * {@code mvn -P load-tests test -Dtest=TicketApiSloLoadTest [-Dload.rate=200] [-Dload.duration=PT60S]};
+ * use {@link LoadTestRunner} to point the same scenarios at a deployed instance.
+ */
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.level.be.ap.student=WARN")
+public class TicketApiSloLoadTest {
+
+    private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "50"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+    private static final int MAX_IN_FLIGHT = 2000;
+
+    @LocalServerPort
+    private int port;
+
+    private HttpClient client;
+    private TicketApiScenarios scenarios;
+
+    @BeforeAll
+    void setUp() {
+        client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        scenarios = new TicketApiScenarios(client, URI.create("http://localhost:" + port));
+    }
+
+    @AfterAll
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void feature001_ticketApiMeetsItsLatencyObjectives() throws Exception {
+        List<UUID> ids = scenarios.seed(200);
+        LoadReport report = generator(scenarios.ticketMix(ids)).run(WARMUP, DURATION);
+
+        assertWithin(report, TicketApiScenarios.FEATURE_001_SLOS);
+    }
+
+    @Test
+    void feature002_searchMeetsItsLatencyObjectives() throws Exception {
+        scenarios.seed(500);
+        LoadReport report = generator(scenarios.searchMix()).run(WARMUP, DURATION);
+
+        assertWithin(report, TicketApiScenarios.FEATURE_002_SLOS);
+    }
+
+    @Test
+    void feature003_dashboardMeetsItsLatencyObjectives() throws Exception {
+        LoadReport report = generator(scenarios.dashboardMix()).run(WARMUP, DURATION);
+
+        assertWithin(report, TicketApiScenarios.FEATURE_003_SLOS);
+    }
+
+    private OpenLoopLoadGenerator generator(List<OpenLoopLoadGenerator.Operation> operations) {
+        return new OpenLoopLoadGenerator(client, operations, RATE, MAX_IN_FLIGHT);
+    }
+
+    private static void assertWithin(LoadReport report, List<LoadReport.Slo> slos) {
+        System.out.println(report);
+        assertThat(report.errors()).as("failed or dropped requests").isZero();
+        assertThat(report.violations(slos)).as("breached objectives").isEmpty();
+    }
+}
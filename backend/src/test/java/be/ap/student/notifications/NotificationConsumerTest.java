@@ -0,0 +1,143 @@
+package be.ap.student.notifications;
+
+import be.ap.student.tickets.event.InMemoryEventBus;
+import be.ap.student.tickets.event.OutboxMessage;
+import be.ap.student.tickets.event.TicketCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NotificationConsumerTest {
+
+    private final InMemoryEventBus eventBus = new InMemoryEventBus();
+    private final ProcessedEventStore processedEvents = mock(ProcessedEventStore.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final DeadLetterQueue deadLetters = mock(DeadLetterQueue.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final NotificationConsumer consumer = new NotificationConsumer(eventBus, processedEvents,
+            notificationService, deadLetters, meterRegistry, 100, 10, 4,
+            List.of(Duration.ofMillis(50), Duration.ofMillis(100)));
+
+    private static OutboxMessage message() {
+        return new OutboxMessage(1, UUID.randomUUID(), TicketCreatedEvent.TOPIC, "TicketCreatedEvent", "corr-1",
+                "{}", Instant.now());
+    }
+
+    @BeforeEach
+    void start() {
+        when(processedEvents.claimUnprocessed(anyList())).thenAnswer(call -> List.copyOf(call.getArgument(0)));
+        consumer.start();
+    }
+
+    @AfterEach
+    void stop() {
+        consumer.stop();
+    }
+
+    @Test
+    void event_isSentAndMarkedProcessed() {
+        OutboxMessage message = message();
+
+        eventBus.publish(List.of(message));
+
+        verify(processedEvents, timeout(2000)).markProcessed(message.eventId());
+        verify(notificationService).notify(message);
+        assertThat(meterRegistry.counter("notifications.sent").count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedProcessedMarker_isNotRetried() throws Exception {
+        OutboxMessage message = message();
+        doThrow(new IllegalStateException("database down")).when(processedEvents).markProcessed(message.eventId());
+
+        eventBus.publish(List.of(message));
+
+        verify(processedEvents, timeout(2000)).markProcessed(message.eventId());
+        Thread.sleep(200);
+        verify(notificationService, times(1)).notify(message);
+        verify(deadLetters, never()).add(any(), anyString(), anyInt());
+        assertThat(meterRegistry.counter("notifications.mark-processed.failures").count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedSend_isRetriedThenSucceeds() {
+        OutboxMessage message = message();
+        doThrow(new IllegalStateException("smtp down")).doNothing().when(notificationService).notify(message);
+
+        eventBus.publish(List.of(message));
+
+        verify(processedEvents, timeout(2000)).markProcessed(message.eventId());
+        verify(notificationService, times(2)).notify(message);
+        verify(deadLetters, never()).add(any(), anyString(), eq(2));
+        assertThat(meterRegistry.counter("notifications.retried").count()).isEqualTo(1);
+    }
+
+    @Test
+    void sendFailingOnEveryAttempt_goesToDeadLetterQueueAfterLastRetry() {
+        OutboxMessage message = message();
+        doThrow(new IllegalStateException("mailbox full")).when(notificationService).notify(message);
+
+        eventBus.publish(List.of(message));
+
+        // Initial attempt plus one per retry delay.
+        verify(deadLetters, timeout(2000)).add(message, "mailbox full", 3);
+        verify(notificationService, times(3)).notify(message);
+        verify(processedEvents).markProcessed(message.eventId());
+    }
+
+    @Test
+    void alreadyProcessedEvent_isNotSent() throws Exception {
+        OutboxMessage message = message();
+        when(processedEvents.claimUnprocessed(anyList())).thenReturn(List.of());
+
+        eventBus.publish(List.of(message));
+
+        verify(processedEvents, timeout(2000)).claimUnprocessed(anyList());
+        Thread.sleep(100);
+        verify(notificationService, never()).notify(any());
+    }
+
+    @Test
+    void stop_deadLettersEventsWaitingForRetry() {
+        InMemoryEventBus otherBus = new InMemoryEventBus();
+        NotificationConsumer slowRetries = new NotificationConsumer(otherBus, processedEvents, notificationService,
+                deadLetters, meterRegistry, 100, 10, 4, List.of(Duration.ofMinutes(5)));
+        slowRetries.start();
+        OutboxMessage message = message();
+        doThrow(new IllegalStateException("smtp down")).when(notificationService).notify(message);
+
+        otherBus.publish(List.of(message));
+        awaitPendingRetry(slowRetries);
+        slowRetries.stop();
+
+        verify(deadLetters).add(message, "Stopped before retry", 1);
+        verify(processedEvents).markProcessed(message.eventId());
+    }
+
+    private static void awaitPendingRetry(NotificationConsumer consumer) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (consumer.pendingRetries() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package be.ap.student.notifications;
+
+import be.ap.student.tickets.event.OutboxMessage;
+import be.ap.student.tickets.event.TicketCreatedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class ProcessedEventStoreTest {
+
+    @Autowired
+    private ProcessedEventStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static OutboxMessage message(UUID eventId) {
+        return new OutboxMessage(1, eventId, TicketCreatedEvent.TOPIC, "TicketCreatedEvent", "corr-1", "{}",
+                Instant.now());
+    }
+
+    @Test
+    void claimUnprocessed_skipsProcessedAndInFlightEvents() {
+        OutboxMessage processed = message(UUID.randomUUID());
+        OutboxMessage inFlight = message(UUID.randomUUID());
+        OutboxMessage fresh = message(UUID.randomUUID());
+        store.markProcessed(processed.eventId());
+        assertThat(store.claimUnprocessed(List.of(inFlight))).containsExactly(inFlight);
+
+        List<OutboxMessage> claimed = store.claimUnprocessed(List.of(processed, inFlight, fresh, fresh));
+
+        assertThat(claimed).containsExactly(fresh);
+    }
+
+    @Test
+    void claimUnprocessed_findsIdsProcessedByAnotherNode() {
+        UUID eventId = UUID.randomUUID();
+        // Written by another instance, so not in this node's cache.
+        jdbcTemplate.update("insert into processed_event (event_id, processed_at) values (?, ?)",
+                eventId, Timestamp.from(Instant.now()));
+
+        assertThat(store.claimUnprocessed(List.of(message(eventId)))).isEmpty();
+    }
+
+    @Test
+    void markProcessed_twiceIsHarmless() {
+        UUID eventId = UUID.randomUUID();
+        store.markProcessed(eventId);
+        store.markProcessed(eventId);
+
+        Integer rows = jdbcTemplate.queryForObject("select count(*) from processed_event where event_id = ?",
+                Integer.class, eventId);
+        assertThat(rows).isEqualTo(1);
+    }
+
+    @Test
+    void purgeExpired_removesRowsOlderThanRetention() {
+        UUID old = UUID.randomUUID();
+        UUID recent = UUID.randomUUID();
+        jdbcTemplate.update("insert into processed_event (event_id, processed_at) values (?, ?)",
+                old, Timestamp.from(Instant.now().minus(Duration.ofDays(8))));
+        store.markProcessed(recent);
+
+        store.purgeExpired();
+
+        assertThat(jdbcTemplate.queryForList("select event_id from processed_event where event_id in (?, ?)",
+                UUID.class, old, recent)).containsExactly(recent);
+    }
+}
@@ -1,16 +1,32 @@
 package be.ap.student.tickets;
 
 import be.ap.student.config.TestRestTemplateConfig;
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
 import be.ap.student.tickets.dto.CreateTicketRequest;
+import be.ap.student.tickets.repo.SupportTicketBatchWriter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.*;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
 
 /**
  * Focused test that verifies the HTTP status codes returned by the ticket API.
@@ -27,6 +43,9 @@ class TicketStatusCodeTest {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private SupportTicketBatchWriter batchWriter;
+
     @LocalServerPort
     private int port;
 
@@ -49,4 +68,200 @@ class TicketStatusCodeTest {
                 .as("POST /api/tickets should return 201 CREATED for a valid ticket")
                 .isEqualTo(HttpStatus.CREATED);
     }
+
+    @Test
+    void createTicket_withInvalidFields_shouldReturn400WithFieldErrors() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Correlation-Id", "status-code-test");
+        HttpEntity<String> request = new HttpEntity<>("""
+                {"subject":"x","description":"too short","priority":"LOW","userId":"u"}""", headers);
+
+        HttpClientErrorException response = catchThrowableOfType(HttpClientErrorException.class,
+                () -> restTemplate.postForEntity("http://localhost:" + port + "/api/tickets", request, String.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getResponseHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getResponseBodyAsString()).isEqualTo("""
+                {"correlationId":"status-code-test","code":"VALIDATION_ERROR","message":"Request validation failed",\
+                "fieldErrors":[{"field":"subject","message":"invalid"},{"field":"description","message":"invalid"}]}""");
+    }
+
+    @Test
+    void getTicket_unknownId_shouldReturn404() {
+        HttpClientErrorException response = catchThrowableOfType(HttpClientErrorException.class,
+                () -> restTemplate.getForEntity("http://localhost:" + port + "/api/tickets/" + UUID.randomUUID(),
+                        String.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getResponseBodyAsString()).contains("\"code\":\"NOT_FOUND\"");
+    }
+
+    @Test
+    void createTicket_overTheDailyLimit_shouldReturn429WithRetryAfter() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String userId = "quota-" + UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            CreateTicketRequest payload = new CreateTicketRequest();
+            payload.setSubject("Quota check " + i);
+            payload.setDescription("Each user may create at most three tickets per day.");
+            payload.setPriority("LOW");
+            payload.setUserId(userId);
+            ResponseEntity<String> response = restTemplate.postForEntity(
+                    "http://localhost:" + port + "/api/tickets", new HttpEntity<>(payload, headers), String.class);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        }
+        CreateTicketRequest fourth = new CreateTicketRequest();
+        fourth.setSubject("Quota check 3");
+        fourth.setDescription("Each user may create at most three tickets per day.");
+        fourth.setPriority("LOW");
+        fourth.setUserId(userId);
+
+        HttpClientErrorException response = catchThrowableOfType(HttpClientErrorException.class,
+                () -> restTemplate.postForEntity("http://localhost:" + port + "/api/tickets",
+                        new HttpEntity<>(fourth, headers), String.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(Long.parseLong(response.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER)))
+                .isBetween(86_000L, 86_400L);
+        assertThat(response.getResponseBodyAsString()).contains("\"code\":\"TICKET_LIMIT_EXCEEDED\"");
+    }
+
+    @Test
+    void createTicket_retriedWithIdempotencyKey_shouldReturnTheSameTicket() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Idempotency-Key", UUID.randomUUID().toString());
+        CreateTicketRequest payload = new CreateTicketRequest();
+        payload.setSubject("Retried after a timeout");
+        payload.setDescription("The client retries this request with the same Idempotency-Key.");
+        payload.setPriority("MEDIUM");
+        payload.setUserId("idempotency-" + UUID.randomUUID());
+
+        ResponseEntity<String> first = restTemplate.postForEntity(
+                "http://localhost:" + port + "/api/tickets", new HttpEntity<>(payload, headers), String.class);
+        ResponseEntity<String> retry = restTemplate.postForEntity(
+                "http://localhost:" + port + "/api/tickets", new HttpEntity<>(payload, headers), String.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getBody()).isEqualTo(first.getBody());
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+    }
+
+    @Test
+    void exportTickets_shouldStreamCsvAndGzipOnRequest() throws IOException {
+        String subject = "Export " + UUID.randomUUID();
+        batchWriter.insertAll(List.of(new SupportTicket("TCK-X-" + UUID.randomUUID().toString().substring(0, 18), UUID.randomUUID(),
+                subject, "Exported over HTTP", Priority.MEDIUM, TicketStatus.PENDING, Instant.now())));
+        String url = "http://localhost:" + port + "/api/tickets/export?format=csv&subject=" + subject;
+
+        ResponseEntity<String> plain = restTemplate.getForEntity(url, String.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> gzipped = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers),
+                byte[].class);
+
+        assertThat(plain.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(plain.getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType("text/csv;charset=UTF-8"));
+        assertThat(plain.getHeaders().getContentDisposition().getFilename()).isEqualTo("tickets.csv");
+        assertThat(plain.getBody()).startsWith("id,ticketNumber,").contains("," + subject + ",MEDIUM,PENDING,");
+        assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(plain.getBody());
+        }
+    }
+
+    @Test
+    void exportTickets_withGzipRefused_shouldNotCompress() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity");
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "http://localhost:" + port + "/api/tickets/export?format=csv&subject=" + UUID.randomUUID(),
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getBody()).startsWith("id,ticketNumber,");
+    }
+
+    @Test
+    void exportTickets_withUnknownFormat_shouldReturn400() {
+        HttpClientErrorException response = catchThrowableOfType(HttpClientErrorException.class,
+                () -> restTemplate.getForEntity("http://localhost:" + port + "/api/tickets/export?format=xml",
+                        String.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void createBatch_withARejectedItem_shouldReturn207WithPerItemResults() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<String> request = new HttpEntity<>("""
+                [{"subject":"Alert: disk full","description":"Monitoring reports /var at 100 percent.","priority":"HIGH","userId":"monitoring-%1$s"},
+                 {"subject":"x","description":"too short","priority":"LOW","userId":"monitoring-%1$s"},
+                 {"subject":"Alert: cpu high","description":"Monitoring reports load above 20 for 10 minutes.","priority":"MEDIUM","userId":"monitoring-%1$s"}]
+                """.formatted(UUID.randomUUID()), headers);
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "http://localhost:" + port + "/api/tickets/batch", request, String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+        assertThat(response.getBody())
+                .startsWith("{\"created\":2,\"rejected\":1,\"items\":[{\"index\":0,\"ticketNumber\":\"TCK-")
+                .contains("{\"index\":1,\"ticketNumber\":null,\"status\":null,\"error\":{")
+                .contains("\"code\":\"VALIDATION_ERROR\"")
+                .contains("{\"index\":2,\"ticketNumber\":\"TCK-");
+    }
+
+    @Test
+    void createBatch_overTheDailyLimit_shouldRejectTheItemsAfterTheThird() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String item = """
+                {"subject":"Quota check","description":"Each user may create at most three tickets per day.","priority":"LOW","userId":"quota-%s"}"""
+                .formatted(UUID.randomUUID());
+        HttpEntity<String> request = new HttpEntity<>("[" + String.join(",", Collections.nCopies(5, item)) + "]", headers);
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "http://localhost:" + port + "/api/tickets/batch", request, String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+        assertThat(response.getBody())
+                .startsWith("{\"created\":3,\"rejected\":2,")
+                .contains("{\"index\":2,\"ticketNumber\":\"TCK-")
+                .contains("{\"index\":3,\"ticketNumber\":null,\"status\":null,\"error\":{")
+                .contains("\"code\":\"TICKET_LIMIT_EXCEEDED\"");
+    }
+
+    @Test
+    void createBatch_overTheSizeLimit_shouldReturn400() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        HttpClientErrorException response = catchThrowableOfType(HttpClientErrorException.class,
+                () -> restTemplate.postForEntity("http://localhost:" + port + "/api/tickets/batch",
+                        new HttpEntity<>("[]", headers), String.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void claimNext_shouldReturnAPendingTicketMovedToInProgress() {
+        CreateTicketRequest payload = new CreateTicketRequest();
+        payload.setSubject("Waiting for an agent");
+        payload.setDescription("An agent claims the next ticket from the queue.");
+        payload.setPriority("HIGH");
+        payload.setUserId("claim-" + UUID.randomUUID());
+        restTemplate.postForEntity("http://localhost:" + port + "/api/tickets", payload, String.class);
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "http://localhost:" + port + "/api/tickets/claim-next", null, String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).contains("\"status\":\"IN_PROGRESS\"");
+    }
 }
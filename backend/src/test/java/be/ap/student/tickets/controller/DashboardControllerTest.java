@@ -0,0 +1,83 @@
+package be.ap.student.tickets.controller;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.dto.DashboardStats;
+import be.ap.student.tickets.service.DashboardStatsService;
+import be.ap.student.tickets.service.DashboardStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DashboardControllerTest {
+
+    private static final String ETAG = "\"abc-7\"";
+
+    private final DashboardStatsService service = mock(DashboardStatsService.class);
+    private final DashboardStreamService streamService = mock(DashboardStreamService.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new DashboardController(service, streamService))
+            .build();
+
+    DashboardControllerTest() {
+        DashboardStats stats = new DashboardStats(3, Map.of(Priority.LOW, 1L, Priority.MEDIUM, 0L, Priority.HIGH, 2L),
+                2, List.of());
+        when(service.snapshot()).thenReturn(new DashboardStatsService.Snapshot(7, ETAG, stats));
+    }
+
+    @Test
+    void get_returnsStatsWithEtag() throws Exception {
+        mockMvc.perform(get("/api/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(jsonPath("$.openTickets").value(3))
+                .andExpect(jsonPath("$.openByPriority.HIGH").value(2))
+                .andExpect(jsonPath("$.createdToday").value(2));
+    }
+
+    @Test
+    void get_withMatchingIfNoneMatch_returnsNotModifiedWithoutBody() throws Exception {
+        mockMvc.perform(get("/api/dashboard").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void get_withStaleIfNoneMatch_returnsStats() throws Exception {
+        mockMvc.perform(get("/api/dashboard").header(HttpHeaders.IF_NONE_MATCH, "\"abc-6\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.openTickets").value(3));
+    }
+
+    @Test
+    void stream_isAnEventStreamOfDashboardFrames() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        emitter.send(SseEmitter.event().id("7").name("dashboard").data("{\"openTickets\":3}", MediaType.APPLICATION_JSON));
+        emitter.complete();
+        when(streamService.subscribe()).thenReturn(emitter);
+
+        MvcResult result = mockMvc.perform(get("/api/dashboard/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(result.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(result.getResponse().getContentAsString())
+                .contains("id:7", "event:dashboard", "data:{\"openTickets\":3}");
+    }
+}
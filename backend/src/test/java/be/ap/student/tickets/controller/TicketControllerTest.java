@@ -0,0 +1,100 @@
+package be.ap.student.tickets.controller;
+
+import be.ap.student.common.web.GlobalExceptionHandler;
+import be.ap.student.tickets.repo.TicketSearchRepository;
+import be.ap.student.tickets.service.TicketExportRejectedException;
+import be.ap.student.tickets.service.TicketExportService;
+import be.ap.student.tickets.service.TicketSearchService;
+import be.ap.student.tickets.service.TicketService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class TicketControllerTest {
+
+    private final TicketExportService exportService = new TicketExportService(mock(TicketSearchRepository.class),
+            JsonMapper.builder().build(), new SimpleMeterRegistry(), 100, 1);
+    private final TicketController controller = new TicketController(mock(TicketService.class),
+            mock(TicketSearchService.class), exportService, mock(GlobalExceptionHandler.class), 500);
+
+    @Test
+    void acceptsGzip_honoursQValues() {
+        assertThat(TicketController.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(TicketController.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(TicketController.acceptsGzip("*")).isTrue();
+        assertThat(TicketController.acceptsGzip(null)).isFalse();
+        assertThat(TicketController.acceptsGzip("identity")).isFalse();
+        assertThat(TicketController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(TicketController.acceptsGzip("gzip; q=0.000, identity")).isFalse();
+        assertThat(TicketController.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(TicketController.acceptsGzip("*;q=0")).isFalse();
+    }
+
+    @Test
+    void export_givesTheSlotBackWhenTheBodyNeverRuns() throws Exception {
+        MockHttpServletRequest request = asyncRequest();
+        StreamingResponseBody body = export(request);
+        assertThatThrownBy(() -> export(asyncRequest())).isInstanceOf(TicketExportRejectedException.class);
+
+        // The body is handed to an executor that drops it, then the request times out and completes.
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setTaskExecutor(new SimpleAsyncTaskExecutor() {
+            @Override
+            protected void doExecute(Runnable task) {
+            }
+        });
+        asyncManager.startCallableProcessing(() -> {
+            body.writeTo(new ByteArrayOutputStream());
+            return null;
+        });
+        request.getAsyncContext().complete();
+
+        exportService.acquire();
+    }
+
+    @Test
+    void export_givesTheSlotBackOnceWhenTheBodyRunsAndTheRequestCompletes() throws Exception {
+        MockHttpServletRequest request = asyncRequest();
+        StreamingResponseBody body = export(request);
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setTaskExecutor(new SimpleAsyncTaskExecutor() {
+            @Override
+            protected void doExecute(Runnable task) {
+                task.run();
+            }
+        });
+        asyncManager.startCallableProcessing(() -> {
+            body.writeTo(new ByteArrayOutputStream());
+            return null;
+        });
+        request.getAsyncContext().complete();
+
+        exportService.acquire();
+        assertThatThrownBy(exportService::acquire).isInstanceOf(TicketExportRejectedException.class);
+    }
+
+    private StreamingResponseBody export(MockHttpServletRequest request) {
+        return controller.export(null, null, null, null, "prefix", "DESC", "csv", null, request).getBody();
+    }
+
+    private static MockHttpServletRequest asyncRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tickets/export");
+        request.setAsyncSupported(true);
+        WebAsyncUtils.getAsyncManager(request)
+                .setAsyncWebRequest(new StandardServletAsyncWebRequest(request, new MockHttpServletResponse()));
+        return request;
+    }
+}
@@ -0,0 +1,110 @@
+package be.ap.student.tickets.dto;
+
+import be.ap.student.common.api.RequestValidationException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+/**
+ * Keeps {@link CreateTicketRequestValidator} in step with the constraints declared on {@link CreateTicketRequest}.
+ */
+public class CreateTicketRequestValidatorTest {
+
+    private static ValidatorFactory factory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        factory.close();
+    }
+
+    private static CreateTicketRequest request(String subject, String description, String priority, String userId) {
+        CreateTicketRequest req = new CreateTicketRequest();
+        req.setSubject(subject);
+        req.setDescription(description);
+        req.setPriority(priority);
+        req.setUserId(userId);
+        return req;
+    }
+
+    private static Set<String> beanValidationFields(CreateTicketRequest req) {
+        Set<String> fields = new LinkedHashSet<>();
+        for (ConstraintViolation<CreateTicketRequest> violation : validator.validate(req)) {
+            fields.add(violation.getPropertyPath().toString());
+        }
+        return fields;
+    }
+
+    private static Set<String> fastFields(CreateTicketRequest req) {
+        RequestValidationException e = catchThrowableOfType(RequestValidationException.class,
+                () -> CreateTicketRequestValidator.validate(req));
+        return e == null ? Set.of() : new LinkedHashSet<>(e.getFields());
+    }
+
+    @Test
+    void agreesWithBeanValidation() {
+        String[] subjects = {null, "", "    ", "Shrt", "Login", " \t\n  ", "x".repeat(120), "x".repeat(121),
+                "Cannot login to portal"};
+        String[] descriptions = {null, "", " ".repeat(25), "x".repeat(19), "x".repeat(20), "x".repeat(2000),
+                "x".repeat(2001), "é".repeat(20)};
+        String[] priorities = {null, "", "HIGH"};
+        String[] userIds = {null, "", " ", "user-1", "u".repeat(64), "u".repeat(65)};
+
+        List<String> mismatches = new ArrayList<>();
+        for (String subject : subjects) {
+            for (String description : descriptions) {
+                for (String priority : priorities) {
+                    for (String userId : userIds) {
+                        CreateTicketRequest req = request(subject, description, priority, userId);
+                        Set<String> expected = beanValidationFields(req);
+                        Set<String> actual = fastFields(req);
+                        if (!actual.equals(expected)) {
+                            mismatches.add(subject + " / " + description + " / " + priority + " / " + userId
+                                    + ": " + actual + " != " + expected);
+                        }
+                    }
+                }
+            }
+        }
+        assertThat(mismatches).isEmpty();
+    }
+
+    @Test
+    void reportsFieldsInDeclarationOrder_withSharedInstances() {
+        CreateTicketRequest req = request(null, "short", "HIGH", null);
+
+        RequestValidationException first = catchThrowableOfType(RequestValidationException.class,
+                () -> CreateTicketRequestValidator.validate(req));
+        RequestValidationException second = catchThrowableOfType(RequestValidationException.class,
+                () -> CreateTicketRequestValidator.validate(req));
+
+        assertThat(first.getFields()).containsExactly("subject", "description", "userId");
+        assertThat(second).isSameAs(first);
+        assertThat(first.getStackTrace()).isEmpty();
+    }
+
+    @Test
+    void acceptsAValidRequest() {
+        assertThatNoException().isThrownBy(() -> CreateTicketRequestValidator.validate(
+                request("Cannot login to portal", "I cannot login since yesterday.", "LOW", "user-1")));
+    }
+}
@@ -0,0 +1,100 @@
+package be.ap.student.tickets.event;
+
+import be.ap.student.tickets.repo.OutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OutboxRelayTest {
+
+    private final OutboxRepository repository = mock(OutboxRepository.class);
+    private final EventPublisher enabled = publisher("in-memory");
+    private final EventPublisher disabled = publisher("kafka");
+    private final OutboxRelay relay = new OutboxRelay(repository, List.of(enabled, disabled),
+            mock(PlatformTransactionManager.class), Set.of("in-memory"), 2, Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+    private static EventPublisher publisher(String name) {
+        EventPublisher publisher = mock(EventPublisher.class);
+        when(publisher.name()).thenReturn(name);
+        return publisher;
+    }
+
+    private static OutboxMessage message(long id) {
+        return new OutboxMessage(id, UUID.randomUUID(), TicketCreatedEvent.TOPIC, "TicketCreatedEvent", "corr-" + id,
+                "{}", Instant.now());
+    }
+
+    @Test
+    void relayBatch_publishesToEnabledPublishersThenDeletesAndAdvancesCheckpoint() {
+        List<OutboxMessage> batch = List.of(message(7), message(9));
+        when(repository.findOldest(2)).thenReturn(batch);
+
+        int relayed = relay.relayBatch();
+
+        assertThat(relayed).isEqualTo(2);
+        verify(enabled).publish(batch);
+        verify(disabled, never()).publish(any());
+        verify(repository).deleteAll(List.of(7L, 9L));
+        verify(repository).saveCheckpoint(eq(OutboxRelay.NAME), eq(9L), eq(2), any());
+    }
+
+    @Test
+    void relayBatch_keepsRowsWhenPublishingFails() {
+        when(repository.findOldest(2)).thenReturn(List.of(message(1)));
+        doThrow(new IllegalStateException("broker down")).when(enabled).publish(any());
+
+        assertThatThrownBy(relay::relayBatch).hasMessage("broker down");
+
+        verify(repository, never()).deleteAll(any());
+        verify(repository, never()).saveCheckpoint(anyString(), anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void relayBatch_keepsRowsWhenAnInMemorySubscriberFails() {
+        InMemoryEventBus eventBus = new InMemoryEventBus();
+        List<OutboxMessage> delivered = new ArrayList<>();
+        eventBus.subscribe(TicketCreatedEvent.TOPIC, message -> {
+            throw new IllegalStateException("Interrupted while queueing notification");
+        });
+        eventBus.subscribe(TicketCreatedEvent.TOPIC, delivered::add);
+        OutboxRelay busRelay = new OutboxRelay(repository, List.of(eventBus), mock(PlatformTransactionManager.class),
+                Set.of(InMemoryEventBus.NAME), 2, Duration.ofSeconds(1), Duration.ofSeconds(1));
+        when(repository.findOldest(2)).thenReturn(List.of(message(1), message(2)));
+
+        assertThatThrownBy(busRelay::relayBatch)
+                .isInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("Interrupted while queueing notification")
+                .satisfies(e -> assertThat(e.getSuppressed()).hasSize(1));
+
+        assertThat(delivered).hasSize(2);
+        verify(repository, never()).deleteAll(any());
+        verify(repository, never()).saveCheckpoint(anyString(), anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void relayBatch_emptyOutboxDoesNothing() {
+        when(repository.findOldest(2)).thenReturn(List.of());
+
+        assertThat(relay.relayBatch()).isZero();
+        verify(enabled, never()).publish(any());
+    }
+}
@@ -0,0 +1,100 @@
+package be.ap.student.tickets.event;
+
+import be.ap.student.tickets.dto.CreateTicketRequest;
+import be.ap.student.tickets.repo.OutboxRepository;
+import be.ap.student.tickets.service.TicketService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static be.ap.student.common.web.CorrelationIdFilter.MDC_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class TicketEventOutboxTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketEventOutbox eventOutbox;
+
+    @Autowired
+    private InMemoryEventBus eventBus;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void clearMdc() {
+        MDC.remove(MDC_KEY);
+    }
+
+    @Test
+    void create_relaysTicketCreatedEventWithCorrelationIdAndEmptiesOutbox() throws Exception {
+        String correlationId = "corr-" + UUID.randomUUID();
+        BlockingQueue<OutboxMessage> received = new LinkedBlockingQueue<>();
+        eventBus.subscribe(TicketCreatedEvent.TOPIC, message -> {
+            if (correlationId.equals(message.correlationId())) {
+                received.add(message);
+            }
+        });
+        CreateTicketRequest req = new CreateTicketRequest();
+        req.setSubject("Outbox relay");
+        req.setDescription("Ticket whose creation event goes through the outbox.");
+        req.setPriority("MEDIUM");
+        req.setUserId(UUID.randomUUID().toString());
+        MDC.put(MDC_KEY, correlationId);
+
+        String ticketNumber = ticketService.create(req).orElseThrow().getTicketNumber();
+        OutboxMessage message = received.poll(5, TimeUnit.SECONDS);
+
+        assertThat(message).isNotNull();
+        assertThat(message.eventType()).isEqualTo("TicketCreatedEvent");
+        assertThat(message.payload())
+                .contains("\"eventType\":\"TicketCreatedEvent\"")
+                .contains("\"ticketNumber\":\"" + ticketNumber + "\"")
+                .contains("\"createdByUserId\":\"" + req.getUserId() + "\"");
+        // Subscribers are called before the relay deletes the batch and advances its checkpoint.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (outboxRepository.findCheckpoint(OutboxRelay.NAME) < message.id() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(outboxRepository.findCheckpoint(OutboxRelay.NAME)).isGreaterThanOrEqualTo(message.id());
+        Long remaining = jdbcTemplate.queryForObject("select count(*) from outbox where id = ?", Long.class,
+                message.id());
+        assertThat(remaining).isZero();
+    }
+
+    @Test
+    void rolledBackTransaction_leavesNoEvent() {
+        UUID eventId = UUID.randomUUID();
+        TicketStatusChangedEvent event = new TicketStatusChangedEvent(eventId, Instant.now(), null, UUID.randomUUID(),
+                "TCK-2026-999999", null, null);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventOutbox.append(event);
+            status.setRollbackOnly();
+        });
+
+        Long stored = jdbcTemplate.queryForObject("select count(*) from outbox where event_id = ?", Long.class, eventId);
+        assertThat(stored).isZero();
+    }
+}
@@ -0,0 +1,157 @@
+package be.ap.student.tickets.repo;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.dto.TicketSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the priority/status queries against a 30k-row table whose tickets are all older than
+ * anything other tests insert, so the "oldest" results are predictable. The table lives in its own
+ * database: contexts sharing the default one would otherwise find 15k overdue PENDING tickets at
+ * startup and escalate and dispatch them.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:repo-large;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "be.ap.student.tickets.repo.RecordingStatementInspector"
+})
+public class SupportTicketRepositoryTest {
+
+    private static final int ROWS = 30_000;
+    private static final Instant BASE = Instant.parse("1990-01-01T00:00:00Z");
+    private static boolean loaded;
+
+    @Autowired
+    private SupportTicketRepository repository;
+
+    @Autowired
+    private SupportTicketBatchWriter batchWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void loadLargeDataset() {
+        if (loaded) {
+            return;
+        }
+        List<SupportTicket> batch = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            TicketStatus status = i % 2 == 0 ? TicketStatus.PENDING : TicketStatus.CLOSED;
+            batch.add(new SupportTicket("TCK-1990-" + i, UUID.randomUUID(), "Large dataset " + i,
+                    "Large dataset description", Priority.values()[i % 3], status, BASE.plusSeconds(i)));
+            if (batch.size() == 5_000) {
+                batchWriter.insertAll(batch);
+                batch.clear();
+            }
+        }
+        loaded = true;
+    }
+
+    @Test
+    void findOldestByPriorityAndStatus_returnsOldestFirstWithTypedParameters() {
+        List<SupportTicket> oldest = repository.findOldestByPriorityAndStatus(Priority.HIGH, TicketStatus.PENDING,
+                Limit.of(3));
+
+        // HIGH = i % 3 == 2, PENDING = even i  ->  i = 2, 8, 14
+        assertThat(oldest).extracting(SupportTicket::getTicketNumber)
+                .containsExactly("TCK-1990-2", "TCK-1990-8", "TCK-1990-14");
+    }
+
+    @Test
+    void findSliceByPriorityAndStatus_pagesWithoutCount() {
+        Slice<SupportTicket> first = repository.findSliceByPriorityAndStatus(Priority.LOW, TicketStatus.CLOSED,
+                PageRequest.of(0, 50));
+
+        assertThat(first.getContent()).hasSize(50).allMatch(t -> t.getPriority() == Priority.LOW);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first.getContent().get(0).getTicketNumber()).isEqualTo("TCK-1990-3");
+    }
+
+    @Test
+    void summaryQueries_returnSameRowsAsEntityQueries() {
+        List<TicketSummary> oldest = repository.findOldestSummariesByPriorityAndStatus(Priority.HIGH,
+                TicketStatus.PENDING, Limit.of(3));
+        Slice<TicketSummary> slice = repository.findSummarySliceByPriorityAndStatus(Priority.LOW, TicketStatus.CLOSED,
+                PageRequest.of(1, 50));
+
+        assertThat(oldest).extracting(TicketSummary::ticketNumber)
+                .containsExactly("TCK-1990-2", "TCK-1990-8", "TCK-1990-14");
+        assertThat(oldest.getFirst().createdAt()).isEqualTo(BASE.plusSeconds(2));
+        assertThat(oldest.getFirst().status()).isEqualTo(TicketStatus.PENDING);
+        assertThat(slice.getContent()).extracting(TicketSummary::ticketNumber)
+                .containsExactlyElementsOf(repository.findSliceByPriorityAndStatus(Priority.LOW, TicketStatus.CLOSED,
+                        PageRequest.of(1, 50)).map(SupportTicket::getTicketNumber).getContent());
+    }
+
+    @Test
+    void streamByPriorityAndStatus_streamsAllMatchesInOrder() {
+        // Not @Transactional on the method: the shared dataset may be inserted by this test's
+        // @BeforeEach and must not be rolled back with it.
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        List<Instant> createdAt = readOnly.execute(status -> {
+            try (Stream<SupportTicket> stream = repository.streamByPriorityAndStatus(Priority.MEDIUM, TicketStatus.CLOSED)) {
+                return stream
+                        .filter(t -> t.getTicketNumber().startsWith("TCK-1990-"))
+                        .map(SupportTicket::getCreatedAt)
+                        .toList();
+            }
+        });
+
+        assertThat(createdAt).hasSize(ROWS / 6).isSorted();
+    }
+
+    @Test
+    void findEscalationQueue_returnsOldestPerPriorityHighestFirst() {
+        Map<Priority, List<SupportTicket>> queue = repository.findEscalationQueue(TicketStatus.PENDING, 2);
+
+        assertThat(queue.keySet()).containsExactly(Priority.HIGH, Priority.MEDIUM, Priority.LOW);
+        assertThat(queue.get(Priority.MEDIUM)).extracting(SupportTicket::getTicketNumber)
+                .containsExactly("TCK-1990-4", "TCK-1990-10");
+    }
+
+    @Test
+    void findOldestByPriorityAndStatus_readsOnlyRequestedRowsFromIndex() {
+        RecordingStatementInspector.STATEMENTS.clear();
+        repository.findOldestByPriorityAndStatus(Priority.HIGH, TicketStatus.PENDING, Limit.of(10));
+        // The statement Hibernate generated from the JPQL, with its parameters bound the same way.
+        assertThat(RecordingStatementInspector.STATEMENTS).hasSize(1);
+        String sql = RecordingStatementInspector.STATEMENTS.getFirst();
+
+        String plan = jdbcTemplate.queryForObject("explain analyze " + sql, String.class,
+                Priority.HIGH.name(), TicketStatus.PENDING.name(), 10);
+
+        assertThat(plan).containsIgnoringCase("idx_support_ticket_status_priority_created")
+                .containsIgnoringCase("index sorted");
+        Matcher scanCount = Pattern.compile("scanCount: (\\d+)").matcher(plan);
+        assertThat(scanCount.find()).isTrue();
+        assertThat(Integer.parseInt(scanCount.group(1))).isLessThanOrEqualTo(11);
+    }
+}
@@ -0,0 +1,142 @@
+package be.ap.student.tickets.repo;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.dto.TicketSearchCriteria;
+import be.ap.student.tickets.dto.TicketSearchCursor;
+import be.ap.student.tickets.dto.TicketSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class TicketSearchRepositoryTest {
+
+    @Autowired
+    private TicketSearchRepository searchRepository;
+
+    @Autowired
+    private SupportTicketBatchWriter batchWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String subjectPrefix;
+
+    @BeforeEach
+    void insertTickets() {
+        subjectPrefix = "Search " + UUID.randomUUID().toString().substring(0, 8);
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+        List<SupportTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Priority priority = Priority.values()[i % 3];
+            // Pairs of tickets share a timestamp so the id tie-breaker is exercised.
+            Instant createdAt = base.plus(i / 2, ChronoUnit.MINUTES);
+            tickets.add(new SupportTicket(subjectPrefix + "-" + i, UUID.randomUUID(), subjectPrefix + " item " + i,
+                    "Description that is long enough", priority, TicketStatus.PENDING, createdAt));
+        }
+        batchWriter.insertAll(tickets);
+    }
+
+    private TicketSearchCriteria bySubject(boolean ascending) {
+        return new TicketSearchCriteria(null, null, null, subjectPrefix, false, ascending);
+    }
+
+    @Test
+    void search_keysetPagesCoverEveryRowExactlyOnceInOrder() {
+        List<TicketSummary> all = new ArrayList<>();
+        TicketSearchCursor cursor = null;
+        for (int page = 0; page < 10; page++) {
+            List<TicketSummary> rows = searchRepository.search(bySubject(false), cursor, 10);
+            all.addAll(rows);
+            if (rows.size() < 10) {
+                break;
+            }
+            cursor = TicketSearchCursor.of(rows.get(rows.size() - 1));
+        }
+
+        assertThat(all).hasSize(25);
+        assertThat(all).extracting(TicketSummary::id).doesNotHaveDuplicates();
+        assertThat(all).isSortedAccordingTo((a, b) -> {
+            int byTime = b.createdAt().compareTo(a.createdAt());
+            // The database orders UUIDs unsigned, which matches their string form (UUID.compareTo is signed).
+            return byTime != 0 ? byTime : b.id().toString().compareTo(a.id().toString());
+        });
+    }
+
+    @Test
+    void scan_streamsEveryMatchInSearchOrder() {
+        List<TicketSummary> scanned = new ArrayList<>();
+
+        long count = searchRepository.scan(bySubject(false), 4, scanned::add);
+
+        assertThat(count).isEqualTo(25);
+        assertThat(scanned).containsExactlyElementsOf(searchRepository.search(bySubject(false), null, 100));
+    }
+
+    @Test
+    void findSummaryById_returnsSummaryOrEmpty() {
+        TicketSummary any = searchRepository.search(bySubject(true), null, 1).getFirst();
+
+        assertThat(searchRepository.findSummaryById(any.id())).contains(any);
+        assertThat(searchRepository.findSummaryById(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void search_ascendingStartsWithOldest() {
+        List<TicketSummary> rows = searchRepository.search(bySubject(true), null, 1);
+
+        assertThat(rows).singleElement().extracting(TicketSummary::createdAt)
+                .isEqualTo(Instant.parse("2026-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void search_combinesPriorityFilterWithSubject() {
+        TicketSearchCriteria criteria = new TicketSearchCriteria(TicketStatus.PENDING, Priority.HIGH, null,
+                subjectPrefix, false, false);
+
+        List<TicketSummary> rows = searchRepository.search(criteria, null, 100);
+
+        assertThat(rows).hasSize(8).allMatch(r -> r.priority() == Priority.HIGH);
+    }
+
+    @Test
+    void search_ticketNumberIsExactMatch() {
+        TicketSearchCriteria criteria = new TicketSearchCriteria(null, null, subjectPrefix + "-1", null, false, false);
+
+        assertThat(searchRepository.search(criteria, null, 100))
+                .singleElement().extracting(TicketSummary::ticketNumber).isEqualTo(subjectPrefix + "-1");
+    }
+
+    @Test
+    void search_subjectContainsMatchesInsideTheSubject() {
+        String infix = subjectPrefix.substring(7) + " item 2";
+        TicketSearchCriteria criteria = new TicketSearchCriteria(null, null, null, infix, true, false);
+
+        // "item 2" and "item 20".."item 24"
+        assertThat(searchRepository.search(criteria, null, 100)).hasSize(6);
+    }
+
+    @Test
+    void statusPriorityKeysetPage_seeksCompositeIndexInOrder() {
+        String plan = jdbcTemplate.queryForObject(
+                "explain select id from support_ticket where status = 'PENDING' and priority = 'HIGH' "
+                        + "and (created_at, id) < (timestamp '2026-01-01 00:05:00', random_uuid()) "
+                        + "order by status desc, priority desc, created_at desc, id desc fetch first 20 rows only",
+                String.class);
+
+        assertThat(plan).containsIgnoringCase("idx_support_ticket_status_priority_created")
+                .containsIgnoringCase("index sorted");
+    }
+}
@@ -0,0 +1,120 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.dto.DashboardStats;
+import be.ap.student.tickets.dto.TicketSummary;
+import be.ap.student.tickets.repo.SupportTicketRepository;
+import be.ap.student.tickets.repo.TicketSearchRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DashboardStatsServiceTest {
+
+    private static final Instant NOON = Instant.parse("2026-03-10T12:00:00Z");
+
+    private final SupportTicketRepository repository = mock(SupportTicketRepository.class);
+    private final TicketSearchRepository searchRepository = mock(TicketSearchRepository.class);
+    private final MutableClock clock = new MutableClock(NOON);
+    private final DashboardStatsService service = new DashboardStatsService(repository, searchRepository, clock);
+
+    private static SupportTicket ticket(Priority priority, Instant createdAt) {
+        return new SupportTicket("TCK-2026-" + createdAt.getEpochSecond(), UUID.randomUUID(), "Subject",
+                "Description", priority, TicketStatus.PENDING, createdAt);
+    }
+
+    @Test
+    void seed_loadsAggregatesFromDatabase() {
+        List<Object[]> counts = new ArrayList<>();
+        counts.add(new Object[]{Priority.HIGH, 3L});
+        counts.add(new Object[]{Priority.LOW, 1L});
+        when(repository.countByPriorityForStatus(TicketStatus.PENDING)).thenReturn(counts);
+        when(repository.countByCreatedAtGreaterThanEqual(Instant.parse("2026-03-10T00:00:00Z"))).thenReturn(2L);
+
+        service.seed();
+        DashboardStats stats = service.snapshot().stats();
+
+        assertThat(stats.openTickets()).isEqualTo(4);
+        assertThat(stats.openByPriority()).containsEntry(Priority.HIGH, 3L)
+                .containsEntry(Priority.MEDIUM, 0L).containsEntry(Priority.LOW, 1L);
+        assertThat(stats.createdToday()).isEqualTo(2);
+    }
+
+    @Test
+    void ticketCreated_updatesCountersAndRecentList() {
+        for (int i = 0; i < 7; i++) {
+            service.ticketCreated(ticket(Priority.values()[i % 3], NOON.minusSeconds(60L * i)));
+        }
+        service.ticketCreated(ticket(Priority.HIGH, NOON.minus(Duration.ofDays(1))));
+
+        DashboardStats stats = service.snapshot().stats();
+
+        assertThat(stats.openTickets()).isEqualTo(8);
+        assertThat(stats.openByPriority()).containsEntry(Priority.HIGH, 3L);
+        assertThat(stats.createdToday()).isEqualTo(7);
+        assertThat(stats.recentOpenTickets()).hasSize(DashboardStatsService.RECENT_OPEN_SIZE)
+                .extracting(TicketSummary::createdAt)
+                .containsExactly(NOON, NOON.minusSeconds(60), NOON.minusSeconds(120), NOON.minusSeconds(180),
+                        NOON.minusSeconds(240));
+    }
+
+    @Test
+    void snapshot_isReusedUntilSomethingChanges() {
+        DashboardStatsService.Snapshot first = service.snapshot();
+
+        assertThat(service.snapshot()).isSameAs(first);
+
+        service.ticketCreated(ticket(Priority.LOW, NOON));
+        DashboardStatsService.Snapshot second = service.snapshot();
+
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+        assertThat(service.snapshot()).isSameAs(second);
+        verify(searchRepository, never()).search(any(), any(), anyInt());
+    }
+
+    @Test
+    void statusChanged_leavingPendingDecrementsAndRefillsRecentList() {
+        SupportTicket closed = ticket(Priority.MEDIUM, NOON);
+        service.ticketCreated(closed);
+        service.ticketCreated(ticket(Priority.MEDIUM, NOON.minusSeconds(1)));
+        TicketSummary fromDatabase = new TicketSummary(UUID.randomUUID(), "TCK-2026-000009", "Older", Priority.LOW,
+                TicketStatus.PENDING, NOON.minusSeconds(3600));
+        when(searchRepository.search(any(), isNull(), anyInt())).thenReturn(List.of(fromDatabase));
+
+        TicketStatus previous = closed.changeStatus(TicketStatus.CLOSED);
+        service.statusChanged(closed, previous);
+        DashboardStats stats = service.snapshot().stats();
+
+        assertThat(stats.openTickets()).isEqualTo(1);
+        assertThat(stats.openByPriority()).containsEntry(Priority.MEDIUM, 1L);
+        assertThat(stats.recentOpenTickets()).containsExactly(fromDatabase);
+    }
+
+    @Test
+    void createdToday_resetsAtMidnight() {
+        service.ticketCreated(ticket(Priority.LOW, NOON));
+        DashboardStatsService.Snapshot beforeMidnight = service.snapshot();
+
+        clock.instant = NOON.plus(Duration.ofHours(12));
+
+        DashboardStatsService.Snapshot afterMidnight = service.snapshot();
+        assertThat(afterMidnight.stats().createdToday()).isZero();
+        assertThat(afterMidnight.stats().openTickets()).isEqualTo(1);
+        assertThat(afterMidnight.etag()).isNotEqualTo(beforeMidnight.etag());
+    }
+}
@@ -0,0 +1,161 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.dto.DashboardStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives {@link DashboardStreamService#broadcast()} directly, with a fixed clock and frames written on
+ * the calling thread, so every assertion is about one tick and nothing waits on the scheduler.
+ */
+public class DashboardStreamServiceTest {
+
+    private final DashboardStatsService dashboardStats = mock(DashboardStatsService.class);
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-02T09:00:00Z"));
+    private final DashboardStreamService streamService = new DashboardStreamService(dashboardStats,
+            JsonMapper.builder().build(), new SimpleMeterRegistry(), Duration.ofMinutes(30), Duration.ofSeconds(15),
+            10, clock, new DirectExecutorService());
+
+    private void figures(long version, long openTickets) {
+        DashboardStats stats = new DashboardStats(openTickets,
+                Map.of(Priority.LOW, openTickets, Priority.MEDIUM, 0L, Priority.HIGH, 0L), openTickets, List.of());
+        when(dashboardStats.snapshot()).thenReturn(new DashboardStatsService.Snapshot(version, "\"v" + version + "\"", stats));
+    }
+
+    private RecordingEmitter subscribe() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        streamService.subscribe(emitter);
+        return emitter;
+    }
+
+    @Test
+    void subscribe_sendsCurrentFiguresFirst() {
+        figures(1, 4);
+
+        RecordingEmitter emitter = subscribe();
+
+        assertThat(emitter.frames).singleElement().asString()
+                .contains("event:" + DashboardStreamService.EVENT_NAME)
+                .contains("\"openTickets\":4");
+        assertThat(streamService.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void broadcast_sendsOneFramePerTickForAnyNumberOfChanges() {
+        figures(1, 0);
+        RecordingEmitter first = subscribe();
+        RecordingEmitter second = subscribe();
+        streamService.broadcast();
+        first.frames.clear();
+        second.frames.clear();
+
+        // Ten creates between two ticks: only the newest version is sent.
+        figures(11, 10);
+        streamService.broadcast();
+
+        assertThat(first.frames).singleElement().asString().contains("id:11").contains("\"openTickets\":10");
+        assertThat(second.frames).isEqualTo(first.frames);
+    }
+
+    @Test
+    void broadcast_withoutChanges_sendsNothingUntilTheHeartbeatIsDue() {
+        figures(1, 0);
+        RecordingEmitter emitter = subscribe();
+        streamService.broadcast();
+        emitter.frames.clear();
+
+        streamService.broadcast();
+        clock.instant = clock.instant.plus(Duration.ofSeconds(14));
+        streamService.broadcast();
+        assertThat(emitter.frames).isEmpty();
+
+        clock.instant = clock.instant.plus(Duration.ofSeconds(1));
+        streamService.broadcast();
+        assertThat(emitter.frames).singleElement().asString().contains(":heartbeat");
+
+        streamService.broadcast();
+        assertThat(emitter.frames).hasSize(1);
+    }
+
+    @Test
+    void broadcast_withoutSubscribers_onlyRemembersTheVersion() {
+        figures(3, 2);
+        streamService.broadcast();
+
+        RecordingEmitter emitter = subscribe();
+        emitter.frames.clear();
+        streamService.broadcast();
+
+        assertThat(emitter.frames).isEmpty();
+    }
+
+    /**
+     * Keeps every frame written to it as the text that would go on the wire.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> frames = new ArrayList<>();
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            frames.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+    }
+
+    /**
+     * Runs each send on the broadcasting thread.
+     */
+    private static final class DirectExecutorService extends AbstractExecutorService {
+
+        private boolean shutdown;
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return shutdown;
+        }
+    }
+}
@@ -1,6 +1,15 @@
 package be.ap.student.tickets.service;
 
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
 import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -93,4 +102,49 @@ public class EscalationServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Unknown priority: INVALID");
     }
+
+    // --- rule table tests ---
+
+    @Test
+    void shouldEscalate_enum_matchesStringRulesForOpenTickets() {
+        for (Priority priority : Priority.values()) {
+            for (int reopenCount = 0; reopenCount <= 4; reopenCount++) {
+                assertThat(escalationService.shouldEscalate(priority, TicketStatus.PENDING, reopenCount))
+                        .isEqualTo(escalationService.shouldEscalate(priority.name(), reopenCount));
+                assertThat(escalationService.shouldEscalate(priority, TicketStatus.IN_PROGRESS, reopenCount))
+                        .isEqualTo(escalationService.shouldEscalate(priority.name(), reopenCount));
+            }
+        }
+    }
+
+    @Test
+    void shouldEscalate_enum_closedTicket_returnsFalse() {
+        assertThat(escalationService.shouldEscalate(Priority.HIGH, TicketStatus.CLOSED, 10)).isFalse();
+        assertThat(escalationService.rule(Priority.HIGH, TicketStatus.CLOSED).sla()).isNull();
+    }
+
+    // --- evaluate tests ---
+
+    private static SupportTicket ticket(Priority priority, TicketStatus status, Instant createdAt) {
+        return new SupportTicket("T-1", UUID.randomUUID(), "subject", "description", priority, status, createdAt);
+    }
+
+    @Test
+    void evaluate_splitsOpenTicketsIntoDueAndScheduledBySla() {
+        Instant now = Instant.parse("2026-03-01T12:00:00Z");
+        SupportTicket overdueHigh = ticket(Priority.HIGH, TicketStatus.PENDING, now.minus(Duration.ofMinutes(61)));
+        SupportTicket freshHigh = ticket(Priority.HIGH, TicketStatus.IN_PROGRESS, now.minus(Duration.ofMinutes(10)));
+        SupportTicket freshMedium = ticket(Priority.MEDIUM, TicketStatus.PENDING, now.minus(Duration.ofHours(1)));
+        SupportTicket oldLow = ticket(Priority.LOW, TicketStatus.PENDING, now.minus(Duration.ofDays(30)));
+        SupportTicket closedHigh = ticket(Priority.HIGH, TicketStatus.CLOSED, now.minus(Duration.ofDays(1)));
+        List<SupportTicket> tickets = List.of(overdueHigh, freshHigh, freshMedium, oldLow, closedHigh);
+
+        EscalationService.Plan plan = escalationService.evaluate(tickets, now);
+
+        assertThat(plan.due()).containsExactly(new EscalationService.Escalation(
+                overdueHigh.getId(), Priority.HIGH, now.minus(Duration.ofMinutes(1))));
+        assertThat(plan.scheduled()).containsExactly(
+                new EscalationService.Escalation(freshHigh.getId(), Priority.HIGH, now.plus(Duration.ofMinutes(50))),
+                new EscalationService.Escalation(freshMedium.getId(), Priority.MEDIUM, now.plus(Duration.ofHours(3))));
+    }
 }
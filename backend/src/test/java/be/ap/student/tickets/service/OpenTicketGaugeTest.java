@@ -0,0 +1,49 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.repo.SupportTicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OpenTicketGaugeTest {
+
+    private final SupportTicketRepository repository = mock(SupportTicketRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OpenTicketGauge gauge = new OpenTicketGauge(repository, meterRegistry);
+
+    @Test
+    void seed_startsFromDatabaseCount() {
+        when(repository.countByStatus(TicketStatus.PENDING)).thenReturn(7L);
+
+        gauge.seed();
+
+        assertThat(gauge.get()).isEqualTo(7);
+        assertThat(meterRegistry.get("tickets.open").gauge().value()).isEqualTo(7.0);
+    }
+
+    @Test
+    void createAndStatusChanges_adjustCountInMemory() {
+        gauge.ticketCreated(TicketStatus.PENDING);
+        gauge.ticketCreated(TicketStatus.PENDING);
+        gauge.statusChanged(TicketStatus.PENDING, TicketStatus.IN_PROGRESS);
+        gauge.statusChanged(TicketStatus.IN_PROGRESS, TicketStatus.CLOSED);
+        gauge.statusChanged(TicketStatus.CLOSED, TicketStatus.PENDING);
+        gauge.statusChanged(TicketStatus.PENDING, TicketStatus.PENDING);
+
+        assertThat(gauge.get()).isEqualTo(2);
+    }
+
+    @Test
+    void reconcile_correctsDrift() {
+        gauge.ticketCreated(TicketStatus.PENDING);
+        when(repository.countByStatus(TicketStatus.PENDING)).thenReturn(5L);
+
+        gauge.reconcile();
+
+        assertThat(gauge.get()).isEqualTo(5);
+    }
+}
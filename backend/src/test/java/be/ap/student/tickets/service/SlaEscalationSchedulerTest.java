@@ -0,0 +1,143 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.repo.SupportTicketRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against its own database so tickets of other tests do not fall due here.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sla-escalation;DB_CLOSE_DELAY=-1")
+public class SlaEscalationSchedulerTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SupportTicketRepository repository;
+
+    @Autowired
+    private EscalationService escalationService;
+
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private final MutableClock clock = new MutableClock(now);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SlaEscalationScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from support_ticket");
+        scheduler = new SlaEscalationScheduler(jdbcTemplate, repository, escalationService, meterRegistry,
+                Duration.ofSeconds(1), 2, clock);
+    }
+
+    private SupportTicket save(Priority priority, TicketStatus status, Instant createdAt) {
+        UUID id = UUID.randomUUID();
+        return repository.save(new SupportTicket("SLA-" + id.toString().substring(0, 8), id, "Subject",
+                "Description", priority, status, createdAt));
+    }
+
+    private double escalated(Priority priority) {
+        return meterRegistry.get("tickets.sla.escalations").tag("priority", priority.name()).counter().count();
+    }
+
+    @Test
+    void rebuild_loadsOpenTicketsWithSla_andSweepEscalatesWhenDue() {
+        save(Priority.HIGH, TicketStatus.PENDING, now.minus(Duration.ofMinutes(30)));
+        save(Priority.MEDIUM, TicketStatus.IN_PROGRESS, now.minus(Duration.ofHours(5)));
+        save(Priority.MEDIUM, TicketStatus.PENDING, now.minus(Duration.ofHours(6)));
+        save(Priority.HIGH, TicketStatus.PENDING, now.minus(Duration.ofHours(2)));
+        save(Priority.LOW, TicketStatus.PENDING, now.minus(Duration.ofDays(3)));
+        save(Priority.HIGH, TicketStatus.CLOSED, now.minus(Duration.ofDays(1)));
+
+        scheduler.rebuild();
+        assertThat(meterRegistry.get("tickets.sla.pending").gauge().value()).isEqualTo(4);
+
+        // Three overdue tickets, escalated in batches of two.
+        assertThat(scheduler.sweep()).isEqualTo(3);
+        assertThat(escalated(Priority.MEDIUM)).isEqualTo(2);
+        assertThat(escalated(Priority.HIGH)).isEqualTo(1);
+
+        clock.instant = now.plus(Duration.ofMinutes(30));
+        assertThat(scheduler.sweep()).isZero();
+        clock.instant = now.plus(Duration.ofMinutes(30)).plusSeconds(1);
+        assertThat(scheduler.sweep()).isEqualTo(1);
+        assertThat(escalated(Priority.HIGH)).isEqualTo(2);
+        assertThat(meterRegistry.get("tickets.sla.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void sweep_skipsTicketsClosedBeforeTheirDeadline() {
+        scheduler.rebuild();
+        SupportTicket ticket = save(Priority.HIGH, TicketStatus.PENDING, now);
+        scheduler.ticketCreated(ticket);
+        assertThat(scheduler.sweep()).isZero();
+
+        ticket.changeStatus(TicketStatus.CLOSED);
+        repository.save(ticket);
+        clock.instant = now.plus(Duration.ofHours(2));
+
+        assertThat(scheduler.sweep()).isZero();
+        assertThat(escalated(Priority.HIGH)).isZero();
+    }
+
+    @Test
+    void statusChanged_reopenedTicketIsScheduledAgain() {
+        scheduler.rebuild();
+        SupportTicket ticket = save(Priority.MEDIUM, TicketStatus.PENDING, now.minus(Duration.ofHours(5)));
+
+        scheduler.statusChanged(ticket, TicketStatus.IN_PROGRESS);
+        assertThat(scheduler.sweep()).isZero();
+
+        scheduler.statusChanged(ticket, TicketStatus.CLOSED);
+        assertThat(scheduler.sweep()).isEqualTo(1);
+    }
+
+    @Test
+    void escalation_isPersisted_soRebuildAfterRestartDoesNotEscalateAgain() {
+        SupportTicket ticket = save(Priority.HIGH, TicketStatus.PENDING, now.minus(Duration.ofHours(2)));
+        scheduler.rebuild();
+        assertThat(scheduler.sweep()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select escalated_at from support_ticket where id = ?",
+                Instant.class, ticket.getId())).isEqualTo(now);
+
+        SlaEscalationScheduler restarted = new SlaEscalationScheduler(jdbcTemplate, repository, escalationService,
+                meterRegistry, Duration.ofSeconds(1), 2, clock);
+        restarted.rebuild();
+        assertThat(meterRegistry.get("tickets.sla.pending").gauge().value()).isZero();
+        assertThat(restarted.sweep()).isZero();
+
+        // Registered twice: the marker still lets it escalate only once.
+        restarted.ticketCreated(ticket);
+        assertThat(restarted.sweep()).isZero();
+        assertThat(escalated(Priority.HIGH)).isEqualTo(1);
+    }
+
+    @Test
+    void statusChanged_reopeningClearsTheEscalationMarker() {
+        SupportTicket ticket = save(Priority.HIGH, TicketStatus.PENDING, now.minus(Duration.ofHours(2)));
+        scheduler.rebuild();
+        assertThat(scheduler.sweep()).isEqualTo(1);
+
+        scheduler.reopening(ticket, TicketStatus.CLOSED);
+        scheduler.statusChanged(ticket, TicketStatus.CLOSED);
+
+        assertThat(scheduler.sweep()).isEqualTo(1);
+        assertThat(escalated(Priority.HIGH)).isEqualTo(2);
+    }
+}
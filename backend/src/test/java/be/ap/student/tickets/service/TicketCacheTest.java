@@ -0,0 +1,91 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.dto.TicketSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TicketCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TicketCache cache = new TicketCache(meterRegistry, DataSize.ofKilobytes(64), Duration.ofMinutes(10),
+            Duration.ofMillis(200));
+
+    private static TicketSummary summary(UUID id, TicketStatus status) {
+        return new TicketSummary(id, "TCK-2026-000001", "Cannot login", Priority.HIGH, status, Instant.now());
+    }
+
+    @Test
+    void get_loadsOnceThenServesFromCache() {
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            cache.get(id, key -> {
+                loads.incrementAndGet();
+                return Optional.of(summary(key, TicketStatus.PENDING));
+            });
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", TicketCache.NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(4);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", TicketCache.NAME).tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownId_isCachedAsAbsentUntilNegativeTtlExpires() throws Exception {
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(cache.get(id, key -> {
+                loads.incrementAndGet();
+                return Optional.empty();
+            })).isEmpty();
+        }
+        assertThat(loads).hasValue(1);
+
+        Thread.sleep(300);
+        cache.get(id, key -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void put_replacesAbsentEntryAndStaleStatus() {
+        UUID id = UUID.randomUUID();
+        cache.get(id, key -> Optional.empty());
+
+        cache.put(summary(id, TicketStatus.PENDING));
+        cache.put(summary(id, TicketStatus.IN_PROGRESS));
+
+        assertThat(cache.get(id, key -> Optional.empty()))
+                .hasValueSatisfying(s -> assertThat(s.status()).isEqualTo(TicketStatus.IN_PROGRESS));
+    }
+
+    @Test
+    void size_isBoundedByWeight() {
+        // 64 KiB at roughly 190 bytes per entry.
+        for (int i = 0; i < 2_000; i++) {
+            cache.put(summary(UUID.randomUUID(), TicketStatus.PENDING));
+        }
+
+        assertThat(cache.estimatedSize()).isLessThan(400);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", TicketCache.NAME)
+                .functionCounter().count()).isGreaterThan(1_600);
+    }
+}
@@ -0,0 +1,218 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.repo.SupportTicketBatchWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against its own database so only the tickets of this test are waiting.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ticket-dispatch;DB_CLOSE_DELAY=-1")
+public class TicketDispatchQueueTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketDispatchQueue dispatchQueue;
+
+    @Autowired
+    private SupportTicketBatchWriter batchWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void emptyQueue() {
+        while (ticketService.claimNext().isPresent()) {
+            // Drain what earlier tests left.
+        }
+    }
+
+    private List<SupportTicket> insert(Priority priority, int count, Instant from) {
+        List<SupportTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tickets.add(new SupportTicket("TCK-Q-" + SEQUENCE.incrementAndGet(), UUID.randomUUID(),
+                    "Waiting for an agent", "Description that is long enough", priority, TicketStatus.PENDING,
+                    from.plusSeconds(i)));
+        }
+        batchWriter.insertAll(tickets);
+        return tickets;
+    }
+
+    @Test
+    void claimNext_takesHighestPriorityThenOldest() {
+        Instant base = Instant.parse("2026-04-01T08:00:00Z");
+        SupportTicket low = insert(Priority.LOW, 1, base).getFirst();
+        List<SupportTicket> medium = insert(Priority.MEDIUM, 2, base.plusSeconds(60));
+        SupportTicket high = insert(Priority.HIGH, 1, base.plusSeconds(120)).getFirst();
+        dispatchQueue.reconcileAll();
+
+        assertThat(claimedId()).contains(high.getId());
+        assertThat(claimedId()).contains(medium.get(0).getId());
+        assertThat(claimedId()).contains(medium.get(1).getId());
+        assertThat(claimedId()).contains(low.getId());
+        assertThat(claimedId()).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("select status from support_ticket where id = ?", String.class,
+                high.getId())).isEqualTo("IN_PROGRESS");
+    }
+
+    @Test
+    void claimNext_skipsTicketsThatMovedOnElsewhere() {
+        List<SupportTicket> tickets = insert(Priority.HIGH, 2, Instant.parse("2026-04-01T08:00:00Z"));
+        dispatchQueue.reconcileAll();
+        // Another node closes the oldest one; this node's queue still has it.
+        jdbcTemplate.update("update support_ticket set status = 'CLOSED' where id = ?", tickets.get(0).getId());
+
+        assertThat(claimedId()).contains(tickets.get(1).getId());
+        assertThat(dispatchQueue.size()).isZero();
+    }
+
+    @Test
+    void claimNext_100ConcurrentClaimers_neverShareATicket() throws Exception {
+        Instant base = Instant.parse("2026-04-01T08:00:00Z");
+        List<SupportTicket> high = insert(Priority.HIGH, 60, base.plusSeconds(3600));
+        List<SupportTicket> medium = insert(Priority.MEDIUM, 60, base);
+        insert(Priority.LOW, 30, base);
+        dispatchQueue.reconcileAll();
+        int claimers = 100;
+        Set<UUID> claimed = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(claimers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < claimers; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    UUID id = ticketService.claimNext().orElseThrow().getId();
+                    if (!claimed.add(id)) {
+                        duplicates.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Set<UUID> expected = ConcurrentHashMap.newKeySet();
+        high.forEach(ticket -> expected.add(ticket.getId()));
+        medium.subList(0, 40).forEach(ticket -> expected.add(ticket.getId()));
+        assertThat(duplicates).hasValue(0);
+        assertThat(claimed).hasSize(claimers).isEqualTo(expected);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from support_ticket where status = 'IN_PROGRESS' "
+                + "and ticket_number like 'TCK-Q-%'", Integer.class)).isGreaterThanOrEqualTo(claimers);
+        assertThat(dispatchQueue.size()).isEqualTo(50);
+    }
+
+    @Test
+    void reconcile_readsOnlyTicketsCreatedSinceThePreviousPass() {
+        Instant base = Instant.parse("2027-01-01T08:00:00Z");
+        SupportTicket seen = insert(Priority.LOW, 1, base).getFirst();
+        dispatchQueue.reconcileAll();
+        SupportTicket late = insert(Priority.LOW, 1, base.minusSeconds(30)).getFirst();
+        SupportTicket old = insert(Priority.LOW, 1, base.minus(Duration.ofDays(1))).getFirst();
+        SupportTicket newer = insert(Priority.LOW, 1, base.plusSeconds(60)).getFirst();
+
+        dispatchQueue.reconcile();
+
+        // Within the overlap, so a create that committed late is still found; the day-old one is left
+        // to the next full pass.
+        assertThat(dispatchQueue.size()).isEqualTo(3);
+        assertThat(claimedId()).contains(late.getId());
+        assertThat(claimedId()).contains(seen.getId());
+        assertThat(claimedId()).contains(newer.getId());
+        assertThat(claimedId()).isEmpty();
+
+        dispatchQueue.reconcileAll();
+        assertThat(claimedId()).contains(old.getId());
+    }
+
+    @Test
+    void claimNext_whileReconcileOffersClaimedTicketsAgain_neverSharesATicket() throws Exception {
+        List<SupportTicket> tickets = insert(Priority.HIGH, 200, Instant.parse("2026-04-02T08:00:00Z"));
+        dispatchQueue.reconcileAll();
+        int claimers = 50;
+        Set<UUID> claimed = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicBoolean claiming = new AtomicBoolean(true);
+        AtomicInteger reconciles = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(claimers + 1);
+        try {
+            // Every pass re-adds the tickets whose claim has not committed yet, so the same entry is
+            // handed to a second claimer and only the conditional update keeps them apart.
+            Future<?> reconciler = pool.submit(() -> {
+                start.await();
+                while (claiming.get()) {
+                    dispatchQueue.reconcileAll();
+                    reconciles.incrementAndGet();
+                }
+                return null;
+            });
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < claimers; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    Optional<SupportTicket> ticket;
+                    while ((ticket = ticketService.claimNext()).isPresent()) {
+                        if (!claimed.add(ticket.get().getId())) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            claiming.set(false);
+            reconciler.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(reconciles.get()).isPositive();
+        assertThat(duplicates).hasValue(0);
+        assertThat(claimed).containsExactlyInAnyOrderElementsOf(tickets.stream().map(SupportTicket::getId).toList());
+        assertThat(jdbcTemplate.queryForObject("select count(*) from support_ticket where status = 'PENDING'",
+                Integer.class)).isZero();
+    }
+
+    private Optional<UUID> claimedId() {
+        return ticketService.claimNext().map(SupportTicket::getId);
+    }
+}
@@ -0,0 +1,139 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.dto.TicketSearchCriteria;
+import be.ap.student.tickets.repo.SupportTicketBatchWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ticket-export;DB_CLOSE_DELAY=-1")
+public class TicketExportServiceTest {
+
+    @Autowired
+    private TicketExportService exportService;
+
+    @Autowired
+    private SupportTicketBatchWriter batchWriter;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String subjectPrefix;
+
+    @BeforeEach
+    void insertTickets() {
+        subjectPrefix = "Export " + UUID.randomUUID().toString().substring(0, 8);
+        Instant base = Instant.parse("2026-03-01T08:00:00Z");
+        batchWriter.insertAll(List.of(
+                new SupportTicket(subjectPrefix + "-1", UUID.randomUUID(), subjectPrefix + " plain subject",
+                        "Description that is long enough", Priority.LOW, TicketStatus.PENDING, base),
+                new SupportTicket(subjectPrefix + "-2", UUID.randomUUID(), subjectPrefix + " says \"hi\", twice",
+                        "Description that is long enough", Priority.HIGH, TicketStatus.IN_PROGRESS,
+                        base.plusSeconds(60))));
+    }
+
+    private TicketSearchCriteria bySubject() {
+        return new TicketSearchCriteria(null, null, null, subjectPrefix, false, true);
+    }
+
+    @Test
+    void export_ndjsonWritesOneSummaryPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(bySubject(), TicketExportService.Format.NDJSON, out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(rows).isEqualTo(2);
+        assertThat(body).endsWith("\n").doesNotContain("\n ");
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = jsonMapper.readTree(lines[0]);
+        assertThat(first.get("ticketNumber").asString()).isEqualTo(subjectPrefix + "-1");
+        assertThat(first.get("priority").asString()).isEqualTo("LOW");
+        assertThat(jsonMapper.readTree(lines[1]).get("subject").asString())
+                .isEqualTo(subjectPrefix + " says \"hi\", twice");
+    }
+
+    @Test
+    void export_csvHasHeaderAndQuotesSpecialCells() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        double before = meterRegistry.get("tickets.export.rows").tag("format", "csv").counter().count();
+
+        exportService.export(bySubject(), TicketExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("id,ticketNumber,subject,priority,status,createdAt");
+        assertThat(lines[1]).endsWith("," + subjectPrefix + "-1," + subjectPrefix
+                + " plain subject,LOW,PENDING,2026-03-01T08:00:00Z");
+        assertThat(lines[2]).contains(",\"" + subjectPrefix + " says \"\"hi\"\", twice\",HIGH,IN_PROGRESS,");
+        assertThat(meterRegistry.get("tickets.export.rows").tag("format", "csv").counter().count())
+                .isEqualTo(before + 2);
+    }
+
+    @Test
+    void writeCsvCell_neutralizesFormulas() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        TicketExportService.writeCsvCell(writer, "=HYPERLINK(\"x\")");
+        writer.write(',');
+        TicketExportService.writeCsvCell(writer, "-1");
+        writer.write(',');
+        TicketExportService.writeCsvCell(writer, "");
+
+        assertThat(writer).hasToString("\"'=HYPERLINK(\"\"x\"\")\",\"'-1\",");
+    }
+
+    @Test
+    void format_rejectsUnknownValues() {
+        assertThat(TicketExportService.Format.of("CSV")).isEqualTo(TicketExportService.Format.CSV);
+        assertThatThrownBy(() -> TicketExportService.Format.of("xml"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("format must be one of ndjson, csv");
+    }
+
+    @Test
+    void acquire_rejectsExportsBeyondMaxConcurrent() {
+        int acquired = 0;
+        try {
+            for (; acquired < 4; acquired++) {
+                exportService.acquire();
+            }
+            assertThat(meterRegistry.get("tickets.export.active").gauge().value()).isEqualTo(4);
+            assertThatThrownBy(() -> exportService.acquire())
+                    .isInstanceOf(TicketExportRejectedException.class)
+                    .hasMessage("Too many exports in progress");
+
+            exportService.release();
+            acquired--;
+            exportService.acquire();
+            acquired++;
+        } finally {
+            for (; acquired > 0; acquired--) {
+                exportService.release();
+            }
+        }
+        assertThat(meterRegistry.get("tickets.export.active").gauge().value()).isZero();
+    }
+}
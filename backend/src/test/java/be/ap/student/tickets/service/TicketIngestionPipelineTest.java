@@ -0,0 +1,202 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.event.TicketCreatedEvent;
+import be.ap.student.tickets.event.TicketEventOutbox;
+import be.ap.student.tickets.repo.SupportTicketBatchWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TicketIngestionPipelineTest {
+
+    private final SupportTicketBatchWriter batchWriter = mock(SupportTicketBatchWriter.class);
+    private final TicketEventOutbox eventOutbox = mock(TicketEventOutbox.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private TicketIngestionPipeline pipeline;
+
+    private TicketIngestionPipeline startPipeline(int queueCapacity, int batchSize) {
+        return startPipeline(queueCapacity, batchSize, Duration.ofSeconds(5));
+    }
+
+    private TicketIngestionPipeline startPipeline(int queueCapacity, int batchSize, Duration commitTimeout) {
+        pipeline = new TicketIngestionPipeline(batchWriter, eventOutbox, transactionManager, "batched",
+                queueCapacity, batchSize, Duration.ofMillis(20), commitTimeout);
+        pipeline.start();
+        return pipeline;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    private static SupportTicket ticket(String ticketNumber) {
+        return new SupportTicket(ticketNumber, UUID.randomUUID(), "Subject", "Description long enough",
+                Priority.LOW, TicketStatus.PENDING, Instant.now());
+    }
+
+    private SupportTicket submit(SupportTicket ticket) {
+        return pipeline.submit(ticket, TicketCreatedEvent.of(ticket, "user", null));
+    }
+
+    @Test
+    void directMode_isDisabledAndDoesNotStartWriter() {
+        pipeline = new TicketIngestionPipeline(batchWriter, eventOutbox, transactionManager, "direct", 10, 10, Duration.ZERO,
+                Duration.ofSeconds(1));
+        pipeline.start();
+
+        assertThat(pipeline.isEnabled()).isFalse();
+        assertThat(pipeline.isRunning()).isFalse();
+    }
+
+    @Test
+    void concurrentSubmits_areGroupCommittedInBatches() throws Exception {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        doAnswer(inv -> batchSizes.add(inv.<List<?>>getArgument(0).size())).when(batchWriter).insertAll(anyList());
+        startPipeline(1_000, 50);
+
+        int submitters = 100;
+        ExecutorService pool = Executors.newFixedThreadPool(submitters);
+        try {
+            List<CompletableFuture<SupportTicket>> results = new ArrayList<>();
+            for (int i = 0; i < submitters; i++) {
+                SupportTicket t = ticket("TCK-2026-" + i);
+                results.add(CompletableFuture.supplyAsync(() -> submit(t), pool));
+            }
+            for (CompletableFuture<SupportTicket> r : results) {
+                assertThat(r.get(5, TimeUnit.SECONDS)).isNotNull();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(submitters);
+        assertThat(batchSizes.size()).isLessThan(submitters);
+        assertThat(batchSizes).allMatch(size -> size <= 50);
+        verify(eventOutbox, times(batchSizes.size())).appendAll(anyList());
+    }
+
+    @Test
+    void fullQueue_rejectsImmediately() throws Exception {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            writerBlocked.countDown();
+            release.await();
+            return null;
+        }).when(batchWriter).insertAll(anyList());
+        startPipeline(1, 1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<SupportTicket> first = CompletableFuture.supplyAsync(() -> submit(ticket("A")), pool);
+            writerBlocked.await(5, TimeUnit.SECONDS);
+            CompletableFuture<SupportTicket> queued = CompletableFuture.supplyAsync(() -> submit(ticket("B")), pool);
+            Thread.sleep(50);
+
+            assertThatThrownBy(() -> submit(ticket("C")))
+                    .isInstanceOf(TicketIngestionRejectedException.class)
+                    .hasMessage("Ticket ingestion queue is full");
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS).getTicketNumber()).isEqualTo("A");
+            assertThat(queued.get(5, TimeUnit.SECONDS).getTicketNumber()).isEqualTo("B");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void failingBatch_isRetriedRowByRow() throws Exception {
+        doAnswer(inv -> {
+            List<SupportTicket> tickets = inv.getArgument(0);
+            if (tickets.stream().anyMatch(t -> t.getTicketNumber().equals("DUP"))) {
+                throw new DuplicateKeyException("uk_ticket_number");
+            }
+            return null;
+        }).when(batchWriter).insertAll(anyList());
+        startPipeline(100, 10);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<SupportTicket> ok = CompletableFuture.supplyAsync(() -> submit(ticket("OK")), pool);
+            CompletableFuture<SupportTicket> dup = CompletableFuture.supplyAsync(() -> submit(ticket("DUP")), pool);
+
+            assertThat(ok.get(5, TimeUnit.SECONDS).getTicketNumber()).isEqualTo("OK");
+            assertThatThrownBy(() -> dup.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(DuplicateKeyException.class);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void slowCommit_rejectsTicketsStillQueuedAfterCommitTimeout() throws Exception {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> inserted = new CopyOnWriteArrayList<>();
+        doAnswer(inv -> {
+            writerBlocked.countDown();
+            release.await();
+            inv.<List<SupportTicket>>getArgument(0).forEach(t -> inserted.add(t.getTicketNumber()));
+            return null;
+        }).when(batchWriter).insertAll(anyList());
+        startPipeline(10, 1, Duration.ofMillis(100));
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<SupportTicket> writing = CompletableFuture.supplyAsync(() -> submit(ticket("SLOW")), pool);
+            writerBlocked.await(5, TimeUnit.SECONDS);
+
+            assertThatThrownBy(() -> submit(ticket("QUEUED")))
+                    .isInstanceOf(TicketIngestionRejectedException.class)
+                    .hasMessage("Ticket QUEUED was not committed in time");
+
+            // SLOW is past its timeout too, but its batch is being written: it waits for the outcome.
+            Thread.sleep(150);
+            assertThat(writing).isNotDone();
+            release.countDown();
+            assertThat(writing.get(5, TimeUnit.SECONDS).getTicketNumber()).isEqualTo("SLOW");
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+        pipeline.stop();
+        assertThat(inserted).containsExactly("SLOW");
+    }
+
+    @Test
+    void submitAfterStop_isRejected() {
+        startPipeline(10, 10);
+        pipeline.stop();
+
+        assertThatThrownBy(() -> submit(ticket("LATE")))
+                .isInstanceOf(TicketIngestionRejectedException.class)
+                .hasMessage("Ticket ingestion is not running");
+    }
+}
@@ -0,0 +1,176 @@
+package be.ap.student.tickets.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TicketNumberGeneratorTest {
+
+    /**
+     * Stands in for H2: every {@code nextval} advances the named sequence by the block size.
+     */
+    private static class FakeSequenceJdbcTemplate extends JdbcTemplate {
+        final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+        final AtomicLong roundTrips = new AtomicLong();
+
+        @Override
+        public void execute(String sql) {
+            String name = sql.split(" ")[5];
+            sequences.putIfAbsent(name, new AtomicLong(1 - TicketNumberGenerator.BLOCK_SIZE));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            roundTrips.incrementAndGet();
+            String name = sql.substring(sql.indexOf('\'') + 1, sql.lastIndexOf('\''));
+            return (T) Long.valueOf(sequences.get(name).addAndGet(TicketNumberGenerator.BLOCK_SIZE));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            roundTrips.incrementAndGet();
+            String name = sql.substring(sql.indexOf('\'') + 1, sql.lastIndexOf('\''));
+            List<T> values = new ArrayList<>();
+            for (int i = 0; i < (Integer) args[0]; i++) {
+                values.add((T) Long.valueOf(sequences.get(name).addAndGet(TicketNumberGenerator.BLOCK_SIZE)));
+            }
+            return values;
+        }
+    }
+
+    private static Clock clockAt(String instant) {
+        return Clock.fixed(Instant.parse(instant), ZoneOffset.UTC);
+    }
+
+    @Test
+    void nextTicketNumber_formatsYearAndZeroPaddedSequence() {
+        FakeSequenceJdbcTemplate jdbc = new FakeSequenceJdbcTemplate();
+        TicketNumberGenerator generator = new TicketNumberGenerator(jdbc, new SimpleMeterRegistry(), clockAt("2026-03-01T10:00:00Z"));
+
+        assertThat(generator.nextTicketNumber()).isEqualTo("TCK-2026-000001");
+        assertThat(generator.nextTicketNumber()).isEqualTo("TCK-2026-000002");
+    }
+
+    @Test
+    void nextTicketNumber_reservesOneBlockPerRoundTrip() {
+        FakeSequenceJdbcTemplate jdbc = new FakeSequenceJdbcTemplate();
+        TicketNumberGenerator generator = new TicketNumberGenerator(jdbc, new SimpleMeterRegistry(), clockAt("2026-03-01T10:00:00Z"));
+
+        for (int i = 0; i < TicketNumberGenerator.BLOCK_SIZE * 3; i++) {
+            generator.nextTicketNumber();
+        }
+
+        assertThat(jdbc.roundTrips.get()).isEqualTo(3);
+        assertThat(generator.nextTicketNumber()).isEqualTo("TCK-2026-000151");
+    }
+
+    @Test
+    void nextTicketNumbers_usesTheCurrentBlockThenReservesTheRestInOneRoundTrip() {
+        FakeSequenceJdbcTemplate jdbc = new FakeSequenceJdbcTemplate();
+        TicketNumberGenerator generator = new TicketNumberGenerator(jdbc, new SimpleMeterRegistry(), clockAt("2026-03-01T10:00:00Z"));
+        generator.nextTicketNumber();
+
+        List<String> batch = generator.nextTicketNumbers(120);
+
+        assertThat(batch).hasSize(120).doesNotHaveDuplicates()
+                .startsWith("TCK-2026-000002").endsWith("TCK-2026-000121");
+        assertThat(jdbc.roundTrips.get()).isEqualTo(2);
+        // The rest of the last block is kept for the next caller.
+        assertThat(generator.nextTicketNumber()).isEqualTo("TCK-2026-000122");
+        assertThat(jdbc.roundTrips.get()).isEqualTo(2);
+    }
+
+    @Test
+    void nextTicketNumbers_onH2_reservesDistinctBlocks() {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:ticket-numbers;DB_CLOSE_DELAY=-1"));
+        TicketNumberGenerator generator = new TicketNumberGenerator(jdbc, new SimpleMeterRegistry(), clockAt("2026-03-01T10:00:00Z"));
+
+        List<String> numbers = generator.nextTicketNumbers(TicketNumberGenerator.BLOCK_SIZE * 4);
+
+        assertThat(numbers).doesNotHaveDuplicates()
+                .startsWith("TCK-2026-000001").endsWith(TicketNumberGenerator.format(2026, TicketNumberGenerator.BLOCK_SIZE * 4));
+    }
+
+    @Test
+    void nextTicketNumbers_withinTheCurrentBlockNeedsNoRoundTrip() {
+        FakeSequenceJdbcTemplate jdbc = new FakeSequenceJdbcTemplate();
+        TicketNumberGenerator generator = new TicketNumberGenerator(jdbc, new SimpleMeterRegistry(), clockAt("2026-03-01T10:00:00Z"));
+        generator.nextTicketNumber();
+
+        assertThat(generator.nextTicketNumbers(3)).containsExactly("TCK-2026-000002", "TCK-2026-000003",
+                "TCK-2026-000004");
+        assertThat(jdbc.roundTrips.get()).isEqualTo(1);
+    }
+
+    @Test
+    void nextTicketNumber_restartsNumberingInANewYear() {
+        FakeSequenceJdbcTemplate jdbc = new FakeSequenceJdbcTemplate();
+        TicketNumberGenerator lastYear = new TicketNumberGenerator(jdbc, new SimpleMeterRegistry(), clockAt("2025-12-31T23:59:59Z"));
+        TicketNumberGenerator thisYear = new TicketNumberGenerator(jdbc, new SimpleMeterRegistry(), clockAt("2026-01-01T00:00:00Z"));
+
+        assertThat(lastYear.nextTicketNumber()).isEqualTo("TCK-2025-000001");
+        assertThat(thisYear.nextTicketNumber()).isEqualTo("TCK-2026-000001");
+        assertThat(jdbc.sequences).containsOnlyKeys("ticket_seq_2025", "ticket_seq_2026");
+    }
+
+    @Test
+    void format_keepsAllDigitsBeyondSixPositions() {
+        assertThat(TicketNumberGenerator.format(2026, 1234567)).isEqualTo("TCK-2026-1234567");
+        assertThat(TicketNumberGenerator.format(2026, 42)).isEqualTo("TCK-2026-000042");
+    }
+
+    @Test
+    void nextTicketNumber_64Threads_uniqueAndDense() throws Exception {
+        FakeSequenceJdbcTemplate jdbc = new FakeSequenceJdbcTemplate();
+        TicketNumberGenerator generator = new TicketNumberGenerator(jdbc, new SimpleMeterRegistry(), clockAt("2026-03-01T10:00:00Z"));
+        int threads = 64;
+        int perThread = 1_000;
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        numbers.add(generator.nextTicketNumber());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int total = threads * perThread;
+        assertThat(numbers).hasSize(total);
+        // A single generator hands out every reserved value, so the range has no gaps.
+        assertThat(numbers).contains(TicketNumberGenerator.format(2026, 1), TicketNumberGenerator.format(2026, total));
+        assertThat(jdbc.roundTrips.get()).isEqualTo(total / TicketNumberGenerator.BLOCK_SIZE);
+    }
+}
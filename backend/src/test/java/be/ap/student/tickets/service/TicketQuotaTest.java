@@ -0,0 +1,177 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.repo.SupportTicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against its own database so tickets of other tests do not count against these users.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ticket-quota;DB_CLOSE_DELAY=-1")
+public class TicketQuotaTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SupportTicketRepository repository;
+
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private final MutableClock clock = new MutableClock(now);
+    private TicketQuota quota;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from support_ticket");
+        quota = new TicketQuota(jdbcTemplate, new SimpleMeterRegistry(), Duration.ofDays(1), 3, 2, 1000,
+                List.of("svc-monitoring"), clock);
+    }
+
+    private void save(String userId, Priority priority, Instant createdAt) {
+        UUID id = UUID.randomUUID();
+        repository.save(new SupportTicket("QTA-" + id.toString().substring(0, 8), id, "Subject", "Description",
+                priority, TicketStatus.PENDING, createdAt, userId));
+    }
+
+    @Test
+    void reserve_allowsThreeTicketsPerDay_thenRejectsUntilTheOldestLeavesTheWindow() {
+        quota.reserve("user-1", Priority.LOW);
+        clock.instant = now.plus(Duration.ofHours(1));
+        quota.reserve("user-1", Priority.MEDIUM);
+        quota.reserve("user-1", Priority.LOW);
+
+        assertThatThrownBy(() -> quota.reserve("user-1", Priority.LOW))
+                .isInstanceOfSatisfying(TicketQuotaExceededException.class, e -> {
+                    assertThat(e.getLimit()).isEqualTo(TicketQuotaExceededException.Limit.TICKETS);
+                    assertThat(e.getRetryAfter()).isEqualTo(Duration.ofHours(23));
+                    assertThat(e.getMessage()).isEqualTo("A user can create at most 3 tickets per day");
+                });
+        quota.reserve("user-2", Priority.LOW);
+
+        clock.instant = now.plus(Duration.ofDays(1)).plusMillis(1);
+        quota.reserve("user-1", Priority.LOW);
+        assertThatThrownBy(() -> quota.reserve("user-1", Priority.LOW))
+                .isInstanceOf(TicketQuotaExceededException.class);
+    }
+
+    @Test
+    void reserve_allowsTwoHighPriorityTicketsPerDay() {
+        quota.reserve("user-1", Priority.HIGH);
+        quota.reserve("user-1", Priority.HIGH);
+
+        assertThatThrownBy(() -> quota.reserve("user-1", Priority.HIGH))
+                .isInstanceOfSatisfying(TicketQuotaExceededException.class, e -> assertThat(e.getLimit())
+                        .isEqualTo(TicketQuotaExceededException.Limit.HIGH_PRIORITY_TICKETS));
+        quota.reserve("user-1", Priority.MEDIUM);
+    }
+
+    @Test
+    void release_givesTheSlotBack() {
+        quota.reserve("user-1", Priority.HIGH);
+        TicketQuota.Reservation failed = quota.reserve("user-1", Priority.HIGH);
+        quota.release(failed);
+
+        quota.reserve("user-1", Priority.HIGH);
+        assertThatThrownBy(() -> quota.reserve("user-1", Priority.HIGH))
+                .isInstanceOf(TicketQuotaExceededException.class);
+        quota.reserve("user-1", Priority.LOW);
+    }
+
+    @Test
+    void reserve_doesNotLimitExemptIntegrationUsers() {
+        for (int i = 0; i < 10; i++) {
+            quota.release(quota.reserve("svc-monitoring", Priority.HIGH));
+            quota.reserve("svc-monitoring", Priority.HIGH);
+        }
+
+        quota.reserve("user-1", Priority.LOW);
+        quota.reserve("user-1", Priority.LOW);
+        quota.reserve("user-1", Priority.LOW);
+        assertThatThrownBy(() -> quota.reserve("user-1", Priority.LOW))
+                .isInstanceOf(TicketQuotaExceededException.class);
+    }
+
+    @Test
+    void reserve_rehydratesUsersFromTheirStoredTickets() {
+        save("user-1", Priority.HIGH, now.minus(Duration.ofHours(2)));
+        save("user-1", Priority.HIGH, now.minus(Duration.ofHours(1)));
+        save("user-1", Priority.LOW, now.minus(Duration.ofDays(2)));
+        save("user-2", Priority.HIGH, now.minus(Duration.ofHours(1)));
+
+        assertThatThrownBy(() -> quota.reserve("user-1", Priority.HIGH))
+                .isInstanceOfSatisfying(TicketQuotaExceededException.class,
+                        e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofHours(22)));
+        quota.reserve("user-1", Priority.LOW);
+        assertThatThrownBy(() -> quota.reserve("user-1", Priority.LOW))
+                .isInstanceOf(TicketQuotaExceededException.class);
+    }
+
+    @Test
+    void idleUsersAreEvicted_andReloadedWhenTheyReturn() {
+        quota.reserve("user-1", Priority.LOW);
+        save("user-1", Priority.LOW, now);
+        assertThat(quota.estimatedSize()).isEqualTo(1);
+
+        clock.instant = now.plus(Duration.ofHours(23));
+        quota.invalidateAll();
+        quota.reserve("user-1", Priority.LOW);
+        quota.reserve("user-1", Priority.LOW);
+        assertThatThrownBy(() -> quota.reserve("user-1", Priority.LOW))
+                .isInstanceOf(TicketQuotaExceededException.class);
+
+        clock.instant = now.plus(Duration.ofDays(2));
+        assertThat(quota.estimatedSize()).isZero();
+    }
+
+    @Test
+    void concurrentReservationsOfOneUser_neverOvershoot() throws Exception {
+        int threads = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        quota.reserve("user-1", Priority.HIGH);
+                        granted.incrementAndGet();
+                    } catch (TicketQuotaExceededException e) {
+                        // expected for all but two
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(granted).hasValue(2);
+    }
+}
@@ -0,0 +1,78 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.dto.TicketSearchCriteria;
+import be.ap.student.tickets.dto.TicketSearchCursor;
+import be.ap.student.tickets.dto.TicketSearchPage;
+import be.ap.student.tickets.dto.TicketSummary;
+import be.ap.student.tickets.repo.TicketSearchRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TicketSearchServiceTest {
+
+    private final TicketSearchRepository repository = mock(TicketSearchRepository.class);
+    private final TicketSearchService service = new TicketSearchService(repository);
+    private final TicketSearchCriteria criteria = new TicketSearchCriteria(null, null, null, null, false, false);
+
+    private static List<TicketSummary> rows(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new TicketSummary(UUID.randomUUID(), "TCK-2026-00000" + i, "Subject " + i,
+                        Priority.LOW, TicketStatus.PENDING, Instant.parse("2026-01-01T00:00:00Z").minusSeconds(i)))
+                .toList();
+    }
+
+    @Test
+    void search_returnsCursorOfLastRowWhenMoreRowsExist() {
+        List<TicketSummary> rows = rows(3);
+        when(repository.search(criteria, null, 3)).thenReturn(rows);
+
+        TicketSearchPage page = service.search(criteria, null, 2);
+
+        assertThat(page.items()).hasSize(2);
+        assertThat(TicketSearchCursor.decode(page.nextCursor())).isEqualTo(TicketSearchCursor.of(rows.get(1)));
+    }
+
+    @Test
+    void search_lastPageHasNoCursor() {
+        when(repository.search(criteria, null, 21)).thenReturn(rows(5));
+
+        TicketSearchPage page = service.search(criteria, "", 20);
+
+        assertThat(page.items()).hasSize(5);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void search_passesDecodedCursorToRepository() {
+        TicketSearchCursor cursor = new TicketSearchCursor(Instant.parse("2026-02-03T04:05:06Z"), UUID.randomUUID());
+        when(repository.search(any(), any(), eq(11))).thenReturn(List.of());
+
+        service.search(criteria, cursor.encode(), 10);
+
+        verify(repository).search(criteria, cursor, 11);
+    }
+
+    @Test
+    void search_rejectsInvalidCursorAndLimit() {
+        assertThatThrownBy(() -> service.search(criteria, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("cursor is invalid");
+        assertThatThrownBy(() -> service.search(criteria, null, 101))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("limit must be between 1 and 100");
+    }
+}
@@ -0,0 +1,329 @@
+package be.ap.student.tickets.service;
+
+import be.ap.student.common.api.RequestValidationException;
+import be.ap.student.tickets.domain.Priority;
+import be.ap.student.tickets.domain.SupportTicket;
+import be.ap.student.tickets.domain.TicketStatus;
+import be.ap.student.tickets.dto.CreateTicketRequest;
+import be.ap.student.tickets.dto.TicketSummary;
+import be.ap.student.tickets.event.TicketCreatedEvent;
+import be.ap.student.tickets.event.TicketEventOutbox;
+import be.ap.student.tickets.event.TicketStatusChangedEvent;
+import be.ap.student.tickets.repo.SupportTicketBatchWriter;
+import be.ap.student.tickets.repo.SupportTicketRepository;
+import be.ap.student.tickets.repo.TicketSearchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TicketServiceTest {
+
+    @Mock
+    private SupportTicketRepository repository;
+
+    @Mock
+    private SupportTicketBatchWriter batchWriter;
+
+    @Mock
+    private TicketSearchRepository searchRepository;
+
+    @Mock
+    private TicketNumberGenerator ticketNumberGenerator;
+
+    @Mock
+    private OpenTicketGauge openTicketGauge;
+
+    @Mock
+    private TicketIngestionPipeline ingestionPipeline;
+
+    @Mock
+    private DashboardStatsService dashboardStats;
+
+    @Mock
+    private TicketEventOutbox eventOutbox;
+
+    @Mock
+    private TicketCache ticketCache;
+
+    @Mock
+    private SlaEscalationScheduler slaScheduler;
+
+    @Mock
+    private TicketDispatchQueue dispatchQueue;
+
+    @Mock
+    private TicketQuota quota;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private TicketService ticketService;
+
+    private static CreateTicketRequest validRequest() {
+        CreateTicketRequest req = new CreateTicketRequest();
+        req.setSubject("Cannot login to portal");
+        req.setDescription("I cannot login since yesterday. Please investigate.");
+        req.setPriority("HIGH");
+        req.setUserId(UUID.randomUUID().toString());
+        return req;
+    }
+
+    @Test
+    void create_updatesGaugeWithoutCountQuery() {
+        when(ticketNumberGenerator.nextTicketNumber()).thenReturn("TCK-2026-000001");
+        when(repository.save(any(SupportTicket.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        CreateTicketRequest req = validRequest();
+        var saved = ticketService.create(req);
+
+        assertThat(saved).isPresent();
+        assertThat(saved.get().getTicketNumber()).isEqualTo("TCK-2026-000001");
+        assertThat(saved.get().getId().version()).isEqualTo(7);
+        assertThat(saved.get().getUserId()).isEqualTo(req.getUserId());
+        verify(openTicketGauge).ticketCreated(TicketStatus.PENDING);
+        verify(dashboardStats).ticketCreated(saved.get());
+        verify(slaScheduler).ticketCreated(saved.get());
+        verify(dispatchQueue).ticketCreated(saved.get());
+        verify(eventOutbox).append(any(TicketCreatedEvent.class));
+        verify(transactionManager).commit(any());
+        verify(ticketCache).put(TicketSummary.of(saved.get()));
+        verify(repository, never()).countByStatus(any());
+    }
+
+    @Test
+    void create_batchedMode_submitsToIngestionPipeline() {
+        when(ticketNumberGenerator.nextTicketNumber()).thenReturn("TCK-2026-000002");
+        when(ingestionPipeline.isEnabled()).thenReturn(true);
+        when(ingestionPipeline.submit(any(SupportTicket.class), any(TicketCreatedEvent.class)))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        var saved = ticketService.create(validRequest());
+
+        assertThat(saved).isPresent();
+        verify(repository, never()).save(any());
+        verify(eventOutbox, never()).append(any());
+        verify(openTicketGauge).ticketCreated(TicketStatus.PENDING);
+    }
+
+    @Test
+    void create_quotaExceeded_storesNothing() {
+        CreateTicketRequest req = validRequest();
+        when(quota.reserve(req.getUserId(), Priority.HIGH)).thenThrow(new TicketQuotaExceededException(
+                TicketQuotaExceededException.Limit.HIGH_PRIORITY_TICKETS, "limit", Duration.ofHours(1)));
+
+        assertThatThrownBy(() -> ticketService.create(req)).isInstanceOf(TicketQuotaExceededException.class);
+
+        verifyNoInteractions(ticketNumberGenerator, repository, eventOutbox, openTicketGauge);
+    }
+
+    @Test
+    void create_releasesQuotaWhenNotStored() {
+        CreateTicketRequest req = validRequest();
+        TicketQuota.Reservation reservation = mock(TicketQuota.Reservation.class);
+        when(quota.reserve(req.getUserId(), Priority.HIGH)).thenReturn(reservation);
+        when(ticketNumberGenerator.nextTicketNumber()).thenReturn("TCK-2026-000004");
+        when(repository.save(any(SupportTicket.class))).thenThrow(new IllegalStateException("database down"));
+
+        assertThatThrownBy(() -> ticketService.create(req)).isInstanceOf(IllegalStateException.class);
+
+        verify(quota).release(reservation);
+        verify(openTicketGauge, never()).ticketCreated(any());
+    }
+
+    @Test
+    void create_invalidPriority_isRejectedBeforeQuota() {
+        CreateTicketRequest req = validRequest();
+        req.setPriority("URGENT");
+
+        assertThatThrownBy(() -> ticketService.create(req)).isSameAs(TicketValidationException.INVALID_PRIORITY);
+
+        verifyNoInteractions(quota);
+    }
+
+    @Test
+    void createAll_storesAcceptedTicketsTogetherAndReportsRejectionsInOrder() {
+        CreateTicketRequest invalid = validRequest();
+        invalid.setSubject("x");
+        CreateTicketRequest overQuota = validRequest();
+        TicketQuotaExceededException exceeded = new TicketQuotaExceededException(
+                TicketQuotaExceededException.Limit.HIGH_PRIORITY_TICKETS, "limit", Duration.ofHours(1));
+        when(quota.reserve(any(), eq(Priority.HIGH))).thenAnswer(inv -> {
+            if (overQuota.getUserId().equals(inv.getArgument(0))) {
+                throw exceeded;
+            }
+            return mock(TicketQuota.Reservation.class);
+        });
+        when(ticketNumberGenerator.nextTicketNumbers(2)).thenReturn(List.of("TCK-2026-000010", "TCK-2026-000011"));
+
+        List<TicketService.BatchResult> results = ticketService.createAll(
+                List.of(validRequest(), invalid, overQuota, validRequest()));
+
+        assertThat(results).extracting(r -> r.ticket() == null ? null : r.ticket().getTicketNumber())
+                .containsExactly("TCK-2026-000010", null, null, "TCK-2026-000011");
+        assertThat(results.get(1).rejection()).isInstanceOf(RequestValidationException.class);
+        assertThat(results.get(2).rejection()).isInstanceOf(TicketQuotaExceededException.class);
+        verify(batchWriter).insertAll(argThat(tickets -> tickets.size() == 2));
+        verify(eventOutbox).appendAll(argThat(events -> events.size() == 2));
+        verify(transactionManager).commit(any());
+        verify(openTicketGauge, times(2)).ticketCreated(TicketStatus.PENDING);
+        verify(ticketNumberGenerator, never()).nextTicketNumber();
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void createAll_releasesEveryReservationWhenTheWriteFails() {
+        CreateTicketRequest first = validRequest();
+        CreateTicketRequest second = validRequest();
+        TicketQuota.Reservation firstReservation = mock(TicketQuota.Reservation.class);
+        TicketQuota.Reservation secondReservation = mock(TicketQuota.Reservation.class);
+        when(quota.reserve(first.getUserId(), Priority.HIGH)).thenReturn(firstReservation);
+        when(quota.reserve(second.getUserId(), Priority.HIGH)).thenReturn(secondReservation);
+        when(ticketNumberGenerator.nextTicketNumbers(2)).thenReturn(List.of("TCK-2026-000020", "TCK-2026-000021"));
+        doThrow(new IllegalStateException("database down")).when(batchWriter).insertAll(any());
+
+        assertThatThrownBy(() -> ticketService.createAll(List.of(first, second)))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(quota).release(firstReservation);
+        verify(quota).release(secondReservation);
+        verify(openTicketGauge, never()).ticketCreated(any());
+    }
+
+    @Test
+    void createAll_releasesEarlierReservationsWhenAQuotaLoadFails() {
+        CreateTicketRequest first = validRequest();
+        CreateTicketRequest second = validRequest();
+        TicketQuota.Reservation firstReservation = mock(TicketQuota.Reservation.class);
+        when(quota.reserve(first.getUserId(), Priority.HIGH)).thenReturn(firstReservation);
+        when(quota.reserve(second.getUserId(), Priority.HIGH))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        assertThatThrownBy(() -> ticketService.createAll(List.of(first, second)))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+
+        verify(quota).release(firstReservation);
+        verify(ticketNumberGenerator, never()).nextTicketNumbers(anyInt());
+        verify(batchWriter, never()).insertAll(any());
+    }
+
+    @Test
+    void claimNext_movesOnWhenAnotherAgentWonTheTicket() {
+        UUID lost = UUID.randomUUID();
+        UUID won = UUID.randomUUID();
+        SupportTicket ticket = new SupportTicket("TCK-2026-000030", won, "Subject", "Description", Priority.HIGH,
+                TicketStatus.IN_PROGRESS, Instant.now());
+        when(dispatchQueue.poll()).thenReturn(new TicketDispatchQueue.Entry(lost, Priority.HIGH, 1),
+                new TicketDispatchQueue.Entry(won, Priority.HIGH, 2));
+        when(repository.changeStatusIf(lost, TicketStatus.PENDING, TicketStatus.IN_PROGRESS)).thenReturn(0);
+        when(repository.changeStatusIf(won, TicketStatus.PENDING, TicketStatus.IN_PROGRESS)).thenReturn(1);
+        when(repository.findById(won)).thenReturn(Optional.of(ticket));
+
+        assertThat(ticketService.claimNext()).contains(ticket);
+
+        verify(eventOutbox).append(any(TicketStatusChangedEvent.class));
+        verify(openTicketGauge).statusChanged(TicketStatus.PENDING, TicketStatus.IN_PROGRESS);
+        verify(slaScheduler).statusChanged(ticket, TicketStatus.PENDING);
+        verify(ticketCache).put(TicketSummary.of(ticket));
+    }
+
+    @Test
+    void claimNext_putsTheTicketBackWhenTheClaimFails() {
+        TicketDispatchQueue.Entry entry = new TicketDispatchQueue.Entry(UUID.randomUUID(), Priority.LOW, 1);
+        when(dispatchQueue.poll()).thenReturn(entry);
+        when(repository.changeStatusIf(entry.ticketId(), TicketStatus.PENDING, TicketStatus.IN_PROGRESS))
+                .thenThrow(new IllegalStateException("database down"));
+
+        assertThatThrownBy(() -> ticketService.claimNext()).isInstanceOf(IllegalStateException.class);
+
+        verify(dispatchQueue).putBack(entry);
+    }
+
+    @Test
+    void changeStatus_reportsTransitionToGauge() {
+        UUID id = UUID.randomUUID();
+        SupportTicket ticket = new SupportTicket("TCK-2026-000001", id, "Subject", "Description", null,
+                TicketStatus.PENDING, Instant.now());
+        when(repository.findById(id)).thenReturn(Optional.of(ticket));
+
+        ticketService.changeStatus(id, TicketStatus.IN_PROGRESS);
+
+        assertThat(ticket.getStatus()).isEqualTo("IN_PROGRESS");
+        verify(openTicketGauge).statusChanged(eq(TicketStatus.PENDING), eq(TicketStatus.IN_PROGRESS));
+        verify(dashboardStats).statusChanged(ticket, TicketStatus.PENDING);
+        verify(slaScheduler).statusChanged(ticket, TicketStatus.PENDING);
+        verify(dispatchQueue).statusChanged(ticket, TicketStatus.PENDING);
+        verify(eventOutbox).append(any(TicketStatusChangedEvent.class));
+        verify(ticketCache).put(TicketSummary.of(ticket));
+    }
+
+    @Test
+    void changeStatus_updatesInMemoryViewsOnlyAfterCommit() {
+        UUID id = UUID.randomUUID();
+        SupportTicket ticket = new SupportTicket("TCK-2026-000002", id, "Subject", "Description", Priority.HIGH,
+                TicketStatus.PENDING, Instant.now());
+        when(repository.findById(id)).thenReturn(Optional.of(ticket));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ticketService.changeStatus(id, TicketStatus.IN_PROGRESS);
+
+            verifyNoInteractions(openTicketGauge, dashboardStats, dispatchQueue, ticketCache);
+            verify(slaScheduler, never()).statusChanged(any(), any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(openTicketGauge).statusChanged(TicketStatus.PENDING, TicketStatus.IN_PROGRESS);
+        verify(dashboardStats).statusChanged(ticket, TicketStatus.PENDING);
+        verify(slaScheduler).statusChanged(ticket, TicketStatus.PENDING);
+        verify(dispatchQueue).statusChanged(ticket, TicketStatus.PENDING);
+        verify(ticketCache).put(TicketSummary.of(ticket));
+    }
+
+    @Test
+    void calls_areTimedByMethodAndException() {
+        when(ticketNumberGenerator.nextTicketNumber()).thenReturn("TCK-2026-000003");
+        when(repository.save(any(SupportTicket.class))).thenAnswer(inv -> inv.getArgument(0));
+        UUID missing = UUID.randomUUID();
+        when(repository.findById(missing)).thenReturn(Optional.empty());
+
+        ticketService.create(validRequest());
+        assertThatThrownBy(() -> ticketService.findById(missing)).isInstanceOf(NoSuchElementException.class);
+
+        assertThat(meterRegistry.get(TicketService.TIMER).tags("method", "create", "exception", "none").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(TicketService.TIMER)
+                .tags("method", "findById", "exception", "TicketNotFoundException").timer().count())
+                .isEqualTo(1);
+    }
+}